@@ -7,6 +7,12 @@ document.addEventListener('DOMContentLoaded', () => {
     const filterSetor = document.getElementById('filterSetor'); // Novo: filtro de setor
     const tabelaInventarioBody = document.querySelector('#tabelaInventario tbody');
     const mensagemConsulta = document.getElementById('mensagemConsulta');
+    const btnCarregarMais = document.getElementById('btnCarregarMais'); // Botão para buscar a próxima página
+
+    const TAMANHO_PAGINA = 50; // Quantidade de itens pedida por página à API
+    let proximoCursor = null; // Cursor ('nextCursor') da próxima página da busca atual
+    let revisaoLista = null; // Revisão do inventário da primeira página (ETag), início do feed de alterações
+    let feedAlteracoes = null; // EventSource do feed de alterações (atualiza a tabela sem recarregar)
 
     // --- Funções para Modal Customizado (Substituindo alert/confirm) ---
     function showModal(message, type = 'info', callback = null) {
@@ -92,16 +98,12 @@ document.addEventListener('DOMContentLoaded', () => {
     // --- Fim das Funções para Modal Customizado ---
 
 
-    async function carregarItensInventario() {
-        mensagemConsulta.textContent = 'Carregando itens...';
-        mensagemConsulta.style.color = 'black';
-        tabelaInventarioBody.innerHTML = '<tr><td colspan="9">Carregando itens...</td></tr>'; // Colspan ajustado
-
+    // Monta a URL da busca paginada com os filtros atuais e o cursor (se houver)
+    function montarUrlBusca(cursor) {
         const searchTerm = searchInput.value;
         const ativoFilter = filterAtivo.value; // 'true', 'false' ou ''
         const setorFilter = filterSetor.value; // 'TI', 'RH', etc. ou ''
 
-        let url = `/api/inventario/itens/search?`; // Usaremos o endpoint de busca
         const params = new URLSearchParams();
 
         if (searchTerm) {
@@ -113,17 +115,34 @@ document.addEventListener('DOMContentLoaded', () => {
         if (setorFilter) { // Envia o filtro se um setor for selecionado
             params.append('setor', setorFilter);
         }
+        params.append('limit', TAMANHO_PAGINA);
+        if (cursor) { // Sem cursor, a API retorna a primeira página
+            params.append('cursor', cursor);
+        } else {
+            params.append('facets', 'true'); // Contagens por setor e status, exibidas nos filtros
+        }
 
-        url += params.toString();
+        return `/api/inventario/itens/search?${params.toString()}`; // Usaremos o endpoint de busca
+    }
+
+    // Carrega a primeira página da busca, substituindo o conteúdo da tabela
+    async function carregarItensInventario() {
+        mensagemConsulta.textContent = 'Carregando itens...';
+        mensagemConsulta.style.color = 'black';
+        tabelaInventarioBody.innerHTML = '<tr><td colspan="9">Carregando itens...</td></tr>'; // Colspan ajustado
+        proximoCursor = null;
+        btnCarregarMais.style.display = 'none';
 
         try {
-            const response = await fetch(url);
-            if (!response.ok) {
-                throw new Error(`HTTP error! status: ${response.status}`);
+            const pagina = await buscarPagina(null);
+            tabelaInventarioBody.innerHTML = ''; // Limpa o corpo da tabela
+            if (pagina.items.length === 0) {
+                tabelaInventarioBody.innerHTML = '<tr><td colspan="9">Nenhum item encontrado.</td></tr>'; // Colspan ajustado
+            } else {
+                renderizarTabela(pagina.items);
             }
-            const itens = await response.json();
-            renderizarTabela(itens);
             mensagemConsulta.textContent = ''; // Limpa mensagem após carregar
+            abrirFeedAlteracoes();
         } catch (error) {
             console.error('Erro ao carregar inventário:', error);
             mensagemConsulta.textContent = 'Erro ao carregar itens do inventário.';
@@ -132,36 +151,150 @@ document.addEventListener('DOMContentLoaded', () => {
         }
     }
 
-    function renderizarTabela(itens) {
-        tabelaInventarioBody.innerHTML = ''; // Limpa o corpo da tabela
-        if (itens.length === 0) {
-            tabelaInventarioBody.innerHTML = '<tr><td colspan="9">Nenhum item encontrado.</td></tr>'; // Colspan ajustado
+    // Carrega a próxima página da busca atual e adiciona as linhas ao final da tabela
+    async function carregarMaisItens() {
+        if (!proximoCursor) {
             return;
         }
-        itens.forEach(item => {
-            const row = tabelaInventarioBody.insertRow();
-            row.insertCell(0).textContent = item.id;
-            row.insertCell(1).textContent = item.nome;
-            row.insertCell(2).textContent = item.etiqueta;
-            row.insertCell(3).textContent = item.numeroSerie;
-            row.insertCell(4).textContent = item.usuario;
-            row.insertCell(5).textContent = item.observacoes;
-            row.insertCell(6).textContent = item.ativo ? 'ativo' : 'Não ativo'; // Exibe "Sim" ou "Não"
-            row.insertCell(7).textContent = item.setor; // Exibe o setor
-
-            const acoesCell = row.insertCell(8); // Coluna de ações (agora a 9ª coluna)
-            const btnEditar = document.createElement('button');
-            btnEditar.textContent = 'Editar';
-            btnEditar.classList.add('btn-editar');
-            btnEditar.addEventListener('click', () => editarItem(item));
-
-            const btnExcluir = document.createElement('button');
-            btnExcluir.textContent = 'Excluir';
-            btnExcluir.classList.add('btn-excluir');
-            btnExcluir.addEventListener('click', () => excluirItem(item.id, item.nome));
-
-            acoesCell.appendChild(btnEditar);
-            acoesCell.appendChild(btnExcluir);
+        btnCarregarMais.disabled = true;
+        try {
+            const pagina = await buscarPagina(proximoCursor);
+            renderizarTabela(pagina.items);
+        } catch (error) {
+            console.error('Erro ao carregar mais itens:', error);
+            mensagemConsulta.textContent = 'Erro ao carregar mais itens do inventário.';
+            mensagemConsulta.style.color = 'red';
+        } finally {
+            btnCarregarMais.disabled = false;
+        }
+    }
+
+    // Busca uma página na API e atualiza o cursor e a visibilidade do botão "Carregar mais"
+    async function buscarPagina(cursor) {
+        const response = await fetch(montarUrlBusca(cursor));
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+        if (!cursor) {
+            // ETag W/"<revisão>" (ou W/"<revisão>-cbor"): o feed começa nesta revisão, sem perder alterações
+            const etag = response.headers.get('ETag');
+            const revisao = etag ? etag.match(/"(\d+)/) : null;
+            revisaoLista = revisao ? revisao[1] : null;
+        }
+        const pagina = await response.json(); // { items: [...], nextCursor: '...' | null, facets: {...} }
+        if (!cursor) {
+            atualizarFacetas(pagina.facets);
+        }
+        proximoCursor = pagina.nextCursor;
+        btnCarregarMais.style.display = proximoCursor ? 'inline-block' : 'none';
+        return pagina;
+    }
+
+    // Mostra nas opções dos filtros quantos itens cada uma traria (ex: "TI (42)"). Sem facetas (índices em
+    // construção ou termo curto), volta aos nomes originais. Com termo de busca, a contagem é aproximada ("~").
+    function atualizarFacetas(facetas) {
+        const prefixo = facetas && !facetas.exact ? '~' : '';
+        const porSetor = {};
+        if (facetas) {
+            Object.entries(facetas.setor).forEach(([setor, total]) => porSetor[setor.toLowerCase()] = total);
+        }
+        Array.from(filterSetor.options).forEach(option => {
+            if (!option.value) {
+                return;
+            }
+            option.dataset.nome = option.dataset.nome || option.textContent;
+            const total = facetas ? (porSetor[option.value.toLowerCase()] || 0) : null;
+            option.textContent = total === null ? option.dataset.nome : `${option.dataset.nome} (${prefixo}${total})`;
+        });
+        Array.from(filterAtivo.options).forEach(option => {
+            if (!option.value) {
+                return;
+            }
+            option.dataset.nome = option.dataset.nome || option.textContent;
+            const total = facetas ? facetas.ativo[option.value] : null;
+            option.textContent = total === null ? option.dataset.nome : `${option.dataset.nome} (${prefixo}${total})`;
+        });
+    }
+
+    // Adiciona as linhas dos itens ao final da tabela
+    function renderizarTabela(itens) {
+        itens.forEach(item => preencherLinha(tabelaInventarioBody.insertRow(), item));
+    }
+
+    // Preenche (ou substitui) as células de uma linha com os dados do item
+    function preencherLinha(row, item) {
+        row.innerHTML = '';
+        row.dataset.id = item.id;
+        row.insertCell(0).textContent = item.id;
+        row.insertCell(1).textContent = item.nome;
+        row.insertCell(2).textContent = item.etiqueta;
+        row.insertCell(3).textContent = item.numeroSerie;
+        row.insertCell(4).textContent = item.usuario;
+        row.insertCell(5).textContent = item.observacoes;
+        row.insertCell(6).textContent = item.ativo ? 'ativo' : 'Não ativo'; // Exibe "Sim" ou "Não"
+        row.insertCell(7).textContent = item.setor; // Exibe o setor
+
+        const acoesCell = row.insertCell(8); // Coluna de ações (agora a 9ª coluna)
+        const btnEditar = document.createElement('button');
+        btnEditar.textContent = 'Editar';
+        btnEditar.classList.add('btn-editar');
+        btnEditar.addEventListener('click', () => editarItem(item));
+
+        const btnExcluir = document.createElement('button');
+        btnExcluir.textContent = 'Excluir';
+        btnExcluir.classList.add('btn-excluir');
+        btnExcluir.addEventListener('click', () => excluirItem(item.id, item.nome));
+
+        acoesCell.appendChild(btnEditar);
+        acoesCell.appendChild(btnExcluir);
+    }
+
+    // Abre o feed de alterações (SSE) com os filtros de setor e status da busca atual. As linhas exibidas são
+    // atualizadas ou removidas conforme as alterações chegam; itens fora da tabela apenas geram um aviso.
+    // Ao cair, o EventSource reconecta sozinho e envia o Last-Event-ID para receber o que perdeu.
+    function abrirFeedAlteracoes() {
+        if (feedAlteracoes) {
+            feedAlteracoes.close();
+        }
+        const params = new URLSearchParams();
+        if (filterAtivo.value !== '') {
+            params.append('ativo', filterAtivo.value);
+        }
+        if (filterSetor.value) {
+            params.append('setor', filterSetor.value);
+        }
+        if (revisaoLista) {
+            params.append('since', revisaoLista);
+        }
+        feedAlteracoes = new EventSource(`/api/inventario/itens/changes/stream?${params.toString()}`);
+        feedAlteracoes.addEventListener('alteracoes', (event) => {
+            const alteracoes = JSON.parse(event.data); // { alterados: [...], removidos: [...], versao: n }
+            let foraDaTabela = 0;
+            alteracoes.alterados.forEach(item => {
+                const row = tabelaInventarioBody.querySelector(`tr[data-id="${item.id}"]`);
+                if (row) {
+                    preencherLinha(row, item);
+                } else {
+                    foraDaTabela++;
+                }
+            });
+            alteracoes.removidos.forEach(id => {
+                const row = tabelaInventarioBody.querySelector(`tr[data-id="${id}"]`);
+                if (row) {
+                    row.remove();
+                }
+            });
+            if (foraDaTabela > 0) {
+                mensagemConsulta.textContent = `${foraDaTabela} item(ns) novo(s) ou alterado(s) fora da lista. Clique em Buscar para atualizar.`;
+                mensagemConsulta.style.color = 'black';
+            }
+        });
+        // A revisão da lista é anterior à limpeza do log de alterações: a lista é recarregada e o feed reaberto
+        // (fechado antes, para que o EventSource não reconecte com o Last-Event-ID antigo).
+        feedAlteracoes.addEventListener('resync', () => {
+            feedAlteracoes.close();
+            feedAlteracoes = null;
+            carregarItensInventario();
         });
     }
 
@@ -170,6 +303,8 @@ document.addEventListener('DOMContentLoaded', () => {
     // Event listeners para os filtros de select (opcional, para busca automática ao mudar)
     filterAtivo.addEventListener('change', carregarItensInventario);
     filterSetor.addEventListener('change', carregarItensInventario);
+    // Event listener para o botão que carrega a próxima página
+    btnCarregarMais.addEventListener('click', carregarMaisItens);
 
 
     async function editarItem(item) {
@@ -281,18 +416,35 @@ document.addEventListener('DOMContentLoaded', () => {
                 return;
             }
 
+            // Envia apenas os campos alterados (PATCH), com a versão lida no If-Match
+            const alteracoes = {};
+            for (const [campo, valor] of Object.entries(updatedItem)) {
+                const original = typeof valor === 'string' ? (item[campo] || '') : item[campo];
+                if (valor !== original) {
+                    alteracoes[campo] = valor;
+                }
+            }
+            if (Object.keys(alteracoes).length === 0) {
+                hideEditModal();
+                return;
+            }
+
             try {
                 const response = await fetch(`/api/inventario/itens/${item.id}`, {
-                    method: 'PUT',
+                    method: 'PATCH',
                     headers: {
                         'Content-Type': 'application/json',
+                        'If-Match': `"${item.versao}"`,
                     },
-                    body: JSON.stringify(updatedItem),
+                    body: JSON.stringify(alteracoes),
                 });
 
                 if (response.ok) {
                     showModal('Item atualizado com sucesso!', 'info', carregarItensInventario);
                     hideEditModal();
+                } else if (response.status === 409) {
+                    showModal('Este item foi alterado por outra pessoa. A lista será recarregada; abra o item e tente novamente.', 'alert', carregarItensInventario);
+                    hideEditModal();
                 } else {
                     const errorData = await response.json();
                     showModal(`Erro ao atualizar item: ${errorData.message || response.statusText}`, 'alert');
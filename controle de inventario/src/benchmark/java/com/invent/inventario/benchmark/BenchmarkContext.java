@@ -0,0 +1,131 @@
+package com.invent.inventario.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.invent.inventario.InventarioApplication;
+import com.invent.inventario.index.TrigramIndex;
+import com.invent.inventario.service.InventarioImporter;
+
+/**
+ * Inicia o contexto Spring da aplicação contra um H2 em memória (modo MySQL) e carrega itens gerados
+ * por {@link BenchmarkData}. Os itens entram pelo InventarioImporter, o mesmo caminho da importação em
+ * lote, então cache, índice de trigramas e contadores do resumo ficam consistentes com o banco.
+ */
+public final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 50_000;
+    private static final String CSV_HEADER = "nome,etiqueta,numeroSerie,usuario,observacoes,ativo,setor\n";
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Propriedades do contexto de benchmark. O H2 roda no mesmo processo, então os tempos medidos não
+     * incluem a rede: servem de base de comparação entre versões, não de estimativa absoluta de produção.
+     * @param database Nome do banco em memória (um por contexto).
+     * @return As propriedades, que podem ser complementadas antes de iniciar o contexto.
+     */
+    public static Map<String, Object> properties(String database) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        // As migrações do Flyway são escritas para o MySQL; no H2 o schema vem das entidades.
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.open-in-view", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.invent.inventario", "INFO");
+        properties.put("logging.level.org.springframework", "WARN");
+        properties.put("logging.level.org.hibernate", "WARN");
+        properties.put("inventario.export.fetch-size", "1000");
+        return properties;
+    }
+
+    /**
+     * Habilita o modo com réplica de leitura contra um segundo H2 em memória, que deve ser mantido por uma
+     * {@link ReplicaSimulada} depois que o contexto iniciar. Até lá as leituras ficam no primário.
+     * @param properties As propriedades do contexto (ver {@link #properties(String)}).
+     * @param database Nome do banco primário; a réplica usa o mesmo nome com o sufixo "_replica".
+     */
+    public static void withReplica(Map<String, Object> properties, String database) {
+        properties.put("inventario.datasource.replica.enabled", "true");
+        properties.put("inventario.datasource.replica.url",
+                "jdbc:h2:mem:" + database + "_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Inicia o contexto sem servidor web e carrega os itens.
+     * @param rows Quantidade de itens a carregar.
+     * @return O contexto iniciado.
+     */
+    public static ConfigurableApplicationContext start(long rows) {
+        return start(WebApplicationType.NONE, properties("benchmark"), rows);
+    }
+
+    /**
+     * Inicia o contexto e carrega os itens, aguardando o índice de trigramas ficar pronto.
+     * @param webApplicationType NONE para benchmarks de componentes, SERVLET para testes de carga via HTTP.
+     * @param properties Propriedades do contexto (ver {@link #properties(String)}).
+     * @param rows Quantidade de itens a carregar.
+     * @return O contexto iniciado.
+     */
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType,
+                                                       Map<String, Object> properties, long rows) {
+        // Passadas como argumentos de linha de comando, que têm precedência sobre o application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        // O DevTools (no classpath de runtime) só lê esta opção como propriedade de sistema. Como argumento, ele
+        // reiniciaria o main do benchmark com os argumentos do Spring no lugar das opções do usuário.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventarioApplication.class)
+                .web(webApplicationType)
+                .run(args);
+        seed(context.getBean(InventarioImporter.class), rows);
+        awaitTrigramIndex(context.getBean(TrigramIndex.class));
+        return context;
+    }
+
+    private static void seed(InventarioImporter importer, long rows) {
+        long start = System.nanoTime();
+        for (long from = 0; from < rows; from += SEED_CHUNK) {
+            StringBuilder csv = new StringBuilder(CSV_HEADER);
+            BenchmarkData.appendCsv(from, Math.min(rows, from + SEED_CHUNK), csv);
+            try {
+                importer.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        System.out.printf("Carga de %d itens concluída em %d ms.%n", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void awaitTrigramIndex(TrigramIndex index) {
+        long deadline = System.nanoTime() + 300_000_000_000L;
+        while (!index.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("O índice de trigramas não ficou pronto em 5 minutos.");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.invent.inventario.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Gerador determinístico de itens de inventário para benchmarks e testes de carga.
+ * A mesma semente gera sempre os mesmos itens, então os resultados podem ser comparados entre execuções.
+ */
+public final class BenchmarkData {
+
+    /** Primeira etiqueta gerada; a etiqueta do item de índice i é ETIQUETA_INICIAL + i. */
+    public static final int ETIQUETA_INICIAL = 100_000;
+
+    static final String[] NOMES = {
+            "Notebook Dell Latitude 5420", "Monitor LG 24MK430", "Desktop HP ProDesk 400", "Impressora Epson L3150",
+            "Teclado Logitech K120", "Mouse Microsoft Basic", "Nobreak SMS 1200VA", "Switch TP-Link 24 portas",
+            "Telefone IP Grandstream", "Projetor Epson PowerLite", "Notebook Lenovo ThinkPad E14", "Monitor Samsung 27"
+    };
+    static final String[] SETORES = {
+            "TI", "Financeiro", "RH", "Compras", "Jurídico", "Diretoria", "Atendimento", "Logística"
+    };
+    static final String[] PRENOMES = {
+            "Ana", "Bruno", "Carla", "Diego", "Eduardo", "Fernanda", "Gabriel", "Helena", "Igor", "Júlia", "Lucas", "Marina"
+    };
+    static final String[] SOBRENOMES = {
+            "Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira", "Costa", "Almeida", "Gonçalves", "Rocha"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Gera o item de índice i (sem id) de forma determinística.
+     * @param index Índice do item, a partir de 0.
+     * @return O item gerado.
+     */
+    public static Inventario item(long index) {
+        SplittableRandom random = new SplittableRandom(index * 0x9E3779B97F4A7C15L);
+        Inventario item = new Inventario();
+        item.setNome(NOMES[random.nextInt(NOMES.length)] + " " + (index % 1000));
+        item.setEtiqueta(ETIQUETA_INICIAL + (int) index);
+        item.setNumeroSerie("SN" + Long.toHexString(random.nextLong() & 0xFFFFFFFFFFL).toUpperCase());
+        item.setUsuario(PRENOMES[random.nextInt(PRENOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)]);
+        item.setObservacoes(random.nextInt(4) == 0 ? "Patrimônio conferido no inventário anual" : null);
+        item.setAtivo(random.nextInt(100) < 85);
+        item.setSetor(SETORES[random.nextInt(SETORES.length)]);
+        return item;
+    }
+
+    /**
+     * Gera uma lista de itens com ids sequenciais (a partir de 1), para benchmarks sem banco.
+     * @param size Quantidade de itens.
+     * @return Os itens gerados.
+     */
+    public static List<Inventario> items(int size) {
+        List<Inventario> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Inventario item = item(i);
+            item.setId(i + 1L);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Monta as linhas do CSV de importação (sem cabeçalho) dos itens [from, to).
+     * @param from Índice do primeiro item.
+     * @param to Índice após o último item.
+     * @param out Destino das linhas.
+     */
+    static void appendCsv(long from, long to, StringBuilder out) {
+        for (long i = from; i < to; i++) {
+            Inventario item = item(i);
+            out.append(item.getNome()).append(',')
+                    .append(item.getEtiqueta()).append(',')
+                    .append(item.getNumeroSerie()).append(',')
+                    .append(item.getUsuario()).append(',')
+                    .append(item.getObservacoes() != null ? item.getObservacoes() : "").append(',')
+                    .append(item.getAtivo()).append(',')
+                    .append(item.getSetor()).append('\n');
+        }
+    }
+}
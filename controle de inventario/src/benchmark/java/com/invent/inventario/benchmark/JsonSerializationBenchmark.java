@@ -0,0 +1,89 @@
+package com.invent.inventario.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Mede a serialização JSON de listas grandes de itens, como nas respostas de GET /api/inventario/itens
+ * e da busca, com o item completo e com apenas alguns campos (parâmetro 'fields'). Usa um ObjectMapper com os mesmos padrões do Spring (Jackson2ObjectMapperBuilder), sem
+ * iniciar o contexto da aplicação, então não precisa de banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private List<Inventario> items;
+    private List<Map<String, Object>> sparseItems;
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private final OutputStream discard = OutputStream.nullOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = BenchmarkData.items(size);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Inventario.class));
+        // Mesmo formato de GET /itens?fields=nome,etiqueta,setor
+        sparseItems = items.stream().map(item -> {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("id", item.getId());
+            fields.put("nome", item.getNome());
+            fields.put("etiqueta", item.getEtiqueta());
+            fields.put("setor", item.getSetor());
+            return fields;
+        }).toList();
+    }
+
+    /**
+     * Serialização em um byte[], como faz o conversor do Spring MVC antes de gravar a resposta.
+     */
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    /**
+     * Serialização direta para um OutputStream, com o writer do tipo da lista já resolvido.
+     */
+    @Benchmark
+    public void writeToStream() throws IOException {
+        listWriter.writeValue(discard, items);
+    }
+
+    /**
+     * Serialização em um byte[] apenas dos campos id, nome, etiqueta e setor (sparse fieldset).
+     */
+    @Benchmark
+    public byte[] writeSparseFields() throws IOException {
+        return objectMapper.writeValueAsBytes(sparseItems);
+    }
+}
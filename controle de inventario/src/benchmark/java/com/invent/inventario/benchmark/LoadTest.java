@@ -0,0 +1,425 @@
+package com.invent.inventario.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.config.ConnectionLimitingDataSource;
+import com.invent.inventario.config.ReplicaRouter;
+import com.invent.inventario.dto.DataSourceStatistics;
+import com.invent.inventario.limiter.ConcurrencyLimitInterceptor;
+import com.invent.inventario.entity.Inventario;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Teste de carga ponta a ponta da API REST: inicia o contexto Spring completo (Tomcat em porta aleatória)
+ * contra um H2 em memória no modo MySQL, que faz o papel do contêiner 'banco', carrega a tabela com
+ * 10 mil, 100 mil e 1 milhão de itens e dispara uma carga mista contra os endpoints do InventarioController.
+ *
+ * A carga é de malha fechada: cada worker envia uma requisição, espera a resposta e envia a próxima.
+ * Para cada tamanho de tabela e endpoint são reportados vazão e latências p50/p95/p99/p999 (ms), na saída
+ * padrão e em target/loadtest-results.csv (acumulado entre execuções, para comparar versões).
+ *
+ * Uso: mvn -Pbenchmark compile exec:exec@loadtest -Dloadtest.args="--rows=10000,100000 --concurrency=64"
+ * Opções (valores padrão entre parênteses):
+ *   --rows=N[,N...]      Tamanhos de tabela (10000,100000,1000000)
+ *   --concurrency=N      Workers simultâneos (32)
+ *   --warmup=S           Segundos de aquecimento, não medidos (15)
+ *   --duration=S         Segundos de medição por tamanho de tabela (60)
+ *   --mix=op:peso,...    Pesos das operações (search:60,get:15,list:5,update:10,create:5,delete:5);
+ *                        também disponível: etiqueta (consulta por código de barras)
+ *   --replica-lag-ms=N   Habilita a réplica de leitura contra um segundo H2 mantido por uma {@link ReplicaSimulada}
+ *                        com N ms de atraso (desabilitada); leituras por destino em GET /diagnostico/replica
+ *   --limiter=true|false Limite de concorrência por classe de endpoint (true); as requisições recusadas (503)
+ *                        contam como erros e o estado final de cada limite é impresso ao fim da medição
+ *   --virtual-threads=true|false  Atende as requisições em threads virtuais, com o limite de conexões do
+ *                        DataSource (false, o Tomcat com o pool de threads de plataforma); com o limite, as
+ *                        esperas por conexão que excederam o tempo são impressas ao fim da medição
+ *
+ * Ao fim da medição também é impresso o tempo em que as gravações seguraram o contador de revisão do log de
+ * alterações ('inventario.sync.revision-lock', inclusive no aquecimento), que serializa as transações de escrita.
+ */
+public final class LoadTest {
+
+    private static final Path RESULTS = Path.of("target", "loadtest-results.csv");
+    private static final String BASE_PATH = "/api/inventario/itens";
+    private static final String[] SEARCH_TERMS = {
+            "notebook", "monitor", "dell", "epson", "lenovo", "impressora", "silva", "rocha", "marina", "sn1a", "24 portas"
+    };
+
+    /**
+     * Operações da carga mista e o endpoint que cada uma exercita.
+     */
+    enum Operation {
+        SEARCH("GET /itens/search"),
+        GET("GET /itens/{id}"),
+        ETIQUETA("GET /itens/etiqueta/{n}"),
+        LIST("GET /itens"),
+        UPDATE("PUT /itens/{id}"),
+        CREATE("POST /itens"),
+        DELETE("DELETE /itens/{id}");
+
+        final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Operation[] schedule; // Cada operação repetida conforme o seu peso, sorteada uniformemente
+    private final long replicaLagMillis; // Negativo: sem réplica
+    private final boolean limiter;
+    private final boolean virtualThreads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private LoadTest(int concurrency, Duration warmup, Duration duration, Map<Operation, Integer> mix,
+                     long replicaLagMillis, boolean limiter, boolean virtualThreads) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.replicaLagMillis = replicaLagMillis;
+        this.limiter = limiter;
+        this.virtualThreads = virtualThreads;
+        List<Operation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("--mix precisa de ao menos uma operação com peso positivo.");
+        }
+        this.schedule = operations.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        long[] sizes = Arrays.stream(options.getOrDefault("rows", "10000,100000,1000000").split(","))
+                .mapToLong(size -> Long.parseLong(size.trim()))
+                .toArray();
+        LoadTest loadTest = new LoadTest(
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "15"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                parseMix(options.getOrDefault("mix", "search:60,get:15,list:5,update:10,create:5,delete:5")),
+                Long.parseLong(options.getOrDefault("replica-lag-ms", "-1")),
+                Boolean.parseBoolean(options.getOrDefault("limiter", "true")),
+                Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false")));
+
+        for (long rows : sizes) {
+            loadTest.run(rows);
+        }
+    }
+
+    private void run(long rows) throws Exception {
+        Map<String, Object> properties = BenchmarkContext.properties("loadtest" + rows);
+        properties.put("server.port", "0");
+        // Os controladores registram cada requisição em INFO; em carga isso mede o console, não a API.
+        properties.put("logging.level.com.invent.inventario", "WARN");
+        properties.put("inventario.limiter.enabled", String.valueOf(limiter));
+        properties.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        if (replicaLagMillis >= 0) {
+            BenchmarkContext.withReplica(properties, "loadtest" + rows);
+        }
+
+        System.out.printf("%n=== %,d itens, threads %s: carregando a tabela ===%n", rows,
+                virtualThreads ? "virtuais" : "de plataforma");
+        try (ConfigurableApplicationContext context = BenchmarkContext.start(WebApplicationType.SERVLET, properties, rows);
+             AutoCloseable replica = replicaLagMillis >= 0 ? ReplicaSimulada.start(context, replicaLagMillis) : null) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + BASE_PATH;
+            Workload workload = new Workload(baseUrl, rows);
+
+            System.out.printf("Aquecimento: %d s com %d workers...%n", warmup.toSeconds(), concurrency);
+            execute(workload, warmup);
+            System.out.printf("Medição: %d s com %d workers...%n", duration.toSeconds(), concurrency);
+            Map<Operation, Samples> results = execute(workload, duration);
+            report(rows, results);
+            Timer bloqueio = context.getBean(MeterRegistry.class).find("inventario.sync.revision-lock").timer();
+            if (bloqueio != null && bloqueio.count() > 0) {
+                System.out.printf("Contador de revisão: %d transações, bloqueio médio %.3f ms, máximo %.3f ms%n",
+                        bloqueio.count(), bloqueio.mean(TimeUnit.MILLISECONDS), bloqueio.max(TimeUnit.MILLISECONDS));
+            }
+            DataSource dataSource = context.getBean(DataSource.class);
+            if (dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+                DataSourceStatistics conexoes = dataSource.unwrap(ConnectionLimitingDataSource.class).statistics();
+                System.out.printf("Limite de conexões: %d, esperas que excederam o tempo: %d%n",
+                        conexoes.maxConcurrent(), conexoes.timeouts());
+            }
+            if (replicaLagMillis >= 0) {
+                System.out.printf("Leituras por destino: %s%n", context.getBean(ReplicaRouter.class).statistics().reads());
+            }
+            if (limiter) {
+                context.getBean(ConcurrencyLimitInterceptor.class).statistics().forEach(s -> System.out.printf(
+                        "Limite %-10s limite %4d (%d..%d), recusadas %d de %d%n", s.endpointClass(), s.limit(),
+                        s.minLimit(), s.maxLimit(), s.rejected(), s.accepted() + s.rejected()));
+            }
+        }
+    }
+
+    /**
+     * Executa a carga pela duração informada e devolve as amostras de todos os workers, por operação.
+     */
+    private Map<Operation, Samples> execute(Workload workload, Duration length) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Map<Operation, Samples>> perWorker = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+            perWorker.add(samples);
+            SplittableRandom random = new SplittableRandom(w);
+            threads.add(Thread.ofPlatform().name("loadtest-" + w).start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = schedule[random.nextInt(schedule.length)];
+                    long start = System.nanoTime();
+                    boolean ok = workload.execute(operation, random);
+                    samples.computeIfAbsent(operation, o -> new Samples()).record(System.nanoTime() - start, ok);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<Operation, Samples> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, Samples> samples : perWorker) {
+            samples.forEach((operation, s) -> merged.computeIfAbsent(operation, o -> new Samples()).addAll(s));
+        }
+        return merged;
+    }
+
+    private void report(long rows, Map<Operation, Samples> results) throws IOException {
+        double seconds = duration.toNanos() / 1e9;
+        boolean header = !Files.exists(RESULTS);
+        Files.createDirectories(RESULTS.getParent());
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(RESULTS, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                csv.println("timestamp,rows,concurrency,endpoint,requests,errors,rps,p50_ms,p95_ms,p99_ms,p999_ms,max_ms");
+            }
+            String timestamp = LocalDateTime.now().withNano(0).toString();
+            System.out.printf("%n%-22s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50", "p95", "p99", "p999", "max");
+            long total = 0;
+            for (Map.Entry<Operation, Samples> entry : results.entrySet()) {
+                Samples samples = entry.getValue();
+                samples.sort();
+                double rps = samples.size() / seconds;
+                total += samples.size();
+                System.out.printf("%-22s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        entry.getKey().endpoint, samples.size(), samples.errors, rps,
+                        samples.percentile(0.50), samples.percentile(0.95), samples.percentile(0.99),
+                        samples.percentile(0.999), samples.percentile(1.0));
+                csv.printf(Locale.ROOT, "%s,%d,%d,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        timestamp, rows, concurrency, entry.getKey().endpoint, samples.size(), samples.errors, rps,
+                        samples.percentile(0.50), samples.percentile(0.95), samples.percentile(0.99),
+                        samples.percentile(0.999), samples.percentile(1.0));
+            }
+            System.out.printf("Total: %.1f req/s (latências em ms; resultados acumulados em %s)%n", total / seconds, RESULTS);
+        }
+    }
+
+    /**
+     * Gera e envia as requisições de cada operação. Os itens carregados (ids 1..rows) nunca são removidos;
+     * DELETE remove apenas itens criados pela própria carga, então o tamanho da tabela fica estável.
+     */
+    private final class Workload {
+
+        private final String baseUrl;
+        private final long rows;
+        private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger nextEtiqueta;
+
+        Workload(String baseUrl, long rows) {
+            this.baseUrl = baseUrl;
+            this.rows = rows;
+            this.nextEtiqueta = new AtomicInteger(BenchmarkData.ETIQUETA_INICIAL + (int) rows);
+        }
+
+        boolean execute(Operation operation, SplittableRandom random) {
+            try {
+                return switch (operation) {
+                    case SEARCH -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/search?" + searchQuery(random))).GET()) == 200;
+                    case GET -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + seededId(random))).GET()) == 200;
+                    case ETIQUETA -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/etiqueta/"
+                            + (BenchmarkData.ETIQUETA_INICIAL + seededId(random) - 1))).GET()) == 200;
+                    case LIST -> send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=50")).GET()) == 200;
+                    case UPDATE -> update(random);
+                    case CREATE -> create(random);
+                    case DELETE -> delete(random);
+                };
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private String searchQuery(SplittableRandom random) {
+            String term = random.nextInt(5) == 0
+                    ? String.valueOf(BenchmarkData.ETIQUETA_INICIAL + random.nextLong(rows)) // Busca por etiqueta
+                    : SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+            StringBuilder query = new StringBuilder("searchTerm=").append(URLEncoder.encode(term, StandardCharsets.UTF_8));
+            if (random.nextBoolean()) {
+                query.append("&ativo=true");
+            }
+            if (random.nextInt(3) == 0) {
+                String setor = BenchmarkData.SETORES[random.nextInt(BenchmarkData.SETORES.length)];
+                query.append("&setor=").append(URLEncoder.encode(setor, StandardCharsets.UTF_8));
+            }
+            return query.toString();
+        }
+
+        private boolean update(SplittableRandom random) throws IOException, InterruptedException {
+            long id = seededId(random);
+            Inventario item = BenchmarkData.item(id - 1); // Mesmo item do seed: mantém a etiqueta única
+            item.setNome(item.getNome() + " (rev " + random.nextInt(1000) + ")");
+            item.setAtivo(random.nextInt(100) < 85);
+            return send(json(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)), "PUT", item)) == 200;
+        }
+
+        private boolean create(SplittableRandom random) throws IOException, InterruptedException {
+            Inventario item = BenchmarkData.item(random.nextLong(rows));
+            item.setEtiqueta(nextEtiqueta.getAndIncrement());
+            HttpResponse<String> response = client.send(json(HttpRequest.newBuilder(URI.create(baseUrl)), "POST", item).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                return false;
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            created.add(body.get("id").asLong());
+            return true;
+        }
+
+        private boolean delete(SplittableRandom random) throws IOException, InterruptedException {
+            Long id = created.poll();
+            if (id == null) {
+                return create(random); // Nada criado ainda para remover
+            }
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE()) == 204;
+        }
+
+        private long seededId(SplittableRandom random) {
+            return 1 + random.nextLong(rows);
+        }
+
+        private HttpRequest.Builder json(HttpRequest.Builder builder, String method, Inventario item) throws IOException {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(item)));
+        }
+
+        private int send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+            return client.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+
+    /**
+     * Latências (ns) e erros de uma operação. Cada worker tem as suas instâncias; são unidas ao final.
+     */
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        void sort() {
+            Arrays.sort(latencies, 0, size);
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return O percentil informado (0 a 1) em milissegundos, pelo método do posto mais próximo.
+         */
+        double percentile(double p) {
+            if (size == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * size) - 1;
+            return latencies[Math.max(0, Math.min(size - 1, rank))] / 1e6;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido '" + arg + "' (use --opcao=valor).");
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada inválida em --mix: '" + entry + "' (use operacao:peso).");
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,95 @@
+package com.invent.inventario.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import com.invent.inventario.controller.InventarioController;
+import com.invent.inventario.dto.CursorPage;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Compara a vazão dos métodos do InventarioController com a configuração de log de desenvolvimento
+ * (application.properties: DEBUG na aplicação, INFO no Spring e no Hibernate) e com o
+ * perfil 'prod' (application-prod.properties e appender assíncrono do logback-spring.xml).
+ *
+ * A saída padrão é descartada durante a medição, para que o resultado meça a formatação e a sincronização
+ * do log, e não a velocidade do terminal; em produção a escrita real torna a diferença maior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"dev", "prod"})
+    public String logging;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private InventarioController controller;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = BenchmarkContext.properties("logging-" + logging);
+        // Usa os níveis de log e o SQL de application.properties (dev) ou do perfil 'prod'
+        properties.keySet().removeIf(key -> key.startsWith("logging.level.") || key.equals("spring.jpa.show-sql"));
+        if ("prod".equals(logging)) {
+            properties.put("spring.profiles.active", "prod");
+        }
+        context = BenchmarkContext.start(WebApplicationType.NONE, properties, rows);
+        controller = context.getBean(InventarioController.class);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<Inventario> getItemById() {
+        return controller.getItemById(1 + ThreadLocalRandom.current().nextLong(rows));
+    }
+
+    @Benchmark
+    public CursorPage<Inventario> searchItems() {
+        return controller.searchItems("notebook", true, null, null, 50);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> updateItem() {
+        long id = 1 + ThreadLocalRandom.current().nextLong(rows);
+        Inventario details = BenchmarkData.item(id - 1); // Mesmo item do seed: mantém a etiqueta única
+        details.setNome(details.getNome() + " (rev)");
+        return controller.updateItem(id, null, details);
+    }
+}
@@ -0,0 +1,82 @@
+package com.invent.inventario.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Compara os formatos de resposta das listagens: JSON, CBOR e Smile, sem e com gzip (como a compressão
+ * do Tomcat, nível padrão do Deflater). Mede o custo de CPU da serialização e, no setup, imprime o tamanho
+ * do payload de cada combinação. Usa ObjectMappers com os padrões do Spring (Jackson2ObjectMapperBuilder),
+ * sem iniciar o contexto da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private List<Inventario> items;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        items = BenchmarkData.items(size);
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        int plain = serialize().length;
+        int gzip = serializeGzip().length;
+        System.out.printf("%n[payload] format=%s size=%d bytes=%d gzipBytes=%d (%.1f%% do original)%n",
+                format, size, plain, gzip, 100.0 * gzip / plain);
+    }
+
+    /**
+     * Serialização da lista, como faz o conversor do Spring MVC antes de gravar a resposta.
+     */
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    /**
+     * Serialização seguida da compressão gzip da resposta.
+     */
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 64 * 1024)) {
+            objectMapper.writeValue(gzip, items);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,243 @@
+package com.invent.inventario.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * Réplica de leitura simulada para testes locais do modo com réplica ('inventario.datasource.replica.enabled'):
+ * um segundo H2 em memória, copiado do primário na partida e depois mantido pelo log de alterações do primário
+ * (inventario_alteracao), como uma replicação assíncrona. Cada lote de alterações é lido do primário assim que
+ * confirmado, mas só é aplicado na réplica depois do atraso configurado, junto com a revisão do inventário
+ * (inventario_revisao) que ele completa. Assim o atraso medido pelo ReplicaRouter é real.
+ *
+ * Uso: {@link BenchmarkContext#withReplica(Map, String)} nas propriedades e, com o contexto iniciado,
+ * {@link #start(ConfigurableApplicationContext, long)}.
+ */
+public final class ReplicaSimulada implements AutoCloseable {
+
+    private static final int LOTE = 1000;
+    private static final long INTERVALO_MILLIS = 20;
+
+    /**
+     * Alterações lidas do primário e ainda não aplicadas.
+     * @param observadoEm Quando foram lidas (epoch em milissegundos).
+     * @param revisao A revisão da réplica depois de aplicá-las.
+     * @param alterados Os itens alterados, com os valores lidos do primário (na ordem das colunas).
+     * @param removidos Os ids removidos.
+     */
+    private record Lote(long observadoEm, long revisao, List<Object[]> alterados, List<Long> removidos) {
+    }
+
+    private final String primarioUrl;
+    private final String replicaUrl;
+    private final String usuario;
+    private final String senha;
+    private final long atrasoMillis;
+    private final ArrayDeque<Lote> pendentes = new ArrayDeque<>();
+    private List<String> colunas;
+    private long lida; // Revisão do primário até a qual as alterações já foram lidas
+    private volatile boolean encerrada;
+    private Thread thread;
+
+    private ReplicaSimulada(String primarioUrl, String replicaUrl, String usuario, String senha, long atrasoMillis) {
+        this.primarioUrl = primarioUrl;
+        this.replicaUrl = replicaUrl;
+        this.usuario = usuario;
+        this.senha = senha;
+        this.atrasoMillis = atrasoMillis;
+    }
+
+    /**
+     * Copia o schema e os itens do primário para a réplica e inicia a replicação.
+     * @param context O contexto iniciado com as propriedades de {@link BenchmarkContext#withReplica(Map, String)}.
+     * @param atrasoMillis Atraso da replicação, em milissegundos.
+     * @return A réplica em execução (encerrada por {@link #close()}).
+     */
+    public static ReplicaSimulada start(ConfigurableApplicationContext context, long atrasoMillis) throws SQLException {
+        Environment environment = context.getEnvironment();
+        ReplicaSimulada replica = new ReplicaSimulada(environment.getRequiredProperty("spring.datasource.url"),
+                environment.getRequiredProperty("inventario.datasource.replica.url"),
+                environment.getProperty("spring.datasource.username", "sa"),
+                environment.getProperty("spring.datasource.password", ""), atrasoMillis);
+        replica.copiar();
+        replica.thread = Thread.ofPlatform().name("replica-simulada").daemon().start(replica::run);
+        System.out.printf("Réplica simulada iniciada na revisão %d, com atraso de %d ms.%n", replica.lida, atrasoMillis);
+        return replica;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        encerrada = true;
+        thread.interrupt();
+        thread.join();
+    }
+
+    private void copiar() throws SQLException {
+        try (Connection primario = DriverManager.getConnection(primarioUrl, usuario, senha);
+             Connection replica = DriverManager.getConnection(replicaUrl, usuario, senha)) {
+            try (Statement origem = primario.createStatement();
+                 ResultSet script = origem.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS");
+                 Statement destino = replica.createStatement()) {
+                while (script.next()) {
+                    String sql = script.getString(1);
+                    if (!sql.startsWith("--")) {
+                        destino.execute(sql);
+                    }
+                }
+            }
+            // Revisão lida antes dos itens: as alterações posteriores a ela são reaplicadas pelo log
+            lida = revisao(primario);
+            replica.setAutoCommit(false);
+            try (Statement origem = primario.createStatement();
+                 ResultSet itens = origem.executeQuery("SELECT * FROM inventario");
+                 PreparedStatement merge = merge(replica, itens.getMetaData())) {
+                int pendentesNoBatch = 0;
+                while (itens.next()) {
+                    for (int i = 1; i <= colunas.size(); i++) {
+                        merge.setObject(i, itens.getObject(i));
+                    }
+                    merge.addBatch();
+                    if (++pendentesNoBatch == LOTE) {
+                        merge.executeBatch();
+                        pendentesNoBatch = 0;
+                    }
+                }
+                merge.executeBatch();
+            }
+            atualizarRevisao(replica, lida);
+            replica.commit();
+        }
+    }
+
+    private void run() {
+        try (Connection primario = DriverManager.getConnection(primarioUrl, usuario, senha);
+             Connection replica = DriverManager.getConnection(replicaUrl, usuario, senha)) {
+            replica.setAutoCommit(false);
+            while (!encerrada) {
+                ler(primario);
+                aplicar(replica);
+                Thread.sleep(INTERVALO_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            // Encerrada
+        } catch (SQLException e) {
+            System.err.printf("Réplica simulada interrompida: %s%n", e.getMessage());
+        }
+    }
+
+    /**
+     * Lê as alterações confirmadas no primário desde a última leitura, com os valores atuais dos itens,
+     * como em AlteracaoLog.alteracoesDesde.
+     */
+    private void ler(Connection primario) throws SQLException {
+        long atual = revisao(primario);
+        List<Object[]> alterados = new ArrayList<>();
+        List<Long> removidos = new ArrayList<>();
+        long ultima = lida;
+        int linhas = 0;
+        try (PreparedStatement log = primario.prepareStatement(
+                "SELECT seq, item_id, tipo FROM inventario_alteracao WHERE seq > ? ORDER BY seq LIMIT " + LOTE);
+             PreparedStatement item = primario.prepareStatement("SELECT * FROM inventario WHERE id = ?")) {
+            log.setLong(1, lida);
+            try (ResultSet rs = log.executeQuery()) {
+                while (rs.next()) {
+                    linhas++;
+                    ultima = rs.getLong(1);
+                    long id = rs.getLong(2);
+                    if ("REMOVIDO".equals(rs.getString(3))) {
+                        removidos.add(id);
+                        continue;
+                    }
+                    item.setLong(1, id);
+                    try (ResultSet valores = item.executeQuery()) {
+                        if (valores.next()) {
+                            Object[] linha = new Object[colunas.size()];
+                            for (int i = 0; i < linha.length; i++) {
+                                linha[i] = valores.getObject(i + 1);
+                            }
+                            alterados.add(linha);
+                        } else {
+                            removidos.add(id); // Removido depois da leitura do log
+                        }
+                    }
+                }
+            }
+        }
+        long revisao = linhas == LOTE ? ultima : Math.max(ultima, atual);
+        if (revisao > lida) {
+            pendentes.addLast(new Lote(System.currentTimeMillis(), revisao, alterados, removidos));
+            lida = revisao;
+        }
+    }
+
+    /**
+     * Aplica na réplica, cada um em uma transação, os lotes lidos há mais tempo que o atraso.
+     */
+    private void aplicar(Connection replica) throws SQLException {
+        long agora = System.currentTimeMillis();
+        while (!pendentes.isEmpty() && pendentes.peekFirst().observadoEm() + atrasoMillis <= agora) {
+            Lote lote = pendentes.removeFirst();
+            try (PreparedStatement merge = merge(replica, null);
+                 PreparedStatement delete = replica.prepareStatement("DELETE FROM inventario WHERE id = ?")) {
+                for (Object[] linha : lote.alterados()) {
+                    for (int i = 0; i < linha.length; i++) {
+                        merge.setObject(i + 1, linha[i]);
+                    }
+                    merge.addBatch();
+                }
+                merge.executeBatch();
+                for (Long id : lote.removidos()) {
+                    delete.setLong(1, id);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+            atualizarRevisao(replica, lote.revisao());
+            replica.commit();
+        }
+    }
+
+    /**
+     * MERGE pela chave primária com todas as colunas da tabela (lidas dos metadados da cópia inicial).
+     */
+    private PreparedStatement merge(Connection replica, ResultSetMetaData metaData) throws SQLException {
+        if (colunas == null) {
+            List<String> nomes = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                nomes.add(metaData.getColumnName(i));
+            }
+            colunas = nomes;
+        }
+        String parametros = String.join(", ", Collections.nCopies(colunas.size(), "?"));
+        return replica.prepareStatement("MERGE INTO inventario (" + String.join(", ", colunas) + ") KEY (id) VALUES ("
+                + parametros + ")");
+    }
+
+    private static void atualizarRevisao(Connection replica, long revisao) throws SQLException {
+        try (PreparedStatement update = replica.prepareStatement(
+                "MERGE INTO inventario_revisao (id, valor) KEY (id) VALUES (1, ?)")) {
+            update.setLong(1, revisao);
+            update.executeUpdate();
+        }
+    }
+
+    private static long revisao(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT valor FROM inventario_revisao WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
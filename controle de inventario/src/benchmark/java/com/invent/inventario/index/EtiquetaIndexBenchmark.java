@@ -0,0 +1,81 @@
+package com.invent.inventario.index;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invent.inventario.benchmark.BenchmarkData;
+
+/**
+ * Compara a consulta etiqueta → id do {@link IntLongHashMap} (arrays primitivos) com um HashMap&lt;Integer, Long&gt;,
+ * para tabelas de 100 mil e 1 milhão de itens. Cada chamada consulta 1024 etiquetas sorteadas (metade
+ * inexistentes), como um lote de leituras de código de barras. Não inicia o contexto da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EtiquetaIndexBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private IntLongHashMap primitive;
+    private Map<Integer, Long> boxed;
+    private int[] etiquetas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        primitive = new IntLongHashMap();
+        boxed = new HashMap<>();
+        for (int i = 0; i < rows; i++) {
+            primitive.put(BenchmarkData.ETIQUETA_INICIAL + i, i + 1L);
+            boxed.put(BenchmarkData.ETIQUETA_INICIAL + i, i + 1L);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        etiquetas = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            etiquetas[i] = BenchmarkData.ETIQUETA_INICIAL + random.nextInt(rows * 2);
+        }
+        System.out.printf("%n[etiquetas] rows=%d memoriaPrimitiva=%d KB%n", rows, primitive.memoryBytes() / 1024);
+    }
+
+    @Benchmark
+    public long primitiveLookup() {
+        long sum = 0;
+        for (int etiqueta : etiquetas) {
+            sum += primitive.get(etiqueta);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long boxedLookup() {
+        long sum = 0;
+        for (int etiqueta : etiquetas) {
+            Long id = boxed.get(etiqueta);
+            if (id != null) {
+                sum += id;
+            }
+        }
+        return sum;
+    }
+}
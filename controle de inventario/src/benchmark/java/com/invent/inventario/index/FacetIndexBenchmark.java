@@ -0,0 +1,68 @@
+package com.invent.inventario.index;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.invent.inventario.benchmark.BenchmarkData;
+import com.invent.inventario.dto.SearchFacets;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Mede o cálculo das facetas da busca com os bitmaps de {@link FacetIndex}, para inventários de 100 mil e 1 milhão
+ * de itens: sem termo (todos os itens) e com os candidatos de um termo que atinge 10% dos itens, com os filtros de
+ * setor e status aplicados. Não inicia o contexto da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacetIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private FacetIndex.Bitmaps bitmaps;
+    private int[] candidatos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bitmaps = new FacetIndex.Bitmaps();
+        for (int i = 0; i < rows; i++) {
+            Inventario item = BenchmarkData.item(i);
+            bitmaps.add(i + 1, item.getSetor(), item.getAtivo());
+        }
+        bitmaps.porSetor().values().forEach(RoaringBitmap::runOptimize);
+        bitmaps.todos().runOptimize();
+        bitmaps.ativos().runOptimize();
+
+        SplittableRandom random = new SplittableRandom(42);
+        candidatos = random.ints(rows / 10, 1, rows + 1).sorted().distinct().toArray();
+        System.out.printf("%n[facetas] rows=%d candidatos=%d%n", rows, candidatos.length);
+    }
+
+    @Benchmark
+    public SearchFacets semTermo() {
+        return FacetIndex.facets(bitmaps, null, null, null, true);
+    }
+
+    @Benchmark
+    public SearchFacets comTermoEFiltros() {
+        return FacetIndex.facets(bitmaps, candidatos, "TI", true, false);
+    }
+}
@@ -0,0 +1,91 @@
+package com.invent.inventario.index;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.invent.inventario.benchmark.BenchmarkData;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Mede a conciliação de uma auditoria com os bitmaps de {@link EtiquetasPorSetor}, para inventários de 100 mil
+ * e 1 milhão de itens. A auditoria lê 95% das etiquetas do inventário, em ordem aleatória, mais 1000 etiquetas
+ * inexistentes, e é conciliada com um único setor: quase todas as leituras caem em "fora do lugar", o pior
+ * caso do agrupamento. Mede também a montagem do bitmap das leituras. Não inicia o contexto da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReconciliacaoBenchmark {
+
+    private static final int DESCONHECIDAS = 1000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private EtiquetasPorSetor.Bitmaps bitmaps;
+    private int[] leituras;
+    private RoaringBitmap lidas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bitmaps = new EtiquetasPorSetor.Bitmaps();
+        for (int i = 0; i < rows; i++) {
+            Inventario item = BenchmarkData.item(i);
+            bitmaps.add(item.getSetor(), item.getAtivo(), item.getEtiqueta());
+        }
+        bitmaps.porChave().values().forEach(RoaringBitmap::runOptimize);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] lidasAleatorias = new int[rows + DESCONHECIDAS];
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (random.nextInt(100) < 95) {
+                lidasAleatorias[count++] = BenchmarkData.ETIQUETA_INICIAL + i;
+            }
+        }
+        for (int i = 0; i < DESCONHECIDAS; i++) {
+            lidasAleatorias[count++] = BenchmarkData.ETIQUETA_INICIAL + rows + random.nextInt(rows);
+        }
+        for (int i = count - 1; i > 0; i--) { // Ordem de leitura do coletor, não a da numeração
+            int j = random.nextInt(i + 1);
+            int troca = lidasAleatorias[i];
+            lidasAleatorias[i] = lidasAleatorias[j];
+            lidasAleatorias[j] = troca;
+        }
+        leituras = Arrays.copyOf(lidasAleatorias, count);
+        lidas = buildLidas();
+        long bytes = bitmaps.porChave().values().stream().mapToLong(RoaringBitmap::getSizeInBytes).sum();
+        System.out.printf("%n[conciliação] rows=%d leituras=%d bitmaps=%d KB%n", rows, leituras.length, bytes / 1024);
+    }
+
+    @Benchmark
+    public RoaringBitmap buildLidas() {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.addN(leituras, 0, leituras.length);
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    @Benchmark
+    public EtiquetasPorSetor.Reconciliacao reconcile() {
+        return EtiquetasPorSetor.reconcile(bitmaps, "TI", true, lidas);
+    }
+}
@@ -0,0 +1,112 @@
+package com.invent.inventario.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.invent.inventario.benchmark.BenchmarkContext;
+import com.invent.inventario.entity.Inventario;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Mede a busca de InventarioService: montagem da Specification (incluindo a consulta ao índice de
+ * trigramas), conversão em Predicate e a busca completa no banco.
+ *
+ * Os termos cobrem os dois caminhos do filtro por etiqueta: um termo numérico (Integer.parseInt bem-sucedido)
+ * e termos de texto, em que toda busca lança e captura uma NumberFormatException. O benchmark
+ * {@link #parseEtiqueta()} isola o custo desse parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchSpecificationBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"notebook", "silva", "100042", "dell lat"})
+    public String term;
+
+    private ConfigurableApplicationContext context;
+    private InventarioService service;
+    private EntityManager entityManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        service = context.getBean(InventarioService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    /**
+     * Montagem da Specification: consulta ao índice de trigramas e captura dos candidatos.
+     */
+    @Benchmark
+    public Specification<Inventario> buildSpecification() {
+        return service.buildSpecification(term, null, true, "TI");
+    }
+
+    /**
+     * Montagem da Specification e conversão em Predicate da Criteria API (sem executar a consulta).
+     */
+    @Benchmark
+    public Predicate toPredicate() {
+        Specification<Inventario> spec = service.buildSpecification(term, null, true, "TI");
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Inventario> query = criteriaBuilder.createQuery(Inventario.class);
+        Root<Inventario> root = query.from(Inventario.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+
+    /**
+     * Busca completa, como em GET /api/inventario/itens/search?searchTerm=...&ativo=true.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Inventario> search() {
+        return service.search(term, null, true, null);
+    }
+
+    /**
+     * Custo isolado da tentativa de converter o termo em etiqueta, exatamente como na Specification.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer parseEtiqueta() {
+        try {
+            return Integer.parseInt(term.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.invent.inventario.service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.invent.inventario.benchmark.BenchmarkContext;
+import com.invent.inventario.benchmark.BenchmarkData;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Mede a atualização de itens (PUT /api/inventario/itens/{id}): o caminho completo de
+ * InventarioService.update (busca, cópia dos campos, flush e eventos após o commit) e, separadamente,
+ * só a cópia de campos feita por ele. Também mede a alteração parcial (PATCH) de um único campo,
+ * feita com um UPDATE condicional pela versão.
+ *
+ * A cada chamada o item recebe o conteúdo de outro item gerado, então o Hibernate sempre encontra
+ * campos alterados e emite o UPDATE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateBenchmark {
+
+    private static final int VARIANTS = 1024;
+
+    @Param({"10000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private InventarioService service;
+    private Inventario[] details;
+    private Inventario target;
+    private long[] versions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        service = context.getBean(InventarioService.class);
+        details = new Inventario[VARIANTS];
+        for (int i = 0; i < VARIANTS; i++) {
+            details[i] = BenchmarkData.item(rows + i);
+            details[i].setEtiqueta(null); // Mantém as etiquetas do seed únicas
+        }
+        target = BenchmarkData.item(0);
+        versions = new long[VARIANTS]; // Os itens importados começam na versão 0
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Atualização completa, em uma transação, de um item escolhido entre os carregados.
+     */
+    @Benchmark
+    public Inventario update() {
+        int i = next++ & (VARIANTS - 1);
+        return service.update((long) (i % rows) + 1, details[i]);
+    }
+
+    /**
+     * Alteração parcial (PATCH) do usuário de um item, com a versão conhecida do item.
+     */
+    @Benchmark
+    public Inventario patch() {
+        int i = next++ & (VARIANTS - 1);
+        int index = i % rows;
+        Inventario patched = service.patch((long) index + 1, versions[index], Map.of("usuario", details[i].getUsuario()));
+        versions[index] = patched.getVersao();
+        return patched;
+    }
+
+    /**
+     * Apenas a cópia de campos de update(), sobre uma entidade desanexada.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Inventario copyFields() {
+        InventarioService.copyFields(details[next++ & (VARIANTS - 1)], target);
+        return target;
+    }
+}
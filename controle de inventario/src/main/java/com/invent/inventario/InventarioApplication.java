@@ -2,6 +2,7 @@ package com.invent.inventario;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 
 /**
@@ -11,12 +12,18 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication // Anotação que combina @Configuration, @EnableAutoConfiguration e @ComponentScan.
                        // Ela habilita a configuração automática do Spring Boot e a varredura de componentes.
 public class InventarioApplication {
+
+    // Etapas da inicialização guardadas para o relatório de tempos (metrics.StartupReport): uma por bean, com folga.
+    private static final int STARTUP_STEPS = 10_000;
+
     /**
      * Método principal que inicia a aplicação Spring Boot.
      * param args Argumentos de linha de comando.
      */
     public static void main(String[] args) {
-        SpringApplication.run(InventarioApplication.class, args);  // Inicia a aplicação.
+        SpringApplication application = new SpringApplication(InventarioApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);  // Inicia a aplicação.
     }
 
 }
\ No newline at end of file
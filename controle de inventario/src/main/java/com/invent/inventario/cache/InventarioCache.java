@@ -0,0 +1,211 @@
+package com.invent.inventario.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.invent.inventario.dto.CacheStatistics;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cache de leitura (read-through) na frente do InventarioRepository para buscas por id e por etiqueta.
+ * Limitado por quantidade de itens e por tempo de vida (TTL), com estatísticas de acertos, falhas e
+ * remoções. As entradas são invalidadas após o commit de cada alteração (evento InventarioAlteradoEvent).
+ *
+ * O cache guarda cópias desanexadas e devolve uma nova cópia a cada acerto, então quem recebe o item
+ * pode alterá-lo sem afetar o conteúdo do cache. Com 'inventario.cache.enabled=false' todas as
+ * chamadas vão direto ao banco.
+ */
+@Component
+public class InventarioCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioCache.class);
+
+    @Value("${inventario.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventario.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${inventario.cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, Inventario> byId;
+    private Cache<Integer, Long> idByEtiqueta;
+
+    // Incrementado a cada invalidação. Uma leitura do banco só entra no cache se nenhuma alteração
+    // foi confirmada enquanto ela acontecia; assim uma leitura lenta não grava um valor já desatualizado.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            logger.info("Cache de itens desabilitado (inventario.cache.enabled=false).");
+            return;
+        }
+        byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        idByEtiqueta = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        logger.info("Cache de itens habilitado: até {} itens, TTL de {}.", maximumSize, ttl);
+    }
+
+    /**
+     * Busca um item pelo id, consultando o cache antes do banco.
+     * @param id O id do item.
+     * @param loader Busca no banco, usada em caso de falha no cache.
+     * @return O item encontrado (uma cópia, em caso de acerto), ou vazio se não existir.
+     */
+    public Optional<Inventario> getById(Long id, Function<Long, Optional<Inventario>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        Inventario cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(new Inventario(cached));
+        }
+        long generation = invalidations.get();
+        Optional<Inventario> loaded = loader.apply(id);
+        loaded.ifPresent(item -> putIfUnchanged(item, generation));
+        return loaded;
+    }
+
+    /**
+     * Busca vários itens pelo id: os que estão no cache são copiados e os demais são lidos do banco em uma
+     * única chamada ao loader.
+     * @param ids Os ids dos itens.
+     * @param loader Busca no banco dos ids ausentes no cache.
+     * @return Os itens encontrados, por id (ids inexistentes ficam de fora).
+     */
+    public Map<Long, Inventario> getAllById(Collection<Long> ids, Function<Collection<Long>, List<Inventario>> loader) {
+        Map<Long, Inventario> found = new HashMap<>(ids.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Inventario cached = enabled ? byId.getIfPresent(id) : null;
+            if (cached != null) {
+                found.put(id, new Inventario(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+            for (Inventario item : loader.apply(missing)) {
+                found.put(item.getId(), item);
+                if (enabled) {
+                    putIfUnchanged(item, generation);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Busca um item pela etiqueta, consultando o cache antes do banco.
+     * @param etiqueta O número da etiqueta.
+     * @param idLoader Busca por id no banco (usada quando a etiqueta está no cache, mas o item não).
+     * @param etiquetaLoader Busca por etiqueta no banco, usada em caso de falha no cache.
+     * @return O item encontrado (uma cópia, em caso de acerto), ou vazio se não existir.
+     */
+    public Optional<Inventario> getByEtiqueta(Integer etiqueta, Function<Long, Optional<Inventario>> idLoader,
+                                              Function<Integer, Optional<Inventario>> etiquetaLoader) {
+        if (!enabled) {
+            return etiquetaLoader.apply(etiqueta);
+        }
+        Long id = idByEtiqueta.getIfPresent(etiqueta);
+        if (id != null) {
+            Optional<Inventario> item = getById(id, idLoader);
+            if (item.isPresent() && etiqueta.equals(item.get().getEtiqueta())) {
+                return item;
+            }
+            idByEtiqueta.invalidate(etiqueta); // Entrada antiga: a etiqueta mudou de item
+        }
+        long generation = invalidations.get();
+        Optional<Inventario> loaded = etiquetaLoader.apply(etiqueta);
+        loaded.ifPresent(item -> putIfUnchanged(item, generation));
+        return loaded;
+    }
+
+    /**
+     * Invalida as entradas do item alterado após o commit da transação.
+     * @param event O evento de alteração publicado pelo InventarioService.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        if (!enabled) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        byId.invalidate(event.id());
+        if (event.antes() != null && event.antes().getEtiqueta() != null) {
+            idByEtiqueta.invalidate(event.antes().getEtiqueta());
+        }
+        if (event.depois() != null && event.depois().getEtiqueta() != null) {
+            idByEtiqueta.invalidate(event.depois().getEtiqueta());
+        }
+    }
+
+    /**
+     * @return As estatísticas dos caches por id e por etiqueta (para dimensionamento).
+     */
+    public List<CacheStatistics> statistics() {
+        if (!enabled) {
+            return List.of(CacheStatistics.disabled("itensPorId"), CacheStatistics.disabled("idPorEtiqueta"));
+        }
+        return List.of(toStatistics("itensPorId", byId), toStatistics("idPorEtiqueta", idByEtiqueta));
+    }
+
+    private void putIfUnchanged(Inventario item, long generation) {
+        if (invalidations.get() != generation) {
+            return;
+        }
+        byId.put(item.getId(), new Inventario(item));
+        if (item.getEtiqueta() != null) {
+            idByEtiqueta.put(item.getEtiqueta(), item.getId());
+        }
+        // Uma invalidação pode ter ocorrido entre a verificação e o put: nesse caso desfaz o put.
+        if (invalidations.get() != generation) {
+            byId.invalidate(item.getId());
+            if (item.getEtiqueta() != null) {
+                idByEtiqueta.invalidate(item.getEtiqueta());
+            }
+        }
+    }
+
+    private static CacheStatistics toStatistics(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(name, true, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    /**
+     * @return true se o cache está habilitado.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
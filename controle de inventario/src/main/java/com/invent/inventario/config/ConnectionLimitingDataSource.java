@@ -0,0 +1,120 @@
+package com.invent.inventario.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.invent.inventario.dto.DataSourceStatistics;
+
+/**
+ * DataSource que limita quantas threads usam conexões do banco ao mesmo tempo.
+ * Cada getConnection() consome uma permissão de um Semaphore justo (FIFO), devolvida no close() da conexão.
+ *
+ * Com threads virtuais a API aceita milhares de requisições simultâneas, mas o pool do Hikari continua
+ * com poucas conexões. Sem este limite todas as threads disputariam o pool ao mesmo tempo; com ele,
+ * as excedentes ficam estacionadas na fila do Semaphore (barato para uma thread virtual) e entram em
+ * ordem de chegada. O limite deve ser igual ao tamanho do pool, para que quem passa pelo Semaphore
+ * encontre uma conexão livre.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMillis;
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * @param target O DataSource real (normalmente o HikariDataSource).
+     * @param maxConcurrent Quantidade máxima de conexões em uso ao mesmo tempo.
+     * @param acquireTimeoutMillis Tempo máximo de espera por uma permissão antes de falhar.
+     */
+    public ConnectionLimitingDataSource(DataSource target, int maxConcurrent, long acquireTimeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return O uso atual do limite (para o endpoint de diagnóstico).
+     */
+    public DataSourceStatistics statistics() {
+        return new DataSourceStatistics(true, maxConcurrent, maxConcurrent - permits.availablePermits(),
+                permits.getQueueLength(), timeouts.sum());
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException("Tempo esgotado (" + acquireTimeoutMillis
+                        + " ms) aguardando uma conexão com o banco; limite de " + maxConcurrent + " conexões em uso.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando uma conexão com o banco.", e);
+        }
+    }
+
+    /**
+     * Envolve a conexão para devolver a permissão no primeiro close() (chamadas repetidas não devolvem de novo).
+     */
+    private Connection limited(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Limited[" + target + "]";
+                    default -> {
+                        try {
+                            yield method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
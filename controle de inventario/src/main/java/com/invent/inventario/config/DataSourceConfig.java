@@ -0,0 +1,58 @@
+package com.invent.inventario.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.invent.inventario.metrics.MeteredDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuração do acesso ao banco. O DataSource do Hikari é envolvido por:
+ * - um {@link MeteredDataSource}, que mede a espera por conexões de cada requisição;
+ * - no modo de threads virtuais ('inventario.datasource.limit.enabled', por padrão igual a
+ *   'spring.threads.virtual.enabled'), um {@link ConnectionLimitingDataSource} com o mesmo tamanho do pool
+ *   e o mesmo tempo de espera por conexão. Fica por dentro do MeteredDataSource, para que a espera na fila
+ *   do limite também seja medida.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    /**
+     * Declarado como static para ser criado antes dos demais beans, sem antecipar a criação desta configuração.
+     * @param environment As propriedades da aplicação.
+     * @return O BeanPostProcessor que envolve o DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                if (!isLimitEnabled(environment)) {
+                    return new MeteredDataSource(hikari);
+                }
+                int maxConcurrent = environment.getProperty("inventario.datasource.limit.max-concurrent", Integer.class, 0);
+                if (maxConcurrent <= 0) {
+                    maxConcurrent = hikari.getMaximumPoolSize();
+                }
+                long timeoutMillis = hikari.getConnectionTimeout();
+                logger.info("Limite de conexões simultâneas com o banco habilitado: {} (pool do Hikari: {}), espera máxima de {} ms.",
+                        maxConcurrent, hikari.getMaximumPoolSize(), timeoutMillis);
+                return new MeteredDataSource(new ConnectionLimitingDataSource(hikari, maxConcurrent, timeoutMillis));
+            }
+        };
+    }
+
+    private static boolean isLimitEnabled(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        return environment.getProperty("inventario.datasource.limit.enabled", Boolean.class, virtualThreads);
+    }
+}
@@ -0,0 +1,46 @@
+package com.invent.inventario.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Suporte à imagem de inicialização rápida (perfil Maven 'fast-start' e estágio 'fast-start' do dockerfile).
+ *
+ * O arquivo de CDS (class-data sharing) da imagem é gerado por uma execução de treino durante o build:
+ * a JVM inicia o contexto com '-Dspring.context.exit=onRefresh', encerra logo após a criação dos beans e
+ * grava as classes carregadas. Essa execução não tem banco, então as etapas que o acessam na criação dos
+ * beans (migrações do Flyway, contador de revisão) são puladas quando {@link #isTrainingRun(Environment)}.
+ */
+@Configuration
+public class FastStartConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastStartConfig.class);
+
+    /**
+     * @param environment As propriedades da aplicação.
+     * @return true na execução de treino do CDS, que encerra a JVM ao fim do refresh do contexto.
+     */
+    public static boolean isTrainingRun(Environment environment) {
+        return "onRefresh".equalsIgnoreCase(environment.getProperty("spring.context.exit"));
+    }
+
+    /**
+     * Aplica as migrações na inicialização, como o padrão do Spring Boot, exceto na execução de treino.
+     * @param environment As propriedades da aplicação.
+     * @return A estratégia de migração usada pelo Flyway.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (isTrainingRun(environment)) {
+                logger.info("Execução de treino do CDS: migrações do Flyway não aplicadas.");
+                return;
+            }
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.invent.inventario.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuração do modo com réplica de leitura ('inventario.datasource.replica.enabled=true').
+ * Substitui o DataSource do Spring Boot por dois pools do Hikari, um para o banco primário (spring.datasource.*)
+ * e outro, somente leitura, para a réplica (inventario.datasource.replica.*), e por um {@link ReplicaRoutingDataSource}
+ * que entrega as conexões do primário, exceto nas leituras liberadas pelo {@link ReplicaRouter}.
+ *
+ * Os dois pools passam pelo BeanPostProcessor de {@link DataSourceConfig} (métricas e limite de conexões).
+ * JPA, JdbcTemplate e Flyway usam o DataSource de roteamento, marcado como @Primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventario.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    /**
+     * Pool do banco primário, com as mesmas propriedades do pool padrão (spring.datasource.*, spring.datasource.hikari.*).
+     * @param properties As propriedades spring.datasource.
+     * @return O pool do primário.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("inventario-primario");
+        return dataSource;
+    }
+
+    /**
+     * Pool somente leitura da réplica. Usuário, senha e driver são os do primário, se não forem informados.
+     * @param properties As propriedades spring.datasource.
+     * @param environment As propriedades da aplicação.
+     * @return O pool da réplica.
+     */
+    @Bean
+    @ConfigurationProperties("inventario.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("inventario.datasource.replica.url"))
+                .username(environment.getProperty("inventario.datasource.replica.username", properties.determineUsername()))
+                .password(environment.getProperty("inventario.datasource.replica.password", properties.determinePassword()))
+                .driverClassName(environment.getProperty("inventario.datasource.replica.driver-class-name",
+                        properties.determineDriverClassName()))
+                .build();
+        dataSource.setPoolName("inventario-replica");
+        dataSource.setReadOnly(true);
+        logger.info("Réplica de leitura configurada: {}", dataSource.getJdbcUrl());
+        return dataSource;
+    }
+
+    /**
+     * DataSource usado pela aplicação. Recebe os pools já envolvidos pelo BeanPostProcessor de DataSourceConfig.
+     * @param primario O pool do primário.
+     * @param replica O pool da réplica.
+     * @return O DataSource de roteamento.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaRoutingDataSource(primario, replica);
+    }
+}
@@ -0,0 +1,362 @@
+package com.invent.inventario.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.WebUtils;
+
+import com.invent.inventario.dto.ReplicaStatistics;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Decide quais leituras vão para a réplica de leitura (ver {@link ReplicaDataSourceConfig}).
+ *
+ * Só as leituras envolvidas por {@link #read(Supplier)} podem ir para a réplica, e apenas quando:
+ * - não há transação em andamento (a conexão dela já é do primário);
+ * - a requisição não gravou nada, nem a anterior do mesmo cliente há menos de 'sticky-ms' (cookie), para que o
+ *   cliente sempre leia as próprias gravações;
+ * - a réplica respondeu à última verificação e o atraso estimado está abaixo de 'max-lag-ms'.
+ * Nos demais casos, e se a leitura na réplica falhar, a leitura é feita no primário. A decisão vale para a
+ * requisição inteira: o ETag das listagens ({@link #revisaoAtual(LongSupplier)}) e os itens vêm do mesmo banco.
+ *
+ * O atraso é medido por uma thread que lê a revisão do inventário (inventario_revisao) nos dois bancos a cada
+ * 'lag-check-ms': é o tempo desde que o primário passou da revisão em que a réplica está, somado ao tempo desde
+ * a última verificação. Com o modo desabilitado, {@link #read(Supplier)} apenas executa a leitura.
+ */
+@Component
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final String COOKIE = "inventario-primario";
+
+    private static final String ROTA = ReplicaRouter.class.getName() + ".ROTA";
+    private static final String REVISAO_SQL = "SELECT valor FROM inventario_revisao WHERE id = 1";
+    private static final int MAX_AMOSTRAS = 4096;
+
+    /**
+     * Destino de uma leitura e o motivo, usados como tags das métricas.
+     */
+    enum Motivo {
+        REPLICA("replica"),
+        TRANSACAO("primary-transaction"),
+        ESCRITA("primary-sticky"),
+        ATRASO("primary-lag"),
+        INDISPONIVEL("primary-unavailable"),
+        FALHA("primary-error");
+
+        final String tag;
+
+        Motivo(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Resultado da última verificação da réplica.
+     * @param disponivel Se a revisão da réplica pôde ser lida.
+     * @param primaria Revisão do primário.
+     * @param replica Revisão da réplica.
+     * @param atrasoMillis Atraso da réplica no momento da verificação.
+     * @param verificadoEm Quando a verificação terminou (epoch em milissegundos; 0 antes da primeira).
+     * @param erro A falha ao consultar a réplica, se houve.
+     */
+    private record Estado(boolean disponivel, long primaria, long replica, long atrasoMillis, long verificadoEm, String erro) {
+    }
+
+    @Value("${inventario.datasource.replica.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventario.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMillis;
+
+    @Value("${inventario.datasource.replica.lag-check-ms:500}")
+    private long lagCheckMillis;
+
+    @Value("${inventario.datasource.replica.sticky-ms:5000}")
+    private long stickyMillis;
+
+    @Autowired(required = false)
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired(required = false)
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+    private final Map<Motivo, Counter> leituras = new EnumMap<>(Motivo.class);
+    private final ArrayDeque<long[]> amostras = new ArrayDeque<>(); // {revisão, quando foi vista no primário}
+    private volatile Estado estado = new Estado(false, 0, 0, 0, 0, null);
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        primario = jdbcTemplate(primaryDataSource);
+        replica = jdbcTemplate(replicaDataSource);
+        for (Motivo motivo : Motivo.values()) {
+            leituras.put(motivo, Counter.builder("inventario.datasource.reads")
+                    .description("Leituras elegíveis para a réplica, por destino e motivo")
+                    .tag("route", motivo == Motivo.REPLICA ? "replica" : "primary")
+                    .tag("reason", motivo.tag)
+                    .register(meterRegistry));
+        }
+        TimeGauge.builder("inventario.datasource.replica.lag", this, TimeUnit.MILLISECONDS, ReplicaRouter::atrasoMillis)
+                .description("Atraso estimado da réplica de leitura")
+                .register(meterRegistry);
+        Gauge.builder("inventario.datasource.replica.lag.revisions", this,
+                        router -> Math.max(0, router.estado.primaria() - router.estado.replica()))
+                .description("Alterações confirmadas no primário e ainda não aplicadas na réplica")
+                .register(meterRegistry);
+        Gauge.builder("inventario.datasource.replica.available", this, router -> router.estado.disponivel() ? 1 : 0)
+                .description("1 se a última verificação conseguiu ler a réplica")
+                .register(meterRegistry);
+    }
+
+    private JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Uma réplica travada não pode segurar a thread de verificação
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxLagMillis)));
+        return jdbcTemplate;
+    }
+
+    /**
+     * Inicia a verificação periódica do atraso da réplica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            Thread.ofPlatform().name("replica-lag-check").daemon().start(this::run);
+            logger.info("Leituras na réplica habilitadas: atraso máximo de {} ms, verificado a cada {} ms.",
+                    maxLagMillis, lagCheckMillis);
+        }
+    }
+
+    /**
+     * Executa uma leitura na réplica, se permitido (ver a descrição da classe), ou no primário.
+     * @param leitura A leitura (sem efeitos colaterais: em caso de falha na réplica, é repetida no primário).
+     * @return O resultado da leitura.
+     */
+    public <T> T read(Supplier<T> leitura) {
+        if (!enabled) {
+            return leitura.get();
+        }
+        Motivo motivo = decidir();
+        if (motivo != Motivo.REPLICA) {
+            leituras.get(motivo).increment();
+            return leitura.get();
+        }
+        try {
+            T resultado = ReplicaRoutingDataSource.naReplica(leitura);
+            leituras.get(Motivo.REPLICA).increment();
+            return resultado;
+        } catch (DataAccessException | TransactionException e) {
+            falhou(e);
+            leituras.get(Motivo.FALHA).increment();
+            return leitura.get();
+        }
+    }
+
+    /**
+     * Revisão do banco que atenderá as leituras desta requisição, usada no ETag das listagens. Com a leitura
+     * na réplica, o ETag e o ponto de partida do feed de alterações são os da réplica, e não os do primário.
+     * @param revisaoPrimaria Lê a revisão no primário.
+     * @return A revisão da réplica, se as leituras forem para ela, ou a do primário.
+     */
+    public long revisaoAtual(LongSupplier revisaoPrimaria) {
+        if (enabled && decidir() == Motivo.REPLICA) {
+            try {
+                Long valor = replica.queryForObject(REVISAO_SQL, Long.class);
+                return valor != null ? valor : 0;
+            } catch (DataAccessException e) {
+                falhou(e);
+            }
+        }
+        return revisaoPrimaria.getAsLong();
+    }
+
+    /**
+     * Após uma gravação na requisição, as leituras seguintes (nesta requisição e, pelo cookie, nas próximas
+     * 'sticky-ms' do mesmo cliente) vão para o primário.
+     * @param event O evento de alteração, publicado na thread da requisição que gravou.
+     */
+    @EventListener
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (!enabled || atributos == null || atributos.getAttribute(ROTA, RequestAttributes.SCOPE_REQUEST) == Motivo.ESCRITA) {
+            return;
+        }
+        atributos.setAttribute(ROTA, Motivo.ESCRITA, RequestAttributes.SCOPE_REQUEST);
+        if (stickyMillis > 0 && atributos instanceof ServletRequestAttributes servlet && servlet.getResponse() != null) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, "1")
+                    .path("/api")
+                    .maxAge(Duration.ofSeconds(Math.max(1, (stickyMillis + 999) / 1000)))
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            servlet.getResponse().addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    /**
+     * @return O estado da réplica e as leituras por destino.
+     */
+    public ReplicaStatistics statistics() {
+        if (!enabled) {
+            return ReplicaStatistics.disabled();
+        }
+        Estado atual = estado;
+        Map<String, Long> reads = new LinkedHashMap<>();
+        leituras.forEach((motivo, counter) -> reads.put(motivo.tag, (long) counter.count()));
+        return new ReplicaStatistics(true, atual.disponivel(), atual.primaria(), atual.replica(),
+                Math.max(0, atual.primaria() - atual.replica()), (long) atrasoMillis(), maxLagMillis,
+                atual.verificadoEm() > 0 ? Instant.ofEpochMilli(atual.verificadoEm()) : null, atual.erro(), reads);
+    }
+
+    private Motivo decidir() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Motivo.TRANSACAO;
+        }
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            Motivo decidido = (Motivo) atributos.getAttribute(ROTA, RequestAttributes.SCOPE_REQUEST);
+            if (decidido != null) {
+                return decidido;
+            }
+        }
+        Motivo motivo;
+        if (atributos instanceof ServletRequestAttributes servlet && WebUtils.getCookie(servlet.getRequest(), COOKIE) != null) {
+            motivo = Motivo.ESCRITA;
+        } else if (!estado.disponivel()) {
+            motivo = Motivo.INDISPONIVEL;
+        } else if (atrasoMillis() > maxLagMillis) {
+            motivo = Motivo.ATRASO;
+        } else {
+            motivo = Motivo.REPLICA;
+        }
+        if (atributos != null) {
+            atributos.setAttribute(ROTA, motivo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return motivo;
+    }
+
+    /**
+     * Atraso estimado agora: o da última verificação mais o tempo desde ela (no pior caso, nada foi aplicado
+     * na réplica desde então).
+     */
+    private double atrasoMillis() {
+        Estado atual = estado;
+        if (atual.verificadoEm() == 0) {
+            return 0;
+        }
+        return atual.atrasoMillis() + Math.max(0, System.currentTimeMillis() - atual.verificadoEm());
+    }
+
+    private void falhou(RuntimeException e) {
+        Estado atual = estado;
+        estado = new Estado(false, atual.primaria(), atual.replica(), atual.atrasoMillis(), atual.verificadoEm(), e.getMessage());
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos != null) {
+            atributos.setAttribute(ROTA, Motivo.FALHA, RequestAttributes.SCOPE_REQUEST);
+        }
+        logger.warn("Falha na leitura da réplica; leituras no primário até a próxima verificação: {}", e.getMessage());
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                verificar();
+            } catch (RuntimeException e) {
+                logger.error("Falha na verificação da réplica de leitura: {}", e.getMessage(), e);
+            }
+            try {
+                Thread.sleep(lagCheckMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lê a revisão dos dois bancos e estima o atraso da réplica a partir de quando o primário foi visto em cada
+     * revisão: o atraso é o tempo desde a primeira revisão do primário que a réplica ainda não tem.
+     */
+    private void verificar() {
+        long primaria;
+        try {
+            primaria = revisao(primario);
+        } catch (DataAccessException e) {
+            // Sem a revisão do primário o estado não é atualizado; o atraso estimado cresce até a próxima leitura
+            logger.warn("Falha ao ler a revisão do primário na verificação da réplica: {}", e.getMessage());
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        if (amostras.isEmpty() || amostras.peekLast()[0] < primaria) {
+            amostras.addLast(new long[] {primaria, agora});
+            if (amostras.size() > MAX_AMOSTRAS) {
+                amostras.removeFirst();
+            }
+        }
+        Estado anterior = estado;
+        try {
+            long revisaoReplica = revisao(replica);
+            while (!amostras.isEmpty() && amostras.peekFirst()[0] <= revisaoReplica) {
+                amostras.removeFirst();
+            }
+            long atraso = amostras.isEmpty() ? 0 : agora - amostras.peekFirst()[1];
+            estado = new Estado(true, primaria, revisaoReplica, atraso, System.currentTimeMillis(), null);
+            if (!anterior.disponivel() && anterior.verificadoEm() > 0) {
+                logger.info("Réplica de leitura disponível novamente (revisão {}, primário em {}).", revisaoReplica, primaria);
+            }
+        } catch (DataAccessException e) {
+            estado = new Estado(false, primaria, anterior.replica(), anterior.atrasoMillis(), System.currentTimeMillis(),
+                    e.getMessage());
+            if (anterior.disponivel() || anterior.verificadoEm() == 0) {
+                logger.warn("Réplica de leitura indisponível; leituras no primário: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long revisao(JdbcTemplate jdbcTemplate) {
+        Long valor = jdbcTemplate.queryForObject(REVISAO_SQL, Long.class);
+        return valor != null ? valor : 0;
+    }
+}
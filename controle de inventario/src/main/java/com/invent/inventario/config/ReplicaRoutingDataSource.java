@@ -0,0 +1,60 @@
+package com.invent.inventario.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource principal no modo com réplica de leitura: entrega as conexões do pool do banco primário, exceto
+ * dentro de {@link #naReplica(Supplier)}, em que entrega as do pool da réplica.
+ *
+ * A escolha é feita a cada getConnection(), pela thread atual. Quem decide quando uma leitura pode ir para a
+ * réplica (atraso, leitura das próprias gravações) é o {@link ReplicaRouter}; sem ele, tudo vai para o primário,
+ * inclusive as migrações, a construção dos índices e o log de alterações.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destino das conexões.
+     */
+    enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private static final ThreadLocal<Destino> DESTINO = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primario, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+    }
+
+    /**
+     * Executa uma leitura com as conexões da réplica. A transação (se houver) precisa começar dentro da leitura:
+     * uma conexão já obtida do primário continua sendo usada.
+     * @param leitura A leitura.
+     * @return O resultado da leitura.
+     */
+    static <T> T naReplica(Supplier<T> leitura) {
+        Destino anterior = DESTINO.get();
+        DESTINO.set(Destino.REPLICA);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior != null) {
+                DESTINO.set(anterior);
+            } else {
+                DESTINO.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Destino destino = DESTINO.get();
+        return destino != null ? destino : Destino.PRIMARIO;
+    }
+}
@@ -0,0 +1,57 @@
+package com.invent.inventario.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.invent.inventario.limiter.ConcurrencyLimitInterceptor;
+import com.invent.inventario.sync.RevisaoEtagInterceptor;
+
+/**
+ * Configuração do Spring MVC: interceptadores e conversores de mensagens da API.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Autowired
+    private RevisaoEtagInterceptor revisaoEtagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Limite de concorrência por classe de endpoint (ver ConcurrencyLimitInterceptor): antes do ETag,
+        // para que uma requisição recusada não consulte a revisão
+        registry.addInterceptor(concurrencyLimitInterceptor)
+                .addPathPatterns("/api/inventario/**");
+        // ETag/304 das listagens (ver RevisaoEtagInterceptor)
+        registry.addInterceptor(revisaoEtagInterceptor)
+                .addPathPatterns("/api/inventario/itens", "/api/inventario/itens/search");
+    }
+
+    /**
+     * Conversor CBOR (Accept: application/cbor). Substitui o conversor padrão do Spring, que usaria um
+     * ObjectMapper sem as configurações do Spring Boot (spring.jackson.*, módulos registrados).
+     * O JSON continua sendo o formato quando o cliente aceita qualquer tipo.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Conversor Smile (Accept: application/x-jackson-smile), com as mesmas configurações do JSON.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
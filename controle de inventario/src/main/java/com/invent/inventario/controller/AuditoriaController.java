@@ -0,0 +1,93 @@
+package com.invent.inventario.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.invent.inventario.limiter.ConcurrencyLimited;
+import com.invent.inventario.limiter.EndpointClass;
+import com.invent.inventario.service.AuditoriaService;
+
+/**
+ * Controlador REST das auditorias físicas: recebe as etiquetas lidas em um setor e devolve a conciliação
+ * com o inventário (etiquetas faltando, fora do lugar e desconhecidas).
+ */
+@RestController
+@RequestMapping("/api/inventario/auditoria")
+@CrossOrigin(origins = "*")
+public class AuditoriaController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaController.class);
+
+    @Autowired
+    private AuditoriaService auditoriaService;
+
+    /**
+     * Endpoint para conciliar as etiquetas lidas por um coletor (uma por linha, ou separadas por vírgula,
+     * ponto e vírgula ou espaço; uma primeira linha não numérica é ignorada como cabeçalho).
+     * Requisição: POST /api/inventario/auditoria/reconciliar?setor={setor}&ativo={true|false}
+     * (Content-Type: text/plain ou text/csv)
+     * @param setor O setor auditado (sem diferenciar maiúsculas).
+     * @param ativo O status dos itens esperados no setor (padrão: true).
+     * @param body O corpo da requisição, com as etiquetas lidas.
+     * @return ResponseEntity com a conciliação escrita de forma assíncrona e status HTTP 200 OK.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/reconciliar", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv"})
+    @ConcurrencyLimited(EndpointClass.BULK_READ)
+    public ResponseEntity<StreamingResponseBody> reconciliarTexto(
+            @RequestParam String setor,
+            @RequestParam(defaultValue = "true") boolean ativo,
+            InputStream body) throws IOException {
+        logger.info("Recebida requisição de conciliação de auditoria (texto) do setor '{}'.", setor);
+        return reconciliar(setor, ativo, auditoriaService.readText(body));
+    }
+
+    /**
+     * Endpoint para conciliar as etiquetas lidas enviadas como um array JSON de números.
+     * Requisição: POST /api/inventario/auditoria/reconciliar?setor={setor}&ativo={true|false}
+     * (Content-Type: application/json)
+     * @param setor O setor auditado (sem diferenciar maiúsculas).
+     * @param ativo O status dos itens esperados no setor (padrão: true).
+     * @param body O corpo da requisição, com o array de etiquetas lidas.
+     * @return ResponseEntity com a conciliação escrita de forma assíncrona e status HTTP 200 OK.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/reconciliar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ConcurrencyLimited(EndpointClass.BULK_READ)
+    public ResponseEntity<StreamingResponseBody> reconciliarJson(
+            @RequestParam String setor,
+            @RequestParam(defaultValue = "true") boolean ativo,
+            InputStream body) throws IOException {
+        logger.info("Recebida requisição de conciliação de auditoria (JSON) do setor '{}'.", setor);
+        return reconciliar(setor, ativo, auditoriaService.readJson(body));
+    }
+
+    /**
+     * A leitura e a conciliação acontecem na thread da requisição (erros ainda viram 400); apenas a escrita
+     * das listas de etiquetas, que podem ser grandes, é feita em streaming.
+     */
+    private ResponseEntity<StreamingResponseBody> reconciliar(String setor, boolean ativo, AuditoriaService.Leituras leituras) {
+        AuditoriaService.Resultado resultado = auditoriaService.reconcile(setor, ativo, leituras);
+        StreamingResponseBody body = out -> {
+            try {
+                auditoriaService.write(resultado, out);
+            } catch (Exception e) {
+                logger.error("Erro ao escrever a conciliação da auditoria do setor '{}': {}", setor, e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
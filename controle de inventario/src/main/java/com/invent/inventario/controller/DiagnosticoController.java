@@ -0,0 +1,131 @@
+package com.invent.inventario.controller;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.invent.inventario.cache.InventarioCache;
+import com.invent.inventario.config.ConnectionLimitingDataSource;
+import com.invent.inventario.config.ReplicaRouter;
+import com.invent.inventario.dto.CacheStatistics;
+import com.invent.inventario.dto.DataSourceStatistics;
+import com.invent.inventario.dto.LimiterStatistics;
+import com.invent.inventario.dto.ReplicaStatistics;
+import com.invent.inventario.dto.VerificacaoResumo;
+import com.invent.inventario.dto.WriteBehindStatistics;
+import com.invent.inventario.index.ResumoCounters;
+import com.invent.inventario.limiter.ConcurrencyLimitInterceptor;
+import com.invent.inventario.service.InventarioWriteBehind;
+
+/**
+ * Controlador REST com endpoints de diagnóstico da API (estatísticas das estruturas em memória).
+ * Não altera dados; serve para acompanhar e dimensionar caches e índices em produção.
+ */
+@RestController
+@RequestMapping("/api/inventario/diagnostico")
+@CrossOrigin(origins = "*")
+public class DiagnosticoController {
+
+    @Autowired
+    private InventarioCache inventarioCache;
+
+    @Autowired
+    private ResumoCounters resumoCounters;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InventarioWriteBehind inventarioWriteBehind;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    /**
+     * Endpoint com as estatísticas do cache de itens (acertos, falhas, remoções e tamanho).
+     * Requisição: GET /api/inventario/diagnostico/cache
+     * @return As estatísticas dos caches por id e por etiqueta.
+     */
+    @GetMapping("/cache")
+    public List<CacheStatistics> getCacheStatistics() {
+        return inventarioCache.statistics();
+    }
+
+    /**
+     * Endpoint com o uso do limite de conexões simultâneas com o banco (modo de threads virtuais).
+     * Requisição: GET /api/inventario/diagnostico/datasource
+     * @return Conexões em uso, threads aguardando e esperas que excederam o tempo limite.
+     */
+    @GetMapping("/datasource")
+    public DataSourceStatistics getDataSourceStatistics() throws SQLException {
+        // Com a réplica de leitura, o DataSource de roteamento repassa o unwrap para o pool do primário
+        // O limite fica dentro de outros wrappers do DataSource (ver DataSourceConfig)
+        if (dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+            return dataSource.unwrap(ConnectionLimitingDataSource.class).statistics();
+        }
+        return DataSourceStatistics.disabled();
+    }
+
+    /**
+     * Endpoint que compara os contadores em memória do resumo com um GROUP BY no banco.
+     * Requisição: GET /api/inventario/diagnostico/resumo
+     * @return As divergências encontradas (vazio se os contadores estiverem consistentes).
+     */
+    @GetMapping("/resumo")
+    public VerificacaoResumo verificarResumo() {
+        return resumoCounters.verify(false);
+    }
+
+    /**
+     * Endpoint que verifica os contadores do resumo e, havendo divergência, os recarrega a partir do banco.
+     * Requisição: POST /api/inventario/diagnostico/resumo?corrigir=true
+     * @param corrigir Se true, recarrega os contadores quando houver divergências.
+     * @return As divergências encontradas e se os contadores foram recarregados.
+     */
+    @PostMapping("/resumo")
+    public VerificacaoResumo corrigirResumo(@RequestParam(defaultValue = "true") boolean corrigir) {
+        return resumoCounters.verify(corrigir);
+    }
+
+    /**
+     * Endpoint com o estado da fila de gravações assíncronas (itens pendentes, atraso e falhas recentes).
+     * Requisição: GET /api/inventario/diagnostico/write-behind
+     * @return Os contadores e a última sequência confirmada.
+     */
+    @GetMapping("/write-behind")
+    public WriteBehindStatistics getWriteBehindStatistics() {
+        return inventarioWriteBehind.statistics();
+    }
+
+    /**
+     * Endpoint com o estado da réplica de leitura (revisões, atraso estimado) e as leituras por destino.
+     * Requisição: GET /api/inventario/diagnostico/replica
+     * @return As estatísticas da réplica (enabled=false se o modo estiver desabilitado).
+     */
+    @GetMapping("/replica")
+    public ReplicaStatistics getReplicaStatistics() {
+        return replicaRouter.statistics();
+    }
+
+    /**
+     * Endpoint com o limite de concorrência de cada classe de endpoint (limite atual, em andamento, recusadas).
+     * Requisição: GET /api/inventario/diagnostico/limites
+     * @return O estado do limite de cada classe.
+     */
+    @GetMapping("/limites")
+    public List<LimiterStatistics> getLimiterStatistics() {
+        return concurrencyLimitInterceptor.statistics();
+    }
+}
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map; // Exceção para erros de validação de argumentos de método
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus; // Anotação para tratamento de exceções global
 import org.springframework.http.ResponseEntity; // Anotação para especificar o tipo de exceção a ser tratada
 import org.springframework.web.bind.MethodArgumentNotValidException; // Para acessar detalhes da requisição
@@ -11,8 +14,14 @@ import org.springframework.web.bind.annotation.ControllerAdvice; // DTO para det
 import org.springframework.web.bind.annotation.ExceptionHandler; // Exceção personalizada
 import org.springframework.web.context.request.WebRequest;
 
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.exception.ConflictException;
 import com.invent.inventario.exception.ErrorDetails;
 import com.invent.inventario.exception.ResourceNotFoundException;
+import com.invent.inventario.exception.ResyncRequiredException;
+import com.invent.inventario.exception.ServiceUnavailableException;
+
+import jakarta.validation.ConstraintViolationException;
 
 /**
  * Classe de tratamento de exceções global para a API.
@@ -41,6 +50,142 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Trata BadRequestException (parâmetros de requisição inválidos, como cursor ou limite de página).
+     * Retorna status 400 Bad Request com um corpo de erro padronizado.
+     * @param ex A exceção BadRequestException que foi lançada.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails e status HTTP 400 BAD_REQUEST.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorDetails> handleBadRequestException(
+            BadRequestException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                "BAD_REQUEST_ERROR" // Código de erro personalizado
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Trata ConflictException e falhas de bloqueio otimista (o item foi alterado por outra requisição).
+     * Retorna status 409 Conflict com um corpo de erro padronizado.
+     * @param ex A exceção lançada.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails e status HTTP 409 CONFLICT.
+     */
+    @ExceptionHandler({ConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorDetails> handleConflictException(
+            RuntimeException ex, WebRequest request) {
+
+        String message = ex instanceof ConflictException
+                ? ex.getMessage()
+                : "O item foi alterado por outra requisição. Recarregue o item e tente novamente.";
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                message,
+                request.getDescription(false),
+                "CONFLICT_ERROR" // Código de erro personalizado
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Trata ServiceUnavailableException (ex: fila de gravações assíncronas cheia).
+     * Retorna status 503 Service Unavailable com o cabeçalho Retry-After e um corpo de erro padronizado.
+     * @param ex A exceção ServiceUnavailableException que foi lançada.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails e status HTTP 503 SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorDetails> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                "SERVICE_UNAVAILABLE_ERROR" // Código de erro personalizado
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
+    /**
+     * Trata ResyncRequiredException ('since' anterior ao período de retenção do log de alterações ou posterior
+     * à revisão atual).
+     * Retorna status 410 Gone: o cliente deve recarregar a lista completa em vez de pedir as alterações.
+     * @param ex A exceção ResyncRequiredException que foi lançada.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails e status HTTP 410 GONE.
+     */
+    @ExceptionHandler(ResyncRequiredException.class)
+    public ResponseEntity<ErrorDetails> handleResyncRequiredException(
+            ResyncRequiredException ex, WebRequest request) {
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                ex.getMessage(),
+                request.getDescription(false),
+                "RESYNC_REQUIRED" // Código de erro personalizado
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.GONE);
+    }
+
+    /**
+     * Trata violações de restrições do banco, como a etiqueta única gravada ao mesmo tempo por duas requisições
+     * (a verificação do InventarioService não vê a gravação ainda não confirmada da outra).
+     * Retorna status 409 Conflict com um corpo de erro padronizado.
+     * @param ex A exceção DataIntegrityViolationException.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails e status HTTP 409 CONFLICT.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorDetails> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, WebRequest request) {
+
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        String message = cause.contains("uq_inventario_etiqueta")
+                ? "A etiqueta informada já pertence a outro item."
+                : "A alteração viola uma restrição do banco de dados.";
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                message,
+                request.getDescription(false),
+                "CONFLICT_ERROR" // Código de erro personalizado
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Trata violações de validação de campos avulsos (ex: campos enviados em um PATCH).
+     * Retorna status 400 Bad Request com detalhes dos erros de validação, no mesmo formato do @Valid.
+     * @param ex A exceção ConstraintViolationException.
+     * @param request O contexto da requisição web.
+     * @return ResponseEntity com ErrorDetails (incluindo erros de validação) e status HTTP 400 BAD_REQUEST.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorDetails> handleConstraintViolationException(
+            ConstraintViolationException ex, WebRequest request) {
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getConstraintViolations().forEach(violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                "Erro de validação",
+                request.getDescription(false),
+                "VALIDATION_ERROR",
+                errors
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Trata exceções de validação de argumentos de método (ex: quando @Valid falha no @RequestBody).
      * Retorna status 400 Bad Request com detalhes dos erros de validação.
@@ -1,27 +1,57 @@
 package com.invent.inventario.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.invent.inventario.dto.AlteracoesInventario;
+import com.invent.inventario.dto.BulkRequest;
+import com.invent.inventario.dto.BulkResult;
+import com.invent.inventario.dto.CursorPage;
+import com.invent.inventario.dto.EstadoGravacao;
+import com.invent.inventario.dto.FacetedPage;
+import com.invent.inventario.dto.ImportResult;
+import com.invent.inventario.dto.ItensPorEtiqueta;
+import com.invent.inventario.dto.ResumoInventario;
+import com.invent.inventario.dto.WriteBehindStatistics;
 import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.exception.ConflictException;
 import com.invent.inventario.exception.ResourceNotFoundException;
+import com.invent.inventario.limiter.ConcurrencyLimited;
+import com.invent.inventario.limiter.EndpointClass;
+import com.invent.inventario.service.InventarioBulkOperations;
+import com.invent.inventario.service.InventarioExporter;
+import com.invent.inventario.service.InventarioImporter;
 import com.invent.inventario.service.InventarioService; // Importar Logger
+import com.invent.inventario.service.InventarioWriteBehind;
+import com.invent.inventario.sync.AlteracaoFeed;
 
 import jakarta.validation.Valid; // Importar LoggerFactory
 
@@ -36,9 +66,27 @@ public class InventarioController {
 
     private static final Logger logger = LoggerFactory.getLogger(InventarioController.class); // Inicializa o logger
 
+    private static final int DEFAULT_PAGE_SIZE = 50; // Tamanho padrão da página nas listagens
+    private static final int MAX_PAGE_SIZE = 500; // Limite superior para proteger o heap do servidor
+
     @Autowired
     private InventarioService inventarioService;
 
+    @Autowired
+    private InventarioExporter inventarioExporter;
+
+    @Autowired
+    private InventarioImporter inventarioImporter;
+
+    @Autowired
+    private InventarioBulkOperations inventarioBulkOperations;
+
+    @Autowired
+    private AlteracaoFeed alteracaoFeed;
+
+    @Autowired
+    private InventarioWriteBehind inventarioWriteBehind;
+
     /**
      * Endpoint para criar um novo item de inventário.
      * Requisição: POST /api/inventario/itens
@@ -46,12 +94,13 @@ public class InventarioController {
      * @return O item de inventário salvo.
      */
     @PostMapping("/itens")
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
     public Inventario createItem(@Valid @RequestBody Inventario inventario) {
         try {
-            logger.info("Recebida requisição para criar item: {}", inventario);
+            logger.debug("Recebida requisição para criar item (etiqueta={}, setor='{}').", inventario.getEtiqueta(), inventario.getSetor());
             Inventario newItem = inventarioService.save(inventario);
-            logger.info("Item criado com sucesso: {}", newItem);
+            logger.debug("Item criado com sucesso: id={}, etiqueta={}.", newItem.getId(), newItem.getEtiqueta());
             return newItem;
         } catch (Exception e) {
             logger.error("Erro ao criar item: {}", e.getMessage(), e); // Loga a exceção completa
@@ -59,19 +108,75 @@ public class InventarioController {
         }
     }
 
+    /**
+     * Endpoint para importar itens em lote a partir de um array JSON.
+     * As linhas são validadas à medida que são lidas e inseridas em lotes (JDBC batch).
+     * Requisição: POST /api/inventario/itens/import (Content-Type: application/json)
+     * @param body O corpo da requisição, contendo um array JSON de itens.
+     * @return O resultado da importação, com os erros por linha e a vazão obtida.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/itens/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public ImportResult importItemsJson(InputStream body) throws IOException {
+        try {
+            logger.info("Recebida requisição de importação em lote (JSON).");
+            return inventarioImporter.importJson(body);
+        } catch (Exception e) {
+            logger.error("Erro na importação em lote (JSON): {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Endpoint para importar itens em lote a partir de um arquivo CSV com cabeçalho.
+     * Requisição: POST /api/inventario/itens/import (Content-Type: text/csv)
+     * @param body O corpo da requisição, contendo o CSV.
+     * @return O resultado da importação, com os erros por linha e a vazão obtida.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/itens/import", consumes = "text/csv")
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public ImportResult importItemsCsv(InputStream body) throws IOException {
+        try {
+            logger.info("Recebida requisição de importação em lote (CSV).");
+            return inventarioImporter.importCsv(body);
+        } catch (Exception e) {
+            logger.error("Erro na importação em lote (CSV): {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
     /**
      * Endpoint para atualizar um item de inventário existente.
+     * Com o cabeçalho Prefer: respond-async e inventario.write-behind.enabled=true, a gravação é aceita em memória
+     * e feita em segundo plano, em lote: a resposta é 202 com a sequência da gravação, a ser consultada em
+     * GET /itens/write-behind/{sequencia}. Sem o cabeçalho (ou com o modo desabilitado), a gravação é síncrona.
      * Requisição: PUT /api/inventario/itens/{id}
      * @param id O ID do item a ser atualizado (extraído do caminho da URL).
+     * @param prefer O cabeçalho Prefer (opcional, ex: "respond-async").
      * @param inventarioDetails Os detalhes atualizados do item enviados no corpo da requisição.
-     * @return ResponseEntity com o item de inventário atualizado e status HTTP 200 OK.
+     * @return ResponseEntity com o item de inventário atualizado e status HTTP 200 OK, ou com o estado da gravação
+     *         e status HTTP 202 Accepted.
      */
     @PutMapping("/itens/{id}")
-    public ResponseEntity<Inventario> updateItem(@PathVariable Long id, @Valid @RequestBody Inventario inventarioDetails) {
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public ResponseEntity<?> updateItem(@PathVariable Long id,
+                                        @RequestHeader(value = "Prefer", required = false) String prefer,
+                                        @Valid @RequestBody Inventario inventarioDetails) {
         try {
-            logger.info("Recebida requisição para atualizar item com ID {}: {}", id, inventarioDetails);
+            logger.debug("Recebida requisição para atualizar item com ID {} (etiqueta={}).", id, inventarioDetails.getEtiqueta());
+            if (prefer != null && prefer.contains("respond-async") && inventarioWriteBehind.isEnabled()) {
+                EstadoGravacao gravacao = inventarioWriteBehind.enqueue(id, inventarioDetails);
+                logger.debug("Atualização do item com ID {} aceita para gravação assíncrona (sequência {}).", id, gravacao.sequencia());
+                return ResponseEntity.accepted()
+                        .header("Preference-Applied", "respond-async")
+                        .location(URI.create("/api/inventario/itens/write-behind/" + gravacao.sequencia()))
+                        .body(gravacao);
+            }
+            inventarioWriteBehind.drain(id);
             Inventario updatedInventario = inventarioService.update(id, inventarioDetails);
-            logger.info("Item com ID {} atualizado com sucesso: {}", id, updatedInventario);
+            logger.debug("Item com ID {} atualizado com sucesso.", id);
             return ResponseEntity.ok(updatedInventario);
         } catch (Exception e) {
             logger.error("Erro ao atualizar item com ID {}: {}", id, e.getMessage(), e);
@@ -80,44 +185,251 @@ public class InventarioController {
     }
 
     /**
-     * Endpoint para buscar todos os itens de inventário.
-     * Requisição: GET /api/inventario/itens
-     * @return Uma lista de todos os itens de inventário.
+     * Endpoint para alterar apenas alguns campos de um item, com controle de concorrência otimista.
+     * A versão lida pelo cliente vai no cabeçalho If-Match (o ETag de GET /itens/{id}) ou no campo 'versao'
+     * do corpo. Se o item tiver sido alterado depois dessa versão, nada é gravado e a resposta é 409.
+     * Requisição: PATCH /api/inventario/itens/{id}
+     * Corpo: {"usuario": "Maria", "setor": "Vendas"}
+     * @param id O ID do item a ser alterado (extraído do caminho da URL).
+     * @param ifMatch A versão esperada do item (opcional se 'versao' vier no corpo).
+     * @param campos Os campos a alterar e seus novos valores.
+     * @return ResponseEntity com o item alterado, o ETag da nova versão e status HTTP 200 OK.
+     * @throws ConflictException Se o item estiver em outra versão.
+     */
+    @PatchMapping("/itens/{id}")
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public ResponseEntity<Inventario> patchItem(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody Map<String, Object> campos) {
+        Map<String, Object> alteracoes = new LinkedHashMap<>(campos);
+        long versao = expectedVersion(ifMatch, alteracoes.remove("versao"));
+        try {
+            logger.debug("Recebida requisição para alterar os campos {} do item com ID {} (versão {}).",
+                    alteracoes.keySet(), id, versao);
+            inventarioWriteBehind.drain(id);
+            Inventario patched = inventarioService.patch(id, versao, alteracoes);
+            logger.debug("Item com ID {} alterado para a versão {}.", id, patched.getVersao());
+            return ResponseEntity.ok().eTag(String.valueOf(patched.getVersao())).body(patched);
+        } catch (ConflictException e) {
+            logger.debug("Conflito de versão ao alterar item com ID {}: {}", id, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro ao alterar item com ID {}: {}", id, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Lê a versão esperada do cabeçalho If-Match ("5", W/"5" ou 5) ou, na falta dele, do campo 'versao' do corpo.
+     * @throws BadRequestException Se nenhuma versão for informada ou se o valor não for um número.
+     */
+    private long expectedVersion(String ifMatch, Object versaoCorpo) {
+        String value = ifMatch != null ? ifMatch.trim() : versaoCorpo != null ? versaoCorpo.toString() : null;
+        if (value == null || value.isEmpty()) {
+            throw new BadRequestException("Informe a versão do item no cabeçalho If-Match ou no campo 'versao'.");
+        }
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Versão inválida: " + value + ".", e);
+        }
+    }
+
+    /**
+     * Endpoint para listar os itens de inventário, uma página por vez (paginação por cursor).
+     * Requisição: GET /api/inventario/itens?cursor={nextCursor}&limit={n}
+     * @param cursor Token 'nextCursor' recebido na página anterior (opcional, ausente na primeira página).
+     * @param limit Quantidade máxima de itens na página (opcional, padrão 50, máximo 500).
+     * @return A página de itens e o cursor da próxima página (null na última página).
      */
     @GetMapping("/itens")
-    public List<Inventario> getAllItems() {
+    @ConcurrencyLimited(EndpointClass.LIST)
+    public CursorPage<Inventario> getAllItems(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         try {
-            logger.info("Recebida requisição para buscar todos os itens.");
-            List<Inventario> items = inventarioService.findAll();
-            logger.info("Retornando {} itens.", items.size());
-            return items;
+            logger.debug("Recebida requisição para listar itens (cursor='{}', limit={}).", cursor, limit);
+            CursorPage<Inventario> page = inventarioService.findPage(cursor, checkPageSize(limit));
+            logger.debug("Retornando {} itens.", page.items().size());
+            return page;
         } catch (Exception e) {
             logger.error("Erro ao buscar todos os itens: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Variante da listagem com apenas alguns campos de cada item (sparse fieldset). Somente as colunas pedidas
+     * são lidas do banco e serializadas, o que reduz o tráfego em listagens grandes. O id sempre é incluído.
+     * Requisição: GET /api/inventario/itens?fields=nome,etiqueta,setor&cursor={nextCursor}&limit={n}
+     * @param fields Campos separados por vírgula (id, nome, etiqueta, numeroSerie, usuario, observacoes, ativo,
+     *               setor, versao, atualizadoEm).
+     * @param cursor Token 'nextCursor' recebido na página anterior (opcional).
+     * @param limit Quantidade máxima de itens na página (opcional, padrão 50, máximo 500).
+     * @return A página com os campos pedidos de cada item e o cursor da próxima página.
+     */
+    @GetMapping(value = "/itens", params = "fields")
+    @ConcurrencyLimited(EndpointClass.LIST)
+    public CursorPage<Map<String, Object>> getAllItemsFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        List<String> selected = inventarioService.parseFields(fields);
+        logger.debug("Recebida requisição para listar itens com os campos {} (cursor='{}', limit={}).", selected, cursor, limit);
+        return inventarioService.findPageFields(cursor, checkPageSize(limit), selected);
+    }
+
+    /**
+     * Endpoint de sincronização incremental: itens criados, alterados e removidos desde uma revisão.
+     * Sem 'since', retorna apenas a revisão atual (o cliente carrega a lista completa por GET /itens e
+     * depois consulta as alterações a partir dessa revisão). Enquanto 'hasMore' for true, chamar de novo
+     * com a 'versao' recebida. Se 'since' for anterior à limpeza do log (remoções mais antigas que
+     * 'inventario.sync.retention') ou posterior à revisão atual (banco restaurado ou recriado), responde 410
+     * com o código RESYNC_REQUIRED: o cliente recarrega a lista.
+     * Requisição: GET /api/inventario/itens/changes?since={versao}&limit={n}
+     * @param since A 'versao' recebida na chamada anterior (opcional).
+     * @param limit Quantidade máxima de alterações (opcional, padrão 500, máximo 500).
+     * @return As alterações e a revisão para a próxima chamada.
+     */
+    @GetMapping("/itens/changes")
+    @ConcurrencyLimited(EndpointClass.LIST)
+    public AlteracoesInventario getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "" + MAX_PAGE_SIZE) int limit) {
+        if (since != null && since < 0) {
+            throw new BadRequestException("O parâmetro 'since' não pode ser negativo.");
+        }
+        AlteracoesInventario alteracoes = inventarioService.alteracoesDesde(since, checkPageSize(limit));
+        logger.debug("Alterações desde {}: {} alterados, {} removidos, versão {}.", since,
+                alteracoes.alterados().size(), alteracoes.removidos().size(), alteracoes.versao());
+        return alteracoes;
+    }
+
+    /**
+     * Endpoint do feed de alterações em Server-Sent Events: cada evento 'alteracoes' tem o mesmo formato de
+     * GET /itens/changes e o id é a sua 'versao'. Com filtro, os itens alterados fora dele vêm em 'removidos'
+     * (podem ter acabado de sair do filtro). Ao reconectar, o EventSource envia o Last-Event-ID e recebe o
+     * que perdeu; sem ele nem 'since', o primeiro evento ('revisao') traz a revisão atual.
+     * Requisição: GET /api/inventario/itens/changes/stream?setor={setor}&ativo={true|false}&since={versao}
+     * @param setor Setor dos itens enviados (opcional).
+     * @param ativo Status dos itens enviados (opcional).
+     * @param since Revisão já conhecida pelo cliente (opcional; o cabeçalho Last-Event-ID tem precedência).
+     * @param lastEventId Id do último evento recebido, enviado pelo navegador ao reconectar.
+     * @return ResponseEntity com a conexão SSE e status HTTP 200 OK.
+     */
+    @GetMapping(value = "/itens/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) String setor,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long desde = lastEventId != null ? lastEventId : since;
+        if (desde != null && desde < 0) {
+            throw new BadRequestException("A revisão inicial do feed não pode ser negativa.");
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no") // O Nginx repassa cada evento sem acumular a resposta
+                .body(alteracaoFeed.subscribe(setor, ativo, desde));
+    }
+
+    /**
+     * Endpoint para exportar o inventário completo em streaming (NDJSON, CSV, CBOR ou Smile).
+     * As linhas são lidas do banco e escritas na resposta uma a uma, então o consumo de memória
+     * é constante e o primeiro byte é enviado assim que a primeira linha é lida.
+     * Requisição: GET /api/inventario/itens/export?format={ndjson|csv|cbor|smile}
+     * @param format Formato de saída (opcional; sem ele, o formato vem do Accept, com padrão 'ndjson').
+     * @param accept Cabeçalho Accept (ex: application/cbor-seq, application/x-jackson-smile).
+     * @return ResponseEntity com o corpo escrito de forma assíncrona e status HTTP 200 OK.
+     */
+    @GetMapping("/itens/export")
+    @ConcurrencyLimited(EndpointClass.BULK_READ)
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        InventarioExporter.Format exportFormat = format != null
+                ? InventarioExporter.Format.fromParameter(format)
+                : InventarioExporter.Format.fromAccept(accept);
+        logger.info("Recebida requisição de exportação no formato {}.", exportFormat);
+        StreamingResponseBody body = out -> {
+            try {
+                long count = inventarioExporter.export(exportFormat, out);
+                logger.info("Exportação no formato {} concluída: {} itens.", exportFormat, count);
+            } catch (Exception e) {
+                logger.error("Erro durante a exportação no formato {}: {}", exportFormat, e.getMessage(), e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventario." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Endpoint para buscar um item de inventário pelo ID.
      * Requisição: GET /api/inventario/itens/{id}
      * @param id O ID do item a ser buscado (extraído do caminho da URL).
-     * @return ResponseEntity com o item de inventário e status HTTP 200 OK.
+     * @return ResponseEntity com o item de inventário, o ETag da sua versão e status HTTP 200 OK.
      * @throws ResourceNotFoundException Se o item não for encontrado.
      */
     @GetMapping("/itens/{id}")
+    @ConcurrencyLimited(EndpointClass.POINT)
     public ResponseEntity<Inventario> getItemById(@PathVariable Long id) {
         try {
-            logger.info("Recebida requisição para buscar item com ID: {}", id);
+            logger.debug("Recebida requisição para buscar item com ID: {}", id);
             Inventario inventario = inventarioService.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
-            logger.info("Item com ID {} encontrado: {}", id, inventario);
-            return ResponseEntity.ok(inventario);
+            logger.debug("Item com ID {} encontrado (etiqueta={}).", id, inventario.getEtiqueta());
+            // O ETag é a versão do item: enviado de volta no If-Match do PATCH.
+            return ResponseEntity.ok().eTag(String.valueOf(inventario.getVersao())).body(inventario);
         } catch (Exception e) {
             logger.error("Erro ao buscar item com ID {}: {}", id, e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Endpoint para buscar um item pela etiqueta (leitura de código de barras), respondido pelo índice de
+     * etiquetas em memória. Chamado em alta frequência pelos leitores: etiquetas inexistentes não são
+     * registradas como erro no log.
+     * Requisição: GET /api/inventario/itens/etiqueta/{etiqueta}
+     * @param etiqueta O número da etiqueta.
+     * @return ResponseEntity com o item, o ETag da sua versão e status HTTP 200 OK.
+     * @throws ResourceNotFoundException Se nenhum item tiver a etiqueta.
+     */
+    @GetMapping("/itens/etiqueta/{etiqueta}")
+    @ConcurrencyLimited(EndpointClass.POINT)
+    public ResponseEntity<Inventario> getItemByEtiqueta(@PathVariable Integer etiqueta) {
+        Inventario inventario = inventarioService.findByEtiqueta(etiqueta)
+                .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com etiqueta: " + etiqueta));
+        return ResponseEntity.ok().eTag(String.valueOf(inventario.getVersao())).body(inventario);
+    }
+
+    /**
+     * Endpoint para buscar os itens de várias etiquetas de uma vez (ex: lote de leituras de um coletor).
+     * Requisição: POST /api/inventario/itens/etiquetas com um array JSON de etiquetas (ex: [1001, 1002, 1003])
+     * @param etiquetas Os números das etiquetas (até 500 por requisição).
+     * @return Os itens encontrados, na ordem pedida, e as etiquetas sem item.
+     */
+    @PostMapping("/itens/etiquetas")
+    @ConcurrencyLimited(EndpointClass.POINT)
+    public ItensPorEtiqueta getItemsByEtiquetas(@RequestBody List<Integer> etiquetas) {
+        if (etiquetas.isEmpty() || etiquetas.size() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Informe de 1 a " + MAX_PAGE_SIZE + " etiquetas por requisição.");
+        }
+        ItensPorEtiqueta result = inventarioService.findByEtiquetas(etiquetas);
+        logger.debug("Consulta de {} etiquetas: {} itens encontrados.", etiquetas.size(), result.itens().size());
+        return result;
+    }
+
     /**
      * Endpoint para deletar um item de inventário pelo ID.
      * Requisição: DELETE /api/inventario/itens/{id}
@@ -125,12 +437,14 @@ public class InventarioController {
      * @return ResponseEntity com status HTTP 204 No Content.
      */
     @DeleteMapping("/itens/{id}")
+    @ConcurrencyLimited(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
         try {
-            logger.info("Recebida requisição para deletar item com ID: {}", id);
+            logger.debug("Recebida requisição para deletar item com ID: {}", id);
+            inventarioWriteBehind.drain(id);
             inventarioService.delete(id);
-            logger.info("Item com ID {} deletado com sucesso.", id);
+            logger.debug("Item com ID {} deletado com sucesso.", id);
             return ResponseEntity.noContent().build();
         } catch (Exception e) {
             logger.error("Erro ao deletar item com ID {}: {}", id, e.getMessage(), e);
@@ -138,28 +452,168 @@ public class InventarioController {
         }
     }
 
+    /**
+     * Endpoint para remover vários itens de uma vez, por lista de ids ou pelos critérios da busca.
+     * Os itens são removidos em lotes (uma transação e um único DELETE por lote).
+     * Requisição: POST /api/inventario/itens/bulk-delete
+     * Corpo: {"ids": [1, 2, 3]} ou {"filtro": {"setor": "Vendas", "ativo": false}}
+     * @param request Os ids ou o filtro dos itens.
+     * @return As quantidades de itens encontrados e removidos.
+     */
+    @PostMapping("/itens/bulk-delete")
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public BulkResult bulkDelete(@RequestBody BulkRequest request) {
+        logger.info("Recebida requisição de remoção em lote ({}).", describe(request));
+        inventarioWriteBehind.flushAll();
+        return inventarioBulkOperations.delete(request);
+    }
+
+    /**
+     * Endpoint para alterar o status e/ou o setor de vários itens de uma vez, por lista de ids ou pelos
+     * critérios da busca. Os itens são alterados em lotes (uma transação e um único UPDATE por lote).
+     * Requisição: POST /api/inventario/itens/bulk-update
+     * Corpo: {"filtro": {"setor": "Vendas"}, "ativo": false} ou {"ids": [1, 2, 3], "setor": "TI"}
+     * @param request Os ids ou o filtro dos itens e os novos valores de 'ativo' e/ou 'setor'.
+     * @return As quantidades de itens encontrados e alterados.
+     */
+    @PostMapping("/itens/bulk-update")
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public BulkResult bulkUpdate(@RequestBody BulkRequest request) {
+        logger.info("Recebida requisição de alteração em lote ({}, ativo={}, setor={}).",
+                describe(request), request.ativo(), request.setor());
+        inventarioWriteBehind.flushAll();
+        return inventarioBulkOperations.update(request);
+    }
+
+    private static String describe(BulkRequest request) {
+        return request.ids() != null ? request.ids().size() + " ids" : "filtro=" + request.filtro();
+    }
+
+    /**
+     * Endpoint para consultar o estado de uma gravação assíncrona (PUT com Prefer: respond-async).
+     * GRAVADA significa confirmada no banco (ou substituída por uma gravação posterior do mesmo item, já confirmada).
+     * Requisição: GET /api/inventario/itens/write-behind/{sequencia}
+     * @param sequencia A sequência devolvida no 202.
+     * @return O estado da gravação: PENDENTE, GRAVADA ou FALHOU (com o motivo).
+     */
+    @GetMapping("/itens/write-behind/{sequencia}")
+    @ConcurrencyLimited(EndpointClass.POINT)
+    public EstadoGravacao getWriteBehindStatus(@PathVariable long sequencia) {
+        return inventarioWriteBehind.estado(sequencia);
+    }
+
+    /**
+     * Endpoint para gravar imediatamente todas as gravações assíncronas pendentes (ex: antes de um relatório).
+     * Requisição: POST /api/inventario/itens/write-behind/flush
+     * @return O estado da fila após a gravação.
+     */
+    @PostMapping("/itens/write-behind/flush")
+    @ConcurrencyLimited(EndpointClass.WRITE)
+    public WriteBehindStatistics flushWriteBehind() {
+        logger.info("Recebida requisição para gravar as gravações assíncronas pendentes.");
+        return inventarioWriteBehind.flushAll();
+    }
+
+    /**
+     * Endpoint com o resumo do inventário: itens ativos e inativos por setor.
+     * Respondido a partir de contadores em memória, sem consulta ao banco.
+     * Requisição: GET /api/inventario/resumo
+     * @return O resumo do inventário por setor.
+     */
+    @GetMapping("/resumo")
+    @ConcurrencyLimited(EndpointClass.POINT)
+    public ResumoInventario getResumo() {
+        return inventarioService.resumo();
+    }
+
     /**
      * Endpoint para buscar itens de inventário com base em múltiplos critérios de filtro.
-     * Requisição: GET /api/inventario/itens/search?term={searchTerm}&ativo={true/false}&setor={setor}
+     * Requisição: GET /api/inventario/itens/search?searchTerm={searchTerm}&ativo={true/false}&setor={setor}&cursor={nextCursor}&limit={n}
      * @param searchTerm Termo de busca para o nome do item (opcional).
      * @param ativo Status ativo/inativo (opcional, null para todos).
      * @param setor Termo de busca para o setor (opcional).
-     * @return Uma lista de itens que correspondem aos critérios de busca.
+     * @param cursor Token 'nextCursor' recebido na página anterior (opcional).
+     * @param limit Quantidade máxima de itens na página (opcional, padrão 50, máximo 500).
+     * @return A página de itens que correspondem aos critérios de busca e o cursor da próxima página.
      */
  @GetMapping("/itens/search")
-    public List<Inventario> searchItems(
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public CursorPage<Inventario> searchItems(
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) Boolean ativo,
-            @RequestParam(required = false) String setor) {
+            @RequestParam(required = false) String setor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
         try {
-            logger.info("Recebida requisição de busca com searchTerm='{}', ativo='{}', setor='{}'.", searchTerm, ativo, setor);
+            logger.debug("Recebida requisição de busca com searchTerm='{}', ativo='{}', setor='{}', cursor='{}', limit={}.",
+                    searchTerm, ativo, setor, cursor, limit);
             // Passa null para etiqueta, pois searchTerm já tenta parsear para etiqueta se for um número
-            List<Inventario> items = inventarioService.search(searchTerm, null, ativo, setor);
-            logger.info("Retornando {} itens para a busca.", items.size());
-            return items;
+            CursorPage<Inventario> page = inventarioService.searchPage(searchTerm, null, ativo, setor, cursor, checkPageSize(limit));
+            logger.debug("Retornando {} itens para a busca.", page.items().size());
+            return page;
         } catch (Exception e) {
             logger.error("Erro ao realizar busca de itens: {}", e.getMessage(), e);
             throw e;
         }
     }
+
+    /**
+     * Variante da busca com apenas alguns campos de cada item (sparse fieldset), como em GET /itens?fields=.
+     * Requisição: GET /api/inventario/itens/search?fields=nome,setor&searchTerm={searchTerm}&ativo={true/false}&setor={setor}
+     * @param fields Campos separados por vírgula (veja GET /itens?fields=).
+     * @return A página com os campos pedidos de cada item encontrado e o cursor da próxima página.
+     */
+    @GetMapping(value = "/itens/search", params = {"fields", "facets!=true"})
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public CursorPage<Map<String, Object>> searchItemsFields(
+            @RequestParam String fields,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String setor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        List<String> selected = inventarioService.parseFields(fields);
+        logger.debug("Recebida requisição de busca com os campos {}, searchTerm='{}', ativo='{}', setor='{}', cursor='{}', limit={}.",
+                selected, searchTerm, ativo, setor, cursor, limit);
+        return inventarioService.searchPageFields(searchTerm, null, ativo, setor, cursor, checkPageSize(limit), selected);
+    }
+
+    /**
+     * Variante da busca que devolve, junto com a página, as facetas: quantos itens a busca encontraria em cada setor
+     * e em cada status. As contagens vêm de bitmaps em memória, sem consultas adicionais ao banco; cada faceta
+     * desconsidera o próprio filtro. Aceita também o parâmetro 'fields'.
+     * Requisição: GET /api/inventario/itens/search?facets=true&searchTerm={searchTerm}&ativo={true/false}&setor={setor}
+     * @param fields Campos separados por vírgula (opcional, veja GET /itens?fields=).
+     * @return A página de itens, o cursor da próxima página e as facetas (null se os índices não puderem respondê-las).
+     */
+    @GetMapping(value = "/itens/search", params = "facets=true")
+    @ConcurrencyLimited(EndpointClass.SEARCH)
+    public FacetedPage<?> searchItemsFacets(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String setor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        logger.debug("Recebida requisição de busca com facetas, searchTerm='{}', ativo='{}', setor='{}', cursor='{}', limit={}.",
+                searchTerm, ativo, setor, cursor, limit);
+        CursorPage<?> page = fields != null
+                ? inventarioService.searchPageFields(searchTerm, null, ativo, setor, cursor, checkPageSize(limit),
+                        inventarioService.parseFields(fields))
+                : inventarioService.searchPage(searchTerm, null, ativo, setor, cursor, checkPageSize(limit));
+        return new FacetedPage<>(page.items(), page.nextCursor(), inventarioService.facets(searchTerm, ativo, setor));
+    }
+
+    /**
+     * Valida o tamanho de página solicitado pelo cliente.
+     * @param limit O tamanho solicitado.
+     * @return O próprio limite, se estiver entre 1 e MAX_PAGE_SIZE.
+     * @throws BadRequestException Se o limite estiver fora do intervalo permitido.
+     */
+    private int checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("O parâmetro 'limit' deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
 }
@@ -0,0 +1,15 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * DTO com as alterações do inventário desde uma revisão (sincronização incremental).
+ * @param alterados Itens criados ou alterados desde a revisão informada, no estado atual.
+ * @param removidos Ids dos itens removidos desde a revisão informada.
+ * @param versao Revisão a enviar no parâmetro 'since' da próxima chamada.
+ * @param hasMore true se há mais alterações além desta página (chamar de novo com a nova versão).
+ */
+public record AlteracoesInventario(List<Inventario> alterados, List<Long> removidos, long versao, boolean hasMore) {
+}
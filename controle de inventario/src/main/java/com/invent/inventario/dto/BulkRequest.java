@@ -0,0 +1,24 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+/**
+ * DTO com a requisição de uma operação em lote (remoção ou alteração de status/setor).
+ * Os itens são escolhidos por uma lista de ids ou por um filtro de busca, nunca pelos dois.
+ * @param ids Ids dos itens (opcional).
+ * @param filtro Critérios de busca, os mesmos de GET /api/inventario/itens/search (opcional).
+ * @param ativo Novo status dos itens (somente na alteração; null mantém o atual).
+ * @param setor Novo setor dos itens (somente na alteração; null mantém o atual).
+ */
+public record BulkRequest(List<Long> ids, Filtro filtro, Boolean ativo, String setor) {
+
+    /**
+     * Critérios de busca dos itens afetados. Ao menos um critério é obrigatório.
+     * @param searchTerm Termo de busca em nome, usuário, número de série ou etiqueta (opcional).
+     * @param etiqueta Número da etiqueta (opcional).
+     * @param ativo Status ativo/inativo (opcional).
+     * @param setor Setor (opcional).
+     */
+    public record Filtro(String searchTerm, Integer etiqueta, Boolean ativo, String setor) {
+    }
+}
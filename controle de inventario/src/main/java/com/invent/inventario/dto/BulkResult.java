@@ -0,0 +1,12 @@
+package com.invent.inventario.dto;
+
+/**
+ * DTO com o resultado de uma operação em lote.
+ * @param matched Quantidade de itens encontrados pelos ids ou pelo filtro.
+ * @param affected Quantidade de itens removidos ou alterados (na alteração, itens que já tinham
+ *                 os valores pedidos não são regravados).
+ * @param batches Quantidade de lotes (transações) executados.
+ * @param elapsedMillis Tempo total da operação, em milissegundos.
+ */
+public record BulkResult(long matched, long affected, int batches, long elapsedMillis) {
+}
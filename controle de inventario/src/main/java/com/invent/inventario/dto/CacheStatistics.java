@@ -0,0 +1,23 @@
+package com.invent.inventario.dto;
+
+/**
+ * DTO com as estatísticas de um cache em memória, usado para dimensioná-lo.
+ * @param cache Nome do cache.
+ * @param enabled Se o cache está habilitado.
+ * @param size Quantidade (estimada) de entradas no cache.
+ * @param hits Quantidade de buscas atendidas pelo cache.
+ * @param misses Quantidade de buscas que precisaram ir ao banco.
+ * @param hitRate Proporção de acertos (0 a 1).
+ * @param evictions Quantidade de entradas removidas por limite de tamanho ou expiração.
+ */
+public record CacheStatistics(String cache, boolean enabled, long size, long hits, long misses,
+                              double hitRate, long evictions) {
+
+    /**
+     * @param cache Nome do cache.
+     * @return As estatísticas de um cache desabilitado.
+     */
+    public static CacheStatistics disabled(String cache) {
+        return new CacheStatistics(cache, false, 0, 0, 0, 0, 0);
+    }
+}
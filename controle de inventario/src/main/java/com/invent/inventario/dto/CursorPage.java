@@ -0,0 +1,54 @@
+package com.invent.inventario.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.invent.inventario.exception.BadRequestException;
+
+/**
+ * DTO que representa uma página de resultados paginada por cursor (keyset pagination).
+ * O cursor é opaco para o cliente: basta reenviá-lo no parâmetro 'cursor' para obter a próxima página.
+ * Quando 'nextCursor' é null, não há mais resultados.
+ * @param items Os itens da página atual, ordenados por id.
+ * @param nextCursor Token opaco para a próxima página (null na última página).
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    private static final String PREFIX = "id:"; // Prefixo interno do token, permite evoluir o formato no futuro.
+
+    /**
+     * Codifica o último id retornado em um token opaco (Base64 URL-safe, sem padding).
+     * @param lastId O id do último item da página.
+     * @return O token do cursor.
+     */
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodifica um token de cursor recebido do cliente.
+     * @param cursor O token recebido (pode ser null ou vazio para a primeira página).
+     * @return O último id já entregue ao cliente, ou 0 para a primeira página.
+     * @throws BadRequestException Se o token não for um cursor válido.
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Cursor de paginação inválido: " + cursor);
+            }
+            long lastId = Long.parseLong(decoded.substring(PREFIX.length()));
+            if (lastId < 0) {
+                throw new BadRequestException("Cursor de paginação inválido: " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) { // Inclui NumberFormatException e Base64 malformado
+            throw new BadRequestException("Cursor de paginação inválido: " + cursor, e);
+        }
+    }
+}
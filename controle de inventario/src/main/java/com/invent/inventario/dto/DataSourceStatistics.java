@@ -0,0 +1,19 @@
+package com.invent.inventario.dto;
+
+/**
+ * DTO com o uso do limite de conexões simultâneas com o banco.
+ * @param limitEnabled Se o limite está habilitado.
+ * @param maxConcurrent Quantidade máxima de conexões em uso ao mesmo tempo (tamanho do pool).
+ * @param inUse Quantidade de conexões em uso no momento.
+ * @param waiting Quantidade (estimada) de threads aguardando uma conexão.
+ * @param timeouts Quantidade de esperas que excederam o tempo limite.
+ */
+public record DataSourceStatistics(boolean limitEnabled, int maxConcurrent, int inUse, int waiting, long timeouts) {
+
+    /**
+     * @return As estatísticas de um limite desabilitado.
+     */
+    public static DataSourceStatistics disabled() {
+        return new DataSourceStatistics(false, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.invent.inventario.dto;
+
+/**
+ * DTO com o estado de uma gravação assíncrona (PUT com Prefer: respond-async).
+ * @param sequencia Número da gravação, atribuído ao aceitá-la (crescente).
+ * @param id O id do item (null na consulta de uma gravação já confirmada).
+ * @param estado PENDENTE (em memória, ainda não gravada), GRAVADA (confirmada no banco, ou substituída por uma
+ *               gravação posterior do mesmo item que foi confirmada) ou FALHOU.
+ * @param mensagem O motivo da falha (null nos demais estados).
+ */
+public record EstadoGravacao(long sequencia, Long id, Estado estado, String mensagem) {
+
+    /**
+     * Estado de uma gravação assíncrona.
+     */
+    public enum Estado {
+        PENDENTE, GRAVADA, FALHOU
+    }
+}
@@ -0,0 +1,13 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+/**
+ * DTO de uma página da busca com as facetas (GET /itens/search?facets=true).
+ * @param items Os itens da página atual, ordenados por id (como em {@link CursorPage}).
+ * @param nextCursor Token opaco para a próxima página (null na última página).
+ * @param facets As contagens por setor e por status da busca inteira, ou null se os índices em memória não puderem
+ *               respondê-las (em construção, ou termo com menos de 3 caracteres).
+ */
+public record FacetedPage<T>(List<T> items, String nextCursor, SearchFacets facets) {
+}
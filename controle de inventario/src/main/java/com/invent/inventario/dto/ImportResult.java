@@ -0,0 +1,25 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de uma importação em lote.
+ * @param totalRows Quantidade de linhas lidas do arquivo enviado.
+ * @param inserted Quantidade de itens inseridos no banco.
+ * @param failed Quantidade de linhas rejeitadas (validação ou erro no banco).
+ * @param errors Detalhes das linhas rejeitadas (limitado pela configuração 'inventario.import.max-errors').
+ * @param errorsTruncated true se existirem mais erros do que os listados em 'errors'.
+ * @param elapsedMillis Tempo total da importação, em milissegundos.
+ * @param rowsPerSecond Vazão da importação (linhas lidas por segundo).
+ */
+public record ImportResult(long totalRows, long inserted, long failed, List<RowError> errors,
+                           boolean errorsTruncated, long elapsedMillis, double rowsPerSecond) {
+
+    /**
+     * Erro de uma linha específica da importação.
+     * @param row Número da linha (1 = primeiro item do array JSON ou primeira linha de dados do CSV).
+     * @param message Descrição do problema encontrado.
+     */
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * DTO com o resultado da consulta de várias etiquetas (POST /api/inventario/itens/etiquetas).
+ * @param itens Os itens encontrados, na ordem das etiquetas pedidas.
+ * @param naoEncontradas As etiquetas que não pertencem a nenhum item.
+ */
+public record ItensPorEtiqueta(List<Inventario> itens, List<Integer> naoEncontradas) {
+}
@@ -0,0 +1,19 @@
+package com.invent.inventario.dto;
+
+/**
+ * DTO com o estado do limite de concorrência de uma classe de endpoint.
+ * @param endpointClass A classe de endpoint (ex: "search", "write").
+ * @param enabled Se as requisições acima do limite são recusadas ('inventario.limiter.enabled').
+ * @param limit O limite atual de requisições simultâneas.
+ * @param minLimit O menor limite possível.
+ * @param maxLimit O maior limite possível.
+ * @param inflight As requisições em andamento.
+ * @param accepted As requisições aceitas desde o início.
+ * @param rejected As requisições recusadas (503) desde o início.
+ * @param shortRttMillis A latência recente, em milissegundos.
+ * @param longRttMillis A latência de longo prazo (linha de base), em milissegundos.
+ */
+public record LimiterStatistics(String endpointClass, boolean enabled, int limit, int minLimit, int maxLimit,
+                                int inflight, long accepted, long rejected, double shortRttMillis,
+                                double longRttMillis) {
+}
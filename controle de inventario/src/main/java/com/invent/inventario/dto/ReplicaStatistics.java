@@ -0,0 +1,29 @@
+package com.invent.inventario.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO com o estado da réplica de leitura.
+ * @param enabled Se as leituras podem ir para a réplica ('inventario.datasource.replica.enabled').
+ * @param available Se a última verificação conseguiu ler a revisão da réplica.
+ * @param primaryRevision Revisão do inventário no primário na última verificação.
+ * @param replicaRevision Revisão do inventário na réplica na última verificação.
+ * @param lagRevisions Alterações confirmadas no primário e ainda não aplicadas na réplica.
+ * @param lagMillis Atraso estimado da réplica, em milissegundos (inclui o tempo desde a última verificação).
+ * @param maxLagMillis Atraso acima do qual as leituras voltam para o primário.
+ * @param checkedAt Quando foi feita a última verificação.
+ * @param lastError A última falha ao consultar a réplica (null se não houve).
+ * @param reads Leituras por destino e motivo (ex: "replica", "primary-lag", "primary-sticky").
+ */
+public record ReplicaStatistics(boolean enabled, boolean available, long primaryRevision, long replicaRevision,
+                                long lagRevisions, long lagMillis, long maxLagMillis, Instant checkedAt, String lastError,
+                                Map<String, Long> reads) {
+
+    /**
+     * @return As estatísticas com a réplica desabilitada.
+     */
+    public static ReplicaStatistics disabled() {
+        return new ReplicaStatistics(false, false, 0, 0, 0, 0, 0, null, null, Map.of());
+    }
+}
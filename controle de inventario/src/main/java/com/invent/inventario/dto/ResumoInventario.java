@@ -0,0 +1,23 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resumo do inventário: quantidade de itens ativos e inativos por setor.
+ * @param setores As contagens de cada setor, em ordem alfabética.
+ * @param ativos Total de itens ativos.
+ * @param inativos Total de itens inativos.
+ * @param total Total de itens.
+ */
+public record ResumoInventario(List<Setor> setores, long ativos, long inativos, long total) {
+
+    /**
+     * Contagem de itens de um setor.
+     * @param setor Nome do setor.
+     * @param ativos Itens ativos no setor.
+     * @param inativos Itens inativos no setor.
+     * @param total Total de itens no setor.
+     */
+    public record Setor(String setor, long ativos, long inativos, long total) {
+    }
+}
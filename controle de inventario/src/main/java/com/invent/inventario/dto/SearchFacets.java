@@ -0,0 +1,15 @@
+package com.invent.inventario.dto;
+
+import java.util.Map;
+
+/**
+ * DTO com as facetas da busca: quantos itens a busca atual encontraria em cada setor e em cada status.
+ * Cada faceta desconsidera o próprio filtro (a contagem por setor usa o termo e o status, mas não o setor),
+ * para que os filtros mostrem quantos itens cada opção traria.
+ * @param setor Quantidade de itens por setor, com o nome como gravado nos itens (em ordem alfabética).
+ * @param ativo Quantidade de itens ativos ("true") e inativos ("false").
+ * @param exact false quando há termo de busca: as contagens usam os candidatos do índice de trigramas, que podem
+ *              incluir alguns itens a mais (nunca a menos) do que o LIKE do banco.
+ */
+public record SearchFacets(Map<String, Long> setor, Map<String, Long> ativo, boolean exact) {
+}
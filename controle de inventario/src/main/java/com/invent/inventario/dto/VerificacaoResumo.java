@@ -0,0 +1,22 @@
+package com.invent.inventario.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado da verificação dos contadores em memória do resumo contra o banco de dados.
+ * @param consistente true se todas as contagens em memória coincidem com o banco.
+ * @param divergencias Os pares setor × ativo cujas contagens diferem.
+ * @param corrigido true se os contadores foram recarregados a partir do banco.
+ */
+public record VerificacaoResumo(boolean consistente, List<Divergencia> divergencias, boolean corrigido) {
+
+    /**
+     * Divergência entre a contagem em memória e a contagem no banco.
+     * @param setor Nome do setor.
+     * @param ativo Status ativo/inativo.
+     * @param memoria Contagem nos contadores em memória.
+     * @param banco Contagem no banco de dados.
+     */
+    public record Divergencia(String setor, boolean ativo, long memoria, long banco) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.invent.inventario.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO com o estado da fila de gravações assíncronas.
+ * @param enabled Se o modo assíncrono está habilitado.
+ * @param pending Quantidade de itens com gravação pendente (várias gravações do mesmo item contam uma vez).
+ * @param capacity Quantidade máxima de itens pendentes; acima dela as gravações recebem 503.
+ * @param lastSequence Sequência da última gravação aceita.
+ * @param confirmedSequence Todas as gravações até esta sequência já foram gravadas ou falharam.
+ * @param oldestPendingMillis Há quanto tempo a gravação pendente mais antiga espera (atraso atual).
+ * @param accepted Gravações aceitas.
+ * @param merged Gravações que substituíram outra ainda pendente do mesmo item.
+ * @param rejected Gravações recusadas com a fila cheia.
+ * @param written Itens gravados.
+ * @param failed Itens cuja gravação falhou.
+ * @param batches Lotes (transações) gravados.
+ * @param recentFailures As falhas mais recentes.
+ */
+public record WriteBehindStatistics(boolean enabled, int pending, int capacity, long lastSequence, long confirmedSequence,
+                                    long oldestPendingMillis, long accepted, long merged, long rejected, long written,
+                                    long failed, long batches, List<Failure> recentFailures) {
+
+    /**
+     * Falha de gravação de um item.
+     * @param firstSequence Primeira gravação do item incluída (as seguintes, até lastSequence, foram mescladas).
+     * @param lastSequence Última gravação do item incluída.
+     * @param id O id do item.
+     * @param message O motivo da falha.
+     * @param when Quando a falha ocorreu.
+     */
+    public record Failure(long firstSequence, long lastSequence, Long id, String message, Instant when) {
+    }
+}
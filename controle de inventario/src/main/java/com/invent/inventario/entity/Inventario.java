@@ -1,11 +1,21 @@
 package com.invent.inventario.entity;
 
+import java.time.Instant;
+import java.util.Locale;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull; // Importação para validação de boolean
 import jakarta.validation.constraints.Size;
@@ -13,9 +23,15 @@ import jakarta.validation.constraints.Size;
 /**
  * Entidade que representa um item de inventário no banco de dados.
  * Mapeia a classe para uma tabela no banco de dados.
+ * O schema é criado pelas migrações do Flyway (src/main/resource/db/migration); os índices declarados
+ * aqui espelham os das migrações.
  */
 @Entity
-@Table(name = "inventario")
+@Table(name = "inventario", indexes = {
+        @Index(name = "uq_inventario_etiqueta", columnList = "etiqueta", unique = true),
+        @Index(name = "idx_inventario_ativo", columnList = "ativo"),
+        @Index(name = "idx_inventario_setor_ativo", columnList = "setor_normalizado, ativo")
+})
 public class Inventario {
 
     @Id
@@ -45,6 +61,23 @@ public class Inventario {
     @Column(nullable = false, length = 100)
     private String setor; // Novo campo: setor onde o item está localizado
 
+    // Setor em minúsculas, preenchido junto com 'setor'. O filtro por setor da busca compara esta coluna,
+    // que é indexada, em vez de LOWER(setor), que impede o uso do índice.
+    @JsonIgnore
+    @Column(nullable = false, length = 100)
+    private String setorNormalizado;
+
+    // Versão do item, incrementada pelo Hibernate a cada atualização (controle de concorrência otimista).
+    // O valor padrão 0 preenche as linhas existentes quando a coluna é criada.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
+    // Data/hora da última gravação do item (preenchida pelo Hibernate na criação e em cada atualização).
+    @UpdateTimestamp
+    private Instant atualizadoEm;
+
     // Construtor padrão (necessário para JPA)
     public Inventario() {
     }
@@ -58,7 +91,14 @@ public class Inventario {
         this.usuario = usuario;
         this.observacoes = observacoes;
         this.ativo = ativo; // Agora aceita Boolean
-        this.setor = setor;
+        setSetor(setor);
+    }
+
+    // Construtor de cópia (usado para guardar o estado de um item antes/depois de uma alteração)
+    public Inventario(Inventario other) {
+        this(other.id, other.nome, other.etiqueta, other.numeroSerie, other.usuario, other.observacoes, other.ativo, other.setor);
+        this.versao = other.versao;
+        this.atualizadoEm = other.atualizadoEm;
     }
 
     // Métodos Getters e Setters para todos os campos
@@ -124,5 +164,32 @@ public class Inventario {
 
     public void setSetor(String setor) {
         this.setor = setor;
+        this.setorNormalizado = normalizarSetor(setor);
+    }
+
+    /**
+     * Forma do setor gravada na coluna 'setor_normalizado' e usada nos filtros por setor. A coluna tem collation
+     * binária, então o banco compara e agrupa por este valor exato (acentos incluídos).
+     * @param setor O setor informado.
+     * @return O setor em minúsculas (null se o setor for null).
+     */
+    public static String normalizarSetor(String setor) {
+        return setor != null ? setor.toLowerCase(Locale.ROOT) : null;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
     }
 }
@@ -0,0 +1,67 @@
+package com.invent.inventario.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Registro do log de alterações usado pela sincronização incremental (GET /api/inventario/itens/changes).
+ * Guarda apenas a última alteração de cada item: uma nova alteração substitui a anterior. Itens removidos
+ * permanecem como marcadores de remoção (tombstones), para que os clientes também apaguem a sua cópia,
+ * até o fim do período de retenção (ver AlteracaoLog.purge).
+ *
+ * A chave 'seq' é a revisão global em que a alteração foi confirmada (ver AlteracaoLog), atribuída
+ * em ordem de commit.
+ */
+@Entity
+@Table(name = "inventario_alteracao", indexes = {
+        @Index(name = "idx_inventario_alteracao_item", columnList = "item_id"),
+        @Index(name = "idx_inventario_alteracao_tipo_data", columnList = "tipo, alterado_em")})
+public class InventarioAlteracao {
+
+    /**
+     * Tipo da última alteração do item.
+     */
+    public enum Tipo {
+        ALTERADO, REMOVIDO
+    }
+
+    @Id
+    private Long seq;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Tipo tipo;
+
+    @Column(nullable = false)
+    private Instant alteradoEm;
+
+    // Construtor padrão (necessário para JPA)
+    public InventarioAlteracao() {
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Instant getAlteradoEm() {
+        return alteradoEm;
+    }
+}
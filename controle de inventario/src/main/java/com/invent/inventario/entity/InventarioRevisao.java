@@ -0,0 +1,42 @@
+package com.invent.inventario.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Contador da revisão global do inventário (uma única linha, id = 1).
+ * Incrementado na mesma transação de cada alteração; a linha fica bloqueada até o commit, então as
+ * revisões são atribuídas na ordem em que as transações são confirmadas.
+ * O horizonte é a maior revisão cujos marcadores de remoção já foram apagados do log (ver AlteracaoLog.purge).
+ */
+@Entity
+@Table(name = "inventario_revisao")
+public class InventarioRevisao {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long valor;
+
+    @Column(nullable = false)
+    private Long horizonte;
+
+    // Construtor padrão (necessário para JPA)
+    public InventarioRevisao() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Long getValor() {
+        return valor;
+    }
+
+    public Long getHorizonte() {
+        return horizonte;
+    }
+}
@@ -0,0 +1,54 @@
+package com.invent.inventario.event;
+
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Evento publicado pelo InventarioService sempre que um item é criado, atualizado ou removido.
+ * Estruturas em memória (índices, caches, contadores) escutam este evento com
+ * {@code @TransactionalEventListener}, então só o recebem depois do commit da transação.
+ * A exceção é o AlteracaoLog, que o recebe dentro da transação para gravar o log de alterações junto com ela.
+ * Os dois estados são cópias desanexadas: podem ser lidas com segurança fora da transação.
+ * @param antes Estado do item antes da alteração (null quando o item foi criado).
+ * @param depois Estado do item depois da alteração (null quando o item foi removido).
+ */
+public record InventarioAlteradoEvent(Inventario antes, Inventario depois) {
+
+    /**
+     * Cria o evento de um item recém-criado.
+     * @param depois O item criado.
+     * @return O evento correspondente.
+     */
+    public static InventarioAlteradoEvent criado(Inventario depois) {
+        return new InventarioAlteradoEvent(null, depois);
+    }
+
+    /**
+     * Cria o evento de um item removido.
+     * @param antes O item no estado em que foi removido.
+     * @return O evento correspondente.
+     */
+    public static InventarioAlteradoEvent removido(Inventario antes) {
+        return new InventarioAlteradoEvent(antes, null);
+    }
+
+    /**
+     * @return O id do item alterado.
+     */
+    public Long id() {
+        return depois != null ? depois.getId() : antes.getId();
+    }
+
+    /**
+     * @return true se o evento representa a criação de um item.
+     */
+    public boolean criacao() {
+        return antes == null;
+    }
+
+    /**
+     * @return true se o evento representa a remoção de um item.
+     */
+    public boolean remocao() {
+        return depois == null;
+    }
+}
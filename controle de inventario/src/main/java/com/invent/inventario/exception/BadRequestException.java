@@ -0,0 +1,30 @@
+package com.invent.inventario.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção personalizada para indicar que a requisição contém parâmetros inválidos
+ * (ex: um cursor de paginação corrompido ou um tamanho de página fora do limite).
+ * Quando esta exceção é lançada, o Spring retorna um status HTTP 400 Bad Request.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST) // Mapeia esta exceção para um status HTTP 400 (Bad Request).
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Construtor que aceita uma mensagem de erro.
+     * @param message A mensagem detalhada da exceção.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Construtor que aceita uma mensagem de erro e uma causa (outra Throwable).
+     * @param message A mensagem detalhada da exceção.
+     * @param cause A causa raiz da exceção.
+     */
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,30 @@
+package com.invent.inventario.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção personalizada para indicar que a alteração conflita com o estado atual do recurso
+ * (ex: o item foi alterado por outra pessoa depois que o cliente o leu).
+ * Quando esta exceção é lançada, o Spring retorna um status HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT) // Mapeia esta exceção para um status HTTP 409 (Conflict).
+public class ConflictException extends RuntimeException {
+
+    /**
+     * Construtor que aceita uma mensagem de erro.
+     * @param message A mensagem detalhada da exceção.
+     */
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    /**
+     * Construtor que aceita uma mensagem de erro e uma causa (outra Throwable).
+     * @param message A mensagem detalhada da exceção.
+     * @param cause A causa raiz da exceção.
+     */
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
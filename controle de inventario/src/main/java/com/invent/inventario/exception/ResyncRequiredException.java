@@ -0,0 +1,26 @@
+package com.invent.inventario.exception;
+
+/**
+ * Exceção personalizada para indicar que a sincronização incremental não pode continuar a partir da revisão
+ * informada: os marcadores de remoção posteriores a ela já foram apagados do log (retenção), ou ela é posterior
+ * à revisão atual (o banco foi restaurado ou recriado depois que o cliente a recebeu).
+ * O cliente precisa recarregar a lista completa e recomeçar a partir da revisão atual.
+ * O GlobalExceptionHandler a converte em 410 Gone.
+ */
+public class ResyncRequiredException extends RuntimeException {
+
+    private final long horizonte;
+
+    /**
+     * @param message A mensagem detalhada da exceção.
+     * @param horizonte A menor revisão a partir da qual as alterações ainda estão completas no log.
+     */
+    public ResyncRequiredException(String message, long horizonte) {
+        super(message);
+        this.horizonte = horizonte;
+    }
+
+    public long getHorizonte() {
+        return horizonte;
+    }
+}
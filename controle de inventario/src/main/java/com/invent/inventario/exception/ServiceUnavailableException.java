@@ -0,0 +1,32 @@
+package com.invent.inventario.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção personalizada para indicar que a API está temporariamente sem capacidade para atender a requisição
+ * (ex: a fila de gravações assíncronas está cheia). O cliente pode repetir a requisição depois de alguns segundos.
+ * Quando esta exceção é lançada, o Spring retorna um status HTTP 503 Service Unavailable com o cabeçalho Retry-After.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // Mapeia esta exceção para um status HTTP 503 (Service Unavailable).
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Construtor que aceita uma mensagem de erro e o tempo sugerido para uma nova tentativa.
+     * @param message A mensagem detalhada da exceção.
+     * @param retryAfterSeconds Segundos até uma nova tentativa (cabeçalho Retry-After).
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return Segundos até uma nova tentativa.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,224 @@
+package com.invent.inventario.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.repository.InventarioRepository;
+
+/**
+ * Índice em memória etiqueta → id de todos os itens, usado pela consulta por etiqueta (leitura de código de
+ * barras nas auditorias). Guarda as chaves e os ids em arrays primitivos ({@link IntLongHashMap}), cerca de
+ * 24 bytes por item, sem um objeto Integer/Long por entrada.
+ *
+ * É construído em segundo plano na inicialização e mantido pelos eventos de alteração após o commit. Os
+ * eventos confirmados durante a construção são guardados e reaplicados ao final, na ordem, sobre a leitura do
+ * banco: um item removido ou com a etiqueta alterada depois de lido não deixa a etiqueta antiga no índice. Como
+ * tem todas as etiquetas, uma etiqueta ausente no índice pronto não existe no banco, sem consultá-lo.
+ * Alterações feitas diretamente no banco (ou por outra instância da API) só aparecem após reiniciar, como no
+ * índice de trigramas.
+ */
+@Component
+public class EtiquetaIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EtiquetaIndex.class);
+
+    private static final int BUILD_CHUNK = 1000; // Linhas aplicadas por aquisição do lock durante a construção
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventario.etiqueta.index.enabled:true}")
+    private volatile boolean enabled;
+
+    // Mesmo fetch size da exportação: a construção também lê a tabela inteira em streaming.
+    @Value("${inventario.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private final IntLongHashMap ids = new IntLongHashMap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<InventarioAlteradoEvent> pendentes; // Eventos recebidos durante a construção (null fora dela)
+    private volatile boolean ready;
+
+    /**
+     * Dispara a construção do índice em uma thread separada, sem atrasar a inicialização da API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            logger.info("Índice de etiquetas desabilitado (inventario.etiqueta.index.enabled=false).");
+            return;
+        }
+        Thread.ofPlatform().name("etiqueta-index-build").daemon().start(this::build);
+    }
+
+    /**
+     * @return true se o índice já foi construído e pode responder às consultas.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Busca o id do item com a etiqueta informada.
+     * @param etiqueta O número da etiqueta.
+     * @return O id do item, ou 0 se nenhum item tiver a etiqueta.
+     */
+    public long idOf(int etiqueta) {
+        lock.readLock().lock();
+        try {
+            return ids.get(etiqueta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os ids de várias etiquetas com uma única aquisição do lock.
+     * @param etiquetas Os números das etiquetas.
+     * @return O id de cada etiqueta, na mesma posição (0 para as etiquetas inexistentes).
+     */
+    public long[] idsOf(int[] etiquetas) {
+        long[] result = new long[etiquetas.length];
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < etiquetas.length; i++) {
+                result[i] = ids.get(etiquetas[i]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Atualiza o índice após o commit de uma criação, atualização ou remoção (durante a construção, guarda o
+     * evento para reaplicá-lo ao final).
+     * @param event O evento de alteração publicado pelo InventarioService, importação ou operação em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        if (!enabled || event.id() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendentes != null) {
+                pendentes.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>(); // Antes da leitura: nenhum commit posterior a ela fica de fora
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long[] counts = {0, 0}; // linhas lidas, etiquetas repetidas
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> stream = inventarioRepository.streamEtiquetas(fetchSize)) {
+                    int[] chunkEtiquetas = new int[BUILD_CHUNK];
+                    long[] chunkIds = new long[BUILD_CHUNK];
+                    int chunkSize = 0;
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        chunkEtiquetas[chunkSize] = (Integer) row[0];
+                        chunkIds[chunkSize] = (Long) row[1];
+                        if (++chunkSize == BUILD_CHUNK) {
+                            counts[1] += apply(chunkEtiquetas, chunkIds, chunkSize);
+                            chunkSize = 0;
+                        }
+                        counts[0]++;
+                    }
+                    counts[1] += apply(chunkEtiquetas, chunkIds, chunkSize);
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                for (InventarioAlteradoEvent event : pendentes) {
+                    apply(event); // Eventos já refletidos na leitura não mudam o resultado
+                }
+                pendentes = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Índice de etiquetas construído: {} etiquetas em {} ms (~{} KB).",
+                    ids.size(), (System.nanoTime() - start) / 1_000_000, ids.memoryBytes() / 1024);
+            if (counts[1] > 0) {
+                // Só acontece em bancos anteriores à restrição de unicidade (migração V4)
+                logger.warn("{} itens com etiqueta repetida; o índice aponta para o primeiro item de cada etiqueta.", counts[1]);
+            }
+        } catch (RuntimeException e) {
+            enabled = false;
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Falha ao construir o índice de etiquetas; a consulta por etiqueta usará o banco: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aplica um bloco de linhas lidas do banco. Não substitui entradas existentes: com etiquetas repetidas,
+     * o índice fica com o primeiro item lido.
+     * @return Quantidade de etiquetas que já apontavam para outro item.
+     */
+    private int apply(int[] etiquetas, long[] itemIds, int count) {
+        int repetidas = 0;
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                long atual = ids.putIfAbsent(etiquetas[i], itemIds[i]);
+                if (atual != 0 && atual != itemIds[i]) {
+                    repetidas++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return repetidas;
+    }
+
+    /**
+     * Aplica um evento de alteração. A etiqueta anterior só é removida se ainda apontar para o mesmo item
+     * (outro item pode tê-la assumido). Chamado com o lock de escrita.
+     */
+    private void apply(InventarioAlteradoEvent event) {
+        Integer antes = event.antes() != null ? event.antes().getEtiqueta() : null;
+        Integer depois = event.depois() != null ? event.depois().getEtiqueta() : null;
+        if (antes != null && !antes.equals(depois)) {
+            ids.remove(antes, event.id());
+        }
+        if (depois != null) {
+            ids.put(depois, event.id());
+        }
+    }
+}
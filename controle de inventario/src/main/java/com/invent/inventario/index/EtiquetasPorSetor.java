@@ -0,0 +1,245 @@
+package com.invent.inventario.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.repository.InventarioRepository;
+
+/**
+ * Bitmaps compactados (Roaring) com as etiquetas dos itens de cada par setor × ativo, usados na conciliação
+ * das auditorias físicas. Como a etiqueta é única, cada etiqueta está em exatamente um bitmap; as diferenças
+ * entre as etiquetas lidas e as esperadas são operações entre bitmaps, sem carregar entidades.
+ *
+ * São construídos em segundo plano na inicialização e mantidos pelos eventos de alteração após o commit.
+ * Os eventos confirmados durante a construção são guardados e reaplicados ao final, na ordem, sobre a
+ * leitura do banco. Enquanto não estiverem prontos, {@link #reconcile} lê os bitmaps do banco a cada chamada.
+ * Alterações feitas diretamente no banco (ou por outra instância da API) só aparecem após reiniciar.
+ */
+@Component
+public class EtiquetasPorSetor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EtiquetasPorSetor.class);
+
+    /**
+     * Chave dos bitmaps: o setor normalizado (minúsculas) e o status.
+     */
+    record Chave(String setor, boolean ativo) {
+    }
+
+    /**
+     * Bitmaps por chave e o nome de cada setor como gravado no item (para a resposta).
+     */
+    record Bitmaps(Map<Chave, RoaringBitmap> porChave, Map<String, String> nomes) {
+
+        Bitmaps() {
+            this(new HashMap<>(), new HashMap<>());
+        }
+
+        void add(String setor, Boolean ativo, int etiqueta) {
+            String normalizado = Inventario.normalizarSetor(setor);
+            porChave.computeIfAbsent(new Chave(normalizado, Boolean.TRUE.equals(ativo)), c -> new RoaringBitmap()).add(etiqueta);
+            nomes.put(normalizado, setor);
+        }
+
+        void remove(String setor, Boolean ativo, int etiqueta) {
+            Chave chave = new Chave(Inventario.normalizarSetor(setor), Boolean.TRUE.equals(ativo));
+            RoaringBitmap bitmap = porChave.get(chave);
+            if (bitmap != null) {
+                bitmap.remove(etiqueta);
+                if (bitmap.isEmpty()) {
+                    porChave.remove(chave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resultado da conciliação. Os bitmaps são cópias, que podem ser percorridas fora do lock.
+     * @param setor O setor auditado, como gravado nos itens.
+     * @param esperadas Quantidade de etiquetas esperadas no setor com o status auditado.
+     * @param encontradas Etiquetas lidas e esperadas.
+     * @param faltando Etiquetas esperadas e não lidas.
+     * @param foraDoLugar Etiquetas lidas que pertencem a outro setor, ou ao mesmo setor com o outro status.
+     * @param desconhecidas Etiquetas lidas que não pertencem a nenhum item.
+     */
+    public record Reconciliacao(String setor, long esperadas, RoaringBitmap encontradas, RoaringBitmap faltando,
+                                List<Grupo> foraDoLugar, RoaringBitmap desconhecidas) {
+    }
+
+    /**
+     * Etiquetas lidas que pertencem a um par setor × ativo diferente do auditado.
+     * @param setor O setor dos itens, como gravado.
+     * @param ativo O status dos itens.
+     * @param etiquetas As etiquetas.
+     */
+    public record Grupo(String setor, boolean ativo, RoaringBitmap etiquetas) {
+    }
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Mesmo fetch size da exportação: a construção também lê a tabela inteira em streaming.
+    @Value("${inventario.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private Bitmaps bitmaps = new Bitmaps();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<InventarioAlteradoEvent> pendentes; // Eventos recebidos durante a construção (null fora dela)
+    private volatile boolean ready;
+
+    /**
+     * Dispara a construção dos bitmaps em uma thread separada, sem atrasar a inicialização da API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofPlatform().name("etiquetas-setor-build").daemon().start(this::build);
+    }
+
+    /**
+     * Atualiza os bitmaps após o commit de uma criação, atualização ou remoção.
+     * @param event O evento de alteração publicado pelo InventarioService, importação ou operação em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendentes != null) {
+                pendentes.add(event);
+            } else {
+                apply(bitmaps, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Concilia as etiquetas lidas em uma auditoria com as esperadas para o setor e status informados.
+     * Cada etiqueta lida que não é esperada é procurada nos bitmaps dos demais pares setor × ativo, até
+     * que todas tenham sido encontradas; as que sobram não pertencem a nenhum item.
+     * @param setor O setor auditado (sem diferenciar maiúsculas).
+     * @param ativo O status dos itens esperados.
+     * @param lidas As etiquetas lidas (não é alterado).
+     * @return As etiquetas encontradas, faltando, fora do lugar e desconhecidas.
+     */
+    public Reconciliacao reconcile(String setor, boolean ativo, RoaringBitmap lidas) {
+        if (!ready) {
+            logger.info("Bitmaps de etiquetas ainda em construção; conciliação lida do banco.");
+            return reconcile(load(), setor, ativo, lidas);
+        }
+        lock.readLock().lock();
+        try {
+            return reconcile(bitmaps, setor, ativo, lidas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Reconciliacao reconcile(Bitmaps origem, String setor, boolean ativo, RoaringBitmap lidas) {
+        String normalizado = Inventario.normalizarSetor(setor);
+        RoaringBitmap esperadas = origem.porChave().getOrDefault(new Chave(normalizado, ativo), new RoaringBitmap());
+        RoaringBitmap encontradas = RoaringBitmap.and(lidas, esperadas);
+        RoaringBitmap faltando = RoaringBitmap.andNot(esperadas, lidas);
+        RoaringBitmap restantes = RoaringBitmap.andNot(lidas, esperadas);
+
+        List<Grupo> foraDoLugar = new ArrayList<>();
+        for (Map.Entry<Chave, RoaringBitmap> entry : origem.porChave().entrySet()) {
+            if (restantes.isEmpty()) {
+                break;
+            }
+            Chave chave = entry.getKey();
+            if (chave.setor().equals(normalizado) && chave.ativo() == ativo) {
+                continue;
+            }
+            RoaringBitmap grupo = RoaringBitmap.and(restantes, entry.getValue());
+            if (!grupo.isEmpty()) {
+                foraDoLugar.add(new Grupo(origem.nomes().get(chave.setor()), chave.ativo(), grupo));
+                restantes.andNot(grupo);
+            }
+        }
+        return new Reconciliacao(origem.nomes().getOrDefault(normalizado, setor), esperadas.getLongCardinality(),
+                encontradas, faltando, foraDoLugar, restantes);
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>(); // Antes da leitura: nenhum commit posterior a ela fica de fora
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Bitmaps lidos = load();
+            lock.writeLock().lock();
+            try {
+                for (InventarioAlteradoEvent event : pendentes) {
+                    apply(lidos, event); // Eventos já refletidos na leitura não mudam o resultado
+                }
+                bitmaps = lidos;
+                pendentes = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Bitmaps de etiquetas por setor construídos: {} pares setor × ativo em {} ms.",
+                    lidos.porChave().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Falha ao construir os bitmaps de etiquetas; a conciliação lerá o banco: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê as etiquetas de todos os itens em streaming e monta os bitmaps.
+     */
+    private Bitmaps load() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Bitmaps lidos = new Bitmaps();
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> stream = inventarioRepository.streamEtiquetasPorSetor(fetchSize)) {
+                stream.forEach(row -> lidos.add((String) row[1], (Boolean) row[2], (Integer) row[0]));
+            }
+        });
+        lidos.porChave().values().forEach(RoaringBitmap::runOptimize);
+        return lidos;
+    }
+
+    private static void apply(Bitmaps destino, InventarioAlteradoEvent event) {
+        Inventario antes = event.antes();
+        Inventario depois = event.depois();
+        if (antes != null && antes.getEtiqueta() != null) {
+            destino.remove(antes.getSetor(), antes.getAtivo(), antes.getEtiqueta());
+        }
+        if (depois != null && depois.getEtiqueta() != null) {
+            destino.add(depois.getSetor(), depois.getAtivo(), depois.getEtiqueta());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.invent.inventario.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.dto.SearchFacets;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.repository.InventarioRepository;
+
+/**
+ * Bitmaps compactados (Roaring) com os ids dos itens de cada setor e dos itens ativos, usados nas facetas da busca.
+ * As contagens por setor e por status são interseções entre esses bitmaps e os ids candidatos do termo de busca,
+ * sem consulta ao banco.
+ *
+ * São construídos em segundo plano na inicialização e mantidos pelos eventos de alteração após o commit, como os
+ * bitmaps de {@link EtiquetasPorSetor}. Enquanto não estiverem prontos, {@link #facets} retorna null.
+ * Alterações feitas diretamente no banco (ou por outra instância da API) só aparecem após reiniciar.
+ */
+@Component
+public class FacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetIndex.class);
+
+    /**
+     * Ids por setor normalizado, o nome de cada setor como gravado no item e os ids de todos os itens e dos ativos.
+     */
+    record Bitmaps(Map<String, RoaringBitmap> porSetor, Map<String, String> nomes, RoaringBitmap todos,
+                   RoaringBitmap ativos) {
+
+        Bitmaps() {
+            this(new HashMap<>(), new HashMap<>(), new RoaringBitmap(), new RoaringBitmap());
+        }
+
+        void add(int id, String setor, Boolean ativo) {
+            todos.add(id);
+            if (Boolean.TRUE.equals(ativo)) {
+                ativos.add(id);
+            }
+            if (setor != null) {
+                String normalizado = Inventario.normalizarSetor(setor);
+                porSetor.computeIfAbsent(normalizado, s -> new RoaringBitmap()).add(id);
+                nomes.put(normalizado, setor);
+            }
+        }
+
+        void remove(int id, String setor) {
+            todos.remove(id);
+            ativos.remove(id);
+            if (setor != null) {
+                String normalizado = Inventario.normalizarSetor(setor);
+                RoaringBitmap bitmap = porSetor.get(normalizado);
+                if (bitmap != null) {
+                    bitmap.remove(id);
+                    if (bitmap.isEmpty()) {
+                        porSetor.remove(normalizado);
+                        nomes.remove(normalizado);
+                    }
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventario.search.facets.enabled:true}")
+    private volatile boolean enabled;
+
+    // Mesmo fetch size da exportação: a construção também lê a tabela inteira em streaming.
+    @Value("${inventario.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    private Bitmaps bitmaps = new Bitmaps();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private List<InventarioAlteradoEvent> pendentes; // Eventos recebidos durante a construção (null fora dela)
+    private volatile boolean ready;
+
+    /**
+     * Dispara a construção dos bitmaps em uma thread separada, sem atrasar a inicialização da API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            logger.info("Facetas da busca desabilitadas (inventario.search.facets.enabled=false).");
+            return;
+        }
+        Thread.ofPlatform().name("facet-index-build").daemon().start(this::build);
+    }
+
+    /**
+     * @return true se os bitmaps já foram construídos e podem responder às facetas.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Atualiza os bitmaps após o commit de uma criação, atualização ou remoção.
+     * @param event O evento de alteração publicado pelo InventarioService, importação ou operação em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendentes != null) {
+                pendentes.add(event);
+            } else {
+                apply(bitmaps, event);
+            }
+        } catch (IllegalStateException e) {
+            enabled = false;
+            ready = false;
+            logger.error("{}; facetas da busca desabilitadas.", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Conta os itens por setor e por status entre os candidatos de uma busca. A contagem por setor aplica o
+     * filtro de status, mas não o de setor; a contagem por status aplica o filtro de setor, mas não o de status.
+     * @param candidatos Os ids que atendem ao termo de busca, em ordem crescente, ou null se não houver termo.
+     * @param setor O filtro de setor (opcional, sem diferenciar maiúsculas).
+     * @param ativo O filtro de status (opcional).
+     * @param exact Se os candidatos são exatos (repassado na resposta).
+     * @return As facetas, ou null se os bitmaps ainda não estiverem prontos.
+     */
+    public SearchFacets facets(int[] candidatos, String setor, Boolean ativo, boolean exact) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return facets(bitmaps, candidatos, setor, ativo, exact);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static SearchFacets facets(Bitmaps bitmaps, int[] candidatos, String setor, Boolean ativo, boolean exact) {
+        // Os candidatos vêm de outros índices e podem incluir itens que já saíram dos bitmaps (ex: removidos):
+        // sem a interseção com todos, eles seriam contados como inativos.
+        RoaringBitmap base = candidatos != null
+                ? RoaringBitmap.and(RoaringBitmap.bitmapOf(candidatos), bitmaps.todos())
+                : bitmaps.todos();
+
+        RoaringBitmap porStatus = base;
+        if (ativo != null) {
+            porStatus = ativo ? RoaringBitmap.and(base, bitmaps.ativos()) : RoaringBitmap.andNot(base, bitmaps.ativos());
+        }
+        Map<String, Long> setores = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, RoaringBitmap> entry : bitmaps.porSetor().entrySet()) {
+            setores.merge(bitmaps.nomes().get(entry.getKey()),
+                    (long) RoaringBitmap.andCardinality(porStatus, entry.getValue()), Long::sum);
+        }
+
+        RoaringBitmap porSetor = base;
+        if (setor != null && !setor.isBlank()) {
+            RoaringBitmap doSetor = bitmaps.porSetor().get(Inventario.normalizarSetor(setor));
+            porSetor = doSetor != null ? RoaringBitmap.and(base, doSetor) : new RoaringBitmap();
+        }
+        long ativos = RoaringBitmap.andCardinality(porSetor, bitmaps.ativos());
+        Map<String, Long> status = new LinkedHashMap<>();
+        status.put("true", ativos);
+        status.put("false", porSetor.getLongCardinality() - ativos);
+
+        return new SearchFacets(new LinkedHashMap<>(setores), status, exact);
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>(); // Antes da leitura: nenhum commit posterior a ela fica de fora
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Bitmaps lidos = load();
+            lock.writeLock().lock();
+            try {
+                for (InventarioAlteradoEvent event : pendentes) {
+                    apply(lidos, event); // Eventos já refletidos na leitura não mudam o resultado
+                }
+                bitmaps = lidos;
+                pendentes = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Bitmaps das facetas da busca construídos: {} itens, {} setores em {} ms.",
+                    lidos.todos().getLongCardinality(), lidos.porSetor().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendentes = null;
+                enabled = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Falha ao construir os bitmaps das facetas; a busca responderá sem facetas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê o setor e o status de todos os itens em streaming e monta os bitmaps.
+     */
+    private Bitmaps load() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Bitmaps lidos = new Bitmaps();
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<Object[]> stream = inventarioRepository.streamFacetas(fetchSize)) {
+                stream.forEach(row -> lidos.add(toIndexId((Long) row[0]), (String) row[1], (Boolean) row[2]));
+            }
+        });
+        lidos.porSetor().values().forEach(RoaringBitmap::runOptimize);
+        lidos.todos().runOptimize();
+        lidos.ativos().runOptimize();
+        return lidos;
+    }
+
+    private static void apply(Bitmaps destino, InventarioAlteradoEvent event) {
+        Inventario antes = event.antes();
+        Inventario depois = event.depois();
+        if (antes != null) {
+            destino.remove(toIndexId(antes.getId()), antes.getSetor());
+        }
+        if (depois != null) {
+            destino.add(toIndexId(depois.getId()), depois.getSetor(), depois.getAtivo());
+        }
+    }
+
+    /**
+     * Os ids são guardados como int, como no índice de trigramas; um id maior interrompe a construção.
+     */
+    private static int toIndexId(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Id fora do intervalo suportado pelas facetas: " + id);
+        }
+        return id.intValue();
+    }
+}
@@ -0,0 +1,155 @@
+package com.invent.inventario.index;
+
+/**
+ * Mapa int → long com endereçamento aberto (sondagem linear), guardado em dois arrays primitivos, sem boxing
+ * e sem um objeto por entrada. O valor 0 indica ausência, então não pode ser usado como valor (os ids do
+ * inventário começam em 1). Remoções reposicionam as entradas seguintes do grupo (backward shift), sem
+ * marcadores de remoção. Não é thread-safe: o índice dono do mapa controla a sincronização.
+ */
+final class IntLongHashMap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    IntLongHashMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param key A chave.
+     * @return O valor associado à chave, ou 0 se a chave não existir.
+     */
+    long get(int key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == 0) {
+                return 0;
+            }
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    /**
+     * Associa o valor à chave, substituindo o valor anterior.
+     * @param key A chave.
+     * @param value O valor (diferente de 0).
+     * @return O valor anterior, ou 0 se a chave não existia.
+     */
+    long put(int key, long value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Associa o valor à chave apenas se ela ainda não existir.
+     * @return O valor atual, ou 0 se a chave não existia (e foi inserida).
+     */
+    long putIfAbsent(int key, long value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Remove a chave apenas se ela estiver associada ao valor informado.
+     * @return true se a chave foi removida.
+     */
+    boolean remove(int key, long value) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == 0) {
+                return false;
+            }
+            if (keys[slot] == key) {
+                if (values[slot] != value) {
+                    return false;
+                }
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Memória aproximada dos arrays, em bytes.
+     */
+    long memoryBytes() {
+        return (long) keys.length * (Integer.BYTES + Long.BYTES);
+    }
+
+    private long put(int key, long value, boolean replace) {
+        if (value == 0) {
+            throw new IllegalArgumentException("O valor 0 é reservado para indicar ausência.");
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            if (values[slot] == 0) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return 0;
+            }
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                if (replace) {
+                    values[slot] = value;
+                }
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * Fecha o buraco deixado por uma remoção: as entradas seguintes do grupo que não estão na sua posição
+     * ideal voltam para trás, para que as buscas continuem encontrando-as antes de um slot vazio.
+     */
+    private void shiftBack(int free) {
+        for (int slot = (free + 1) & mask; values[slot] != 0; slot = (slot + 1) & mask) {
+            int ideal = slot(keys[slot]);
+            // A entrada pode ocupar 'free' se a posição ideal dela não estiver entre 'free' (exclusive) e 'slot' (circular)
+            if (((slot - ideal) & mask) >= ((slot - free) & mask)) {
+                keys[free] = keys[slot];
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        values[free] = 0;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9; // Espalha chaves sequenciais (etiquetas costumam ser numeradas em ordem)
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+}
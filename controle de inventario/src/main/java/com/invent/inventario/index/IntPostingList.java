@@ -0,0 +1,104 @@
+package com.invent.inventario.index;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postings compacta: ids (int) ordenados e sem repetição, guardados em um int[] sem boxing.
+ * Os ids do inventário são gerados em ordem crescente, então a inserção comum é um append O(1);
+ * inserções fora de ordem e remoções usam busca binária. Não é thread-safe: o índice dono da lista
+ * controla a sincronização.
+ */
+final class IntPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adiciona um id à lista (ignorado se já existir).
+     * @param id O id a adicionar.
+     */
+    void add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    /**
+     * Remove um id da lista (ignorado se não existir).
+     * @param id O id a remover.
+     */
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Uma cópia dos ids, em ordem crescente.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Calcula a interseção de várias listas. Percorre a menor lista e procura cada id nas demais
+     * (busca binária), então o custo é proporcional ao tamanho da menor lista.
+     * @param lists As listas a intersectar (ao menos uma).
+     * @return Os ids presentes em todas as listas, em ordem crescente.
+     */
+    static int[] intersect(IntPostingList... lists) {
+        IntPostingList smallest = lists[0];
+        for (IntPostingList list : lists) {
+            if (list.size < smallest.size) {
+                smallest = list;
+            }
+        }
+        int[] result = new int[smallest.size];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            for (IntPostingList list : lists) {
+                if (list != smallest && !list.contains(id)) {
+                    continue candidates;
+                }
+            }
+            result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1); // Crescimento de 1,5x
+        }
+    }
+}
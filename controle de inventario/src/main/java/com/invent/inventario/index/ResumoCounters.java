@@ -0,0 +1,228 @@
+package com.invent.inventario.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.invent.inventario.dto.ResumoInventario;
+import com.invent.inventario.dto.VerificacaoResumo;
+import com.invent.inventario.dto.VerificacaoResumo.Divergencia;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.repository.ContagemSetorAtivo;
+import com.invent.inventario.repository.InventarioRepository;
+
+/**
+ * Contadores em memória de itens por setor × ativo, usados pelo endpoint de resumo.
+ * São carregados com um único GROUP BY na inicialização e mantidos pelos eventos de alteração do
+ * InventarioService (inclusive quando um item muda de setor ou troca o status 'ativo'), então o resumo
+ * é respondido sem consultar o banco.
+ *
+ * O setor é comparado sem diferenciar maiúsculas, como no filtro da busca e nas facetas: a chave é o setor
+ * normalizado ({@link Inventario#normalizarSetor(String)}), e cada chave é exibida com uma única grafia (a do
+ * banco na carga, ou a do primeiro item do setor criado depois dela). A coluna setor_normalizado tem collation
+ * binária, então o GROUP BY da carga e da verificação separa os setores exatamente como as chaves em memória
+ * (acentos incluídos: "jurídico" e "juridico" são setores diferentes).
+ *
+ * Uma alteração confirmada exatamente durante a recarga pode ser contada duas vezes; por isso existe
+ * {@link #verify(boolean)}, que compara os contadores com o banco e pode recarregá-los.
+ */
+@Component
+public class ResumoCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoCounters.class);
+
+    /**
+     * Chave dos contadores: um par setor normalizado × ativo.
+     */
+    private record Chave(String setor, boolean ativo) {
+    }
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private final ConcurrentHashMap<Chave, LongAdder> counters = new ConcurrentHashMap<>();
+    // Setor normalizado -> nome exibido no resumo
+    private final ConcurrentHashMap<String, String> nomes = new ConcurrentHashMap<>();
+    // Eventos usam o lock de leitura (atualizam em paralelo); a recarga usa o de escrita (exclusiva).
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Carrega os contadores a partir do banco quando a aplicação termina de iniciar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            long start = System.nanoTime();
+            reload();
+            logger.info("Contadores do resumo carregados ({} pares setor × ativo) em {} ms.",
+                    counters.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Falha ao carregar os contadores do resumo; o resumo será calculado no banco: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Atualiza os contadores após o commit de uma criação, atualização ou remoção.
+     * @param event O evento de alteração publicado pelo InventarioService.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        Chave antes = chave(event.antes());
+        Chave depois = chave(event.depois());
+        if (Objects.equals(antes, depois)) {
+            return; // Nem o setor nem o status mudaram
+        }
+        lock.readLock().lock();
+        try {
+            if (antes != null) {
+                counter(antes).decrement();
+            }
+            if (depois != null) {
+                if (depois.setor() != null) {
+                    nomes.putIfAbsent(depois.setor(), event.depois().getSetor());
+                }
+                counter(depois).increment();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Monta o resumo por setor a partir dos contadores em memória (ou do banco, se ainda não carregados).
+     * @return O resumo do inventário.
+     */
+    public ResumoInventario resumo() {
+        if (!ready) {
+            Map<String, String> nomesBanco = new HashMap<>();
+            return toResumo(fromDatabase(nomesBanco), nomesBanco);
+        }
+        Map<Chave, Long> snapshot = new HashMap<>();
+        counters.forEach((chave, counter) -> snapshot.put(chave, counter.sum()));
+        return toResumo(snapshot, nomes);
+    }
+
+    /**
+     * Compara os contadores em memória com um GROUP BY no banco.
+     * @param corrigir Se true, recarrega os contadores a partir do banco quando houver divergências.
+     * @return As divergências encontradas.
+     */
+    public VerificacaoResumo verify(boolean corrigir) {
+        lock.writeLock().lock(); // Impede que eventos alterem os contadores durante a comparação
+        try {
+            Map<String, String> nomesBanco = new HashMap<>();
+            Map<Chave, Long> banco = fromDatabase(nomesBanco);
+            Set<Chave> chaves = new HashSet<>(banco.keySet());
+            chaves.addAll(counters.keySet());
+            Map<String, String> exibicao = new HashMap<>(nomesBanco);
+            exibicao.putAll(nomes);
+
+            List<Divergencia> divergencias = new ArrayList<>();
+            for (Chave chave : chaves) {
+                long memoria = counters.containsKey(chave) ? counters.get(chave).sum() : 0;
+                long noBanco = banco.getOrDefault(chave, 0L);
+                if (memoria != noBanco) {
+                    divergencias.add(new Divergencia(nome(chave.setor(), exibicao),
+                            chave.ativo(), memoria, noBanco));
+                }
+            }
+            boolean corrigido = false;
+            if (!divergencias.isEmpty()) {
+                logger.warn("Contadores do resumo divergem do banco em {} pares setor × ativo.", divergencias.size());
+                if (corrigir) {
+                    replace(banco, nomesBanco);
+                    corrigido = true;
+                }
+            }
+            return new VerificacaoResumo(divergencias.isEmpty(), divergencias, corrigido);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reload() {
+        lock.writeLock().lock();
+        try {
+            Map<String, String> nomesBanco = new HashMap<>();
+            replace(fromDatabase(nomesBanco), nomesBanco);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Map<Chave, Long> banco, Map<String, String> nomesBanco) {
+        counters.clear();
+        nomes.clear();
+        nomes.putAll(nomesBanco);
+        banco.forEach((chave, total) -> counter(chave).add(total));
+        ready = true;
+    }
+
+    /**
+     * Conta os itens no banco por setor normalizado × ativo.
+     * @param nomesBanco Recebe o nome exibido de cada setor normalizado.
+     */
+    private Map<Chave, Long> fromDatabase(Map<String, String> nomesBanco) {
+        Map<Chave, Long> banco = new HashMap<>();
+        for (ContagemSetorAtivo contagem : inventarioRepository.countBySetorAndAtivo()) {
+            banco.put(new Chave(contagem.getSetor(), Boolean.TRUE.equals(contagem.getAtivo())), contagem.getTotal());
+            if (contagem.getSetor() != null) {
+                nomesBanco.putIfAbsent(contagem.getSetor(), contagem.getNome());
+            }
+        }
+        return banco;
+    }
+
+    private LongAdder counter(Chave chave) {
+        return counters.computeIfAbsent(chave, c -> new LongAdder());
+    }
+
+    private static Chave chave(Inventario item) {
+        return item != null
+                ? new Chave(Inventario.normalizarSetor(item.getSetor()), Boolean.TRUE.equals(item.getAtivo()))
+                : null;
+    }
+
+    private static String nome(String setor, Map<String, String> nomes) {
+        return setor != null ? nomes.getOrDefault(setor, setor) : null;
+    }
+
+    private static ResumoInventario toResumo(Map<Chave, Long> contagens, Map<String, String> nomes) {
+        // [ativos, inativos], em ordem alfabética do setor normalizado
+        Map<String, long[]> porSetor = new TreeMap<>();
+        contagens.forEach((chave, total) -> {
+            if (total != 0) {
+                porSetor.computeIfAbsent(chave.setor(), s -> new long[2])[chave.ativo() ? 0 : 1] += total;
+            }
+        });
+        List<ResumoInventario.Setor> setores = new ArrayList<>(porSetor.size());
+        long ativos = 0;
+        long inativos = 0;
+        for (Map.Entry<String, long[]> entry : porSetor.entrySet()) {
+            long[] valores = entry.getValue();
+            setores.add(new ResumoInventario.Setor(nome(entry.getKey(), nomes), valores[0], valores[1],
+                    valores[0] + valores[1]));
+            ativos += valores[0];
+            inativos += valores[1];
+        }
+        return new ResumoInventario(setores, ativos, inativos, ativos + inativos);
+    }
+}
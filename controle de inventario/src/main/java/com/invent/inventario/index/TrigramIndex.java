@@ -0,0 +1,276 @@
+package com.invent.inventario.index;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.repository.InventarioRepository;
+
+/**
+ * Índice invertido de trigramas (n-gramas de 3 caracteres) sobre nome, usuário e número de série.
+ * Para um termo de busca, a interseção das listas de postings dos seus trigramas dá os ids candidatos,
+ * que são passados ao banco como "id IN (...)" (busca pela chave primária) em vez do LIKE '%termo%'
+ * varrer a tabela inteira.
+ *
+ * O índice é um filtro: pode devolver candidatos a mais (ex: trigramas em campos diferentes),
+ * nunca a menos, e o banco continua aplicando o LIKE sobre os candidatos. O texto é indexado sem
+ * acentos e em minúsculas, para cobrir também as collations *_ai_ci do MySQL.
+ *
+ * Os curingas do LIKE (% e _) são indexados como caracteres comuns, e a busca os trata literalmente.
+ *
+ * É construído em segundo plano na inicialização e mantido pelos eventos de alteração do
+ * InventarioService. Enquanto não estiver pronto (ou se estiver desabilitado), {@link #candidates(String)}
+ * retorna null e a busca usa o LIKE tradicional, uma página por consulta. Como vive na memória de cada
+ * instância, alterações feitas diretamente no banco (ou por outra instância da API) só aparecem após
+ * reiniciar.
+ */
+@Component
+public class TrigramIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramIndex.class);
+
+    /** Menor termo que forma um trigrama. */
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private static final int GRAM_SIZE = MIN_TERM_LENGTH;
+    private static final int BUILD_CHUNK = 1000; // Linhas aplicadas por aquisição do lock durante a construção
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final long[] NO_GRAMS = new long[0];
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Também é desligado se a construção falhar ou se um id não couber em um int
+    @Value("${inventario.search.trigram.enabled:true}")
+    private volatile boolean enabled;
+
+    // Mesmo fetch size da exportação: a construção também lê a tabela inteira em streaming.
+    @Value("${inventario.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    // Chave: trigrama empacotado em um long (3 chars de 16 bits). Valor: ids dos itens que o contêm.
+    private final Map<Long, IntPostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Dispara a construção do índice em uma thread separada, sem atrasar a inicialização da API.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            logger.info("Índice de trigramas desabilitado (inventario.search.trigram.enabled=false).");
+            return;
+        }
+        Thread.ofPlatform().name("trigram-index-build").daemon().start(this::build);
+    }
+
+    /**
+     * Retorna os ids candidatos para um termo de busca.
+     * @param term O termo digitado pelo usuário.
+     * @return Os ids candidatos em ordem crescente (vazio se nenhum item pode conter o termo),
+     *         ou null se o índice não puder responder (desabilitado, em construção ou termo sem trigramas,
+     *         ver {@link #formaTrigramas(String)}) e a busca deve usar apenas o LIKE.
+     */
+    public int[] candidates(String term) {
+        if (!ready) {
+            return null;
+        }
+        long[] grams = grams(term);
+        if (grams.length == 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            IntPostingList[] lists = new IntPostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new int[0]; // Algum trigrama não aparece em nenhum item
+                }
+            }
+            return IntPostingList.intersect(lists);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param term O termo digitado pelo usuário.
+     * @return true se o termo, normalizado, tem ao menos {@link #MIN_TERM_LENGTH} caracteres.
+     */
+    public static boolean formaTrigramas(String term) {
+        return normalize(term).length() >= MIN_TERM_LENGTH;
+    }
+
+    /**
+     * @return true se o índice já foi construído e está sendo usado nas buscas.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Atualiza o índice após o commit de uma criação, atualização ou remoção.
+     * Remove apenas os trigramas que o item deixou de ter (um trigrama pode vir de mais de um campo).
+     * @param event O evento de alteração publicado pelo InventarioService.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Integer id = toIndexId(event.id());
+        if (id == null) {
+            return;
+        }
+        long[] before = event.antes() != null ? documentGrams(event.antes()) : NO_GRAMS;
+        long[] after = event.depois() != null ? documentGrams(event.depois()) : NO_GRAMS;
+        lock.writeLock().lock();
+        try {
+            for (long gram : before) {
+                if (Arrays.binarySearch(after, gram) < 0) {
+                    IntPostingList list = postings.get(gram);
+                    if (list != null) {
+                        list.remove(id);
+                        if (list.isEmpty()) {
+                            postings.remove(gram);
+                        }
+                    }
+                }
+            }
+            for (long gram : after) {
+                postings.computeIfAbsent(gram, g -> new IntPostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        long[] rows = {0};
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<Object[]> stream = inventarioRepository.streamSearchFields(fetchSize)) {
+                    int[] chunkIds = new int[BUILD_CHUNK];
+                    long[][] chunkGrams = new long[BUILD_CHUNK][];
+                    int chunkSize = 0;
+                    for (Object[] row : (Iterable<Object[]>) stream::iterator) {
+                        Integer id = toIndexId((Long) row[0]);
+                        if (id == null) {
+                            throw new IllegalStateException("Id fora do intervalo suportado pelo índice: " + row[0]);
+                        }
+                        chunkIds[chunkSize] = id;
+                        chunkGrams[chunkSize] = grams((String) row[1], (String) row[2], (String) row[3]);
+                        if (++chunkSize == BUILD_CHUNK) {
+                            apply(chunkIds, chunkGrams, chunkSize);
+                            chunkSize = 0;
+                        }
+                        rows[0]++;
+                    }
+                    apply(chunkIds, chunkGrams, chunkSize);
+                }
+            });
+            ready = true;
+            logger.info("Índice de trigramas construído: {} itens, {} trigramas distintos em {} ms.",
+                    rows[0], postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            enabled = false;
+            logger.error("Falha ao construir o índice de trigramas; a busca continuará usando LIKE: {}", e.getMessage(), e);
+        }
+    }
+
+    private void apply(int[] ids, long[][] grams, int count) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                for (long gram : grams[i]) {
+                    postings.computeIfAbsent(gram, g -> new IntPostingList()).add(ids[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long[] documentGrams(Inventario item) {
+        return grams(item.getNome(), item.getUsuario(), item.getNumeroSerie());
+    }
+
+    /**
+     * Extrai os trigramas distintos dos textos informados, já normalizados e ordenados.
+     * Cada texto é processado separadamente, para que nenhum trigrama atravesse dois campos.
+     */
+    static long[] grams(String... texts) {
+        int capacity = 0;
+        String[] normalized = new String[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null) {
+                normalized[i] = normalize(texts[i]);
+                capacity += Math.max(0, normalized[i].length() - GRAM_SIZE + 1);
+            }
+        }
+        long[] grams = new long[capacity];
+        int count = 0;
+        for (String text : normalized) {
+            if (text == null) {
+                continue;
+            }
+            for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+                grams[count++] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Normaliza o texto como o MySQL compara com collations *_ai_ci: minúsculas e sem acentos.
+     */
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        return DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private Integer toIndexId(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            if (id != null && enabled) {
+                enabled = false;
+                ready = false;
+                logger.error("Id {} não cabe em um int; índice de trigramas desabilitado.", id);
+            }
+            return null;
+        }
+        return id.intValue();
+    }
+}
@@ -0,0 +1,161 @@
+package com.invent.inventario.limiter;
+
+/**
+ * Limite de concorrência adaptativo de uma classe de endpoints, no estilo do algoritmo de gradiente (Gradient2).
+ *
+ * O limite acompanha a razão entre a latência de longo prazo (média exponencial sobre ~600 amostras, a linha de base)
+ * e a de curto prazo (~10 amostras): quando a latência recente sobe acima da tolerância, o limite é reduzido na mesma
+ * proporção; enquanto a latência se mantém, ele cresce com uma folga de sqrt(limite) para descobrir capacidade ociosa.
+ * Cada ajuste move o limite apenas 20% em direção ao valor calculado, para que uma requisição lenta isolada não o
+ * derrube. Amostras com menos da metade do limite em uso não ajustam o limite, porque a latência nesse caso não diz
+ * nada sobre a saturação (o cliente é que está limitando a vazão).
+ *
+ * Os métodos são sincronizados: a seção crítica é curta e as contagens precisam ser consistentes com o limite.
+ */
+public class AdaptiveLimiter {
+
+    /** Latência recente aceita sem reduzir o limite, como múltiplo da linha de base. */
+    private static final double TOLERANCE = 1.5;
+    /** Amostras da média de longo prazo. */
+    private static final int LONG_WINDOW = 600;
+    /** Amostras da média de curto prazo. */
+    private static final int SHORT_WINDOW = 10;
+    /** Amostras iniciais em que a média de longo prazo é uma média simples. */
+    private static final int WARMUP = 10;
+    /** Peso do novo limite calculado em cada ajuste. */
+    private static final double SMOOTHING = 0.2;
+
+    private final EndpointClass endpointClass;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inflight;
+    private long samples;
+    private double longRtt;
+    private double shortRtt;
+    private long accepted;
+    private long rejected;
+
+    /**
+     * @param endpointClass A classe de endpoints limitada.
+     * @param initialLimit O limite inicial.
+     * @param minLimit O menor limite possível (nunca menor que 1).
+     * @param maxLimit O maior limite possível.
+     */
+    public AdaptiveLimiter(EndpointClass endpointClass, int initialLimit, int minLimit, int maxLimit) {
+        this.endpointClass = endpointClass;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Reserva uma vaga se o número de requisições em andamento estiver abaixo do limite.
+     * @return true se a requisição pode prosseguir (e deve chamar {@link #release(long)} ao terminar).
+     */
+    public synchronized boolean tryAcquire() {
+        if (inflight >= (int) limit) {
+            rejected++;
+            return false;
+        }
+        inflight++;
+        accepted++;
+        return true;
+    }
+
+    /**
+     * Libera a vaga de uma requisição concluída e ajusta o limite com a sua latência.
+     * @param rttNanos A duração da requisição, em nanossegundos (0 libera a vaga sem ajustar o limite).
+     */
+    public synchronized void release(long rttNanos) {
+        int emAndamento = inflight;
+        inflight--;
+        if (rttNanos <= 0) {
+            return;
+        }
+        double rtt = rttNanos;
+        samples++;
+        if (samples <= WARMUP) {
+            longRtt = longRtt + (rtt - longRtt) / samples;
+        } else {
+            longRtt = longRtt + (rtt - longRtt) * 2 / (LONG_WINDOW + 1);
+        }
+        shortRtt = samples == 1 ? rtt : shortRtt + (rtt - shortRtt) * 2 / (SHORT_WINDOW + 1);
+
+        // Depois de uma subida longa da latência, a linha de base acompanha a queda mais depressa
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (samples <= WARMUP || emAndamento < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double novo = limit * gradient + Math.sqrt(limit);
+        novo = limit * (1 - SMOOTHING) + novo * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, novo));
+    }
+
+    /**
+     * @return A classe de endpoints limitada.
+     */
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    /**
+     * @return O limite atual de requisições simultâneas.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return As requisições em andamento.
+     */
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    /**
+     * @return As requisições aceitas desde o início.
+     */
+    public synchronized long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return As requisições rejeitadas desde o início.
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return A latência de curto prazo, em milissegundos.
+     */
+    public synchronized double getShortRttMillis() {
+        return shortRtt / 1_000_000.0;
+    }
+
+    /**
+     * @return A latência de longo prazo (linha de base), em milissegundos.
+     */
+    public synchronized double getLongRttMillis() {
+        return longRtt / 1_000_000.0;
+    }
+
+    /**
+     * @return O menor limite possível.
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * @return O maior limite possível.
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
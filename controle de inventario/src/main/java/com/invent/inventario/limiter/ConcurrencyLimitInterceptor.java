@@ -0,0 +1,200 @@
+package com.invent.inventario.limiter;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.invent.inventario.dto.LimiterStatistics;
+import com.invent.inventario.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Descarte de carga: limite de requisições simultâneas por classe de endpoint ({@link ConcurrencyLimited}).
+ *
+ * Cada classe (listagens, exportações, buscas, consultas pontuais, gravações) tem o seu {@link AdaptiveLimiter}, de
+ * modo que uma rajada de exportações não ocupa as threads e conexões das listagens e das consultas por id. Acima do limite a
+ * requisição é recusada antes de chegar ao controlador, com 503 e Retry-After (ver GlobalExceptionHandler),
+ * em vez de esperar em fila e estourar o tempo do cliente. O limite se ajusta à latência observada.
+ *
+ * Respostas escritas de forma assíncrona (exportação, conciliação de auditoria) mantêm a vaga até o fim da escrita,
+ * pois ocupam uma conexão ou memória durante todo o streaming, mas não ajustam o limite: a duração depende do
+ * tamanho da resposta e da velocidade do cliente, não da saturação da API.
+ *
+ * Métricas: 'inventario.limiter.limit' e 'inventario.limiter.inflight' (gauges por classe) e
+ * 'inventario.limiter.requests' (por classe e resultado, accepted ou rejected).
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventario.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventario.limiter.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<Method, Optional<EndpointClass>> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Vaga reservada pela requisição, liberada em afterCompletion (ou ao fim do processamento assíncrono).
+     * A liberação é idempotente, porque o redespacho assíncrono e o AsyncListener podem chegar os dois.
+     */
+    private static final class Permit {
+
+        private final AdaptiveLimiter limiter;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean async;
+
+        Permit(AdaptiveLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(async ? 0 : System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "inventario.limiter." + endpointClass.tag() + ".";
+            AdaptiveLimiter limiter = new AdaptiveLimiter(endpointClass,
+                    environment.getProperty(prefix + "initial", Integer.class, endpointClass.initialLimit),
+                    environment.getProperty(prefix + "min", Integer.class, endpointClass.minLimit),
+                    environment.getProperty(prefix + "max", Integer.class, endpointClass.maxLimit));
+            limiters.put(endpointClass, limiter);
+
+            Gauge.builder("inventario.limiter.limit", limiter, AdaptiveLimiter::getLimit)
+                    .description("Limite atual de requisições simultâneas da classe de endpoint")
+                    .tag("class", endpointClass.tag())
+                    .register(meterRegistry);
+            Gauge.builder("inventario.limiter.inflight", limiter, AdaptiveLimiter::getInflight)
+                    .description("Requisições em andamento da classe de endpoint")
+                    .tag("class", endpointClass.tag())
+                    .register(meterRegistry);
+            FunctionCounter.builder("inventario.limiter.requests", limiter, AdaptiveLimiter::getAccepted)
+                    .description("Requisições aceitas ou recusadas pelo limite de concorrência")
+                    .tags("class", endpointClass.tag(), "result", "accepted")
+                    .register(meterRegistry);
+            FunctionCounter.builder("inventario.limiter.requests", limiter, AdaptiveLimiter::getRejected)
+                    .description("Requisições aceitas ou recusadas pelo limite de concorrência")
+                    .tags("class", endpointClass.tag(), "result", "rejected")
+                    .register(meterRegistry);
+        }
+        if (!enabled) {
+            logger.info("Limite de concorrência por endpoint desabilitado (inventario.limiter.enabled=false).");
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Os redespachos assíncronos continuam com a vaga reservada no despacho original
+        if (!enabled || request.getDispatcherType() != DispatcherType.REQUEST
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<EndpointClass> endpointClass = classes.computeIfAbsent(handlerMethod.getMethod(),
+                method -> Optional.ofNullable(handlerMethod.getMethodAnnotation(ConcurrencyLimited.class))
+                        .map(ConcurrencyLimited::value));
+        if (endpointClass.isEmpty()) {
+            return true;
+        }
+        AdaptiveLimiter limiter = limiters.get(endpointClass.get());
+        if (!limiter.tryAcquire()) {
+            throw new ServiceUnavailableException("Limite de requisições simultâneas atingido para '"
+                    + endpointClass.get().tag() + "' (" + limiter.getLimit() + "). Tente novamente em instantes.",
+                    retryAfterSeconds);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit)) {
+            return;
+        }
+        permit.async = true;
+        // O redespacho ao fim do processamento assíncrono chama afterCompletion; o listener cobre os casos em que
+        // ele não acontece (ex: cliente desconectado durante a escrita)
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) throws IOException {
+                permit.release();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                permit.release();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) throws IOException {
+                permit.release();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) throws IOException {
+            }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release();
+        }
+    }
+
+    /**
+     * @return O estado do limite de cada classe de endpoint.
+     */
+    public List<LimiterStatistics> statistics() {
+        List<LimiterStatistics> statistics = new ArrayList<>();
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            statistics.add(new LimiterStatistics(limiter.getEndpointClass().tag(), enabled, limiter.getLimit(),
+                    limiter.getMinLimit(), limiter.getMaxLimit(), limiter.getInflight(), limiter.getAccepted(),
+                    limiter.getRejected(), limiter.getShortRttMillis(), limiter.getLongRttMillis()));
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,22 @@
+package com.invent.inventario.limiter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint como sujeito ao limite de concorrência adaptativo da sua classe
+ * (ver {@link ConcurrencyLimitInterceptor}). Endpoints sem a anotação não são limitados.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    /**
+     * @return A classe do endpoint.
+     */
+    EndpointClass value();
+}
@@ -0,0 +1,48 @@
+package com.invent.inventario.limiter;
+
+/**
+ * Classes de endpoints com limites de concorrência separados (ver {@link ConcurrencyLimitInterceptor}).
+ * Cada classe tem as propriedades 'inventario.limiter.{tag}.initial', '.min' e '.max'.
+ */
+public enum EndpointClass {
+
+    /**
+     * Listagens paginadas e sincronização (GET /itens, GET /itens/changes): uma página por requisição, lida pela
+     * chave primária. A tela de consulta lista os itens a cada carregamento.
+     */
+    LIST("list", 20, 4, 100),
+
+    /**
+     * Exportação e conciliação de auditoria: respostas em streaming, que ocupam uma conexão ou memória até o fim
+     * da escrita.
+     */
+    BULK_READ("bulk-read", 4, 1, 20),
+
+    /** Buscas (GET /itens/search): o custo varia com o termo e os filtros. */
+    SEARCH("search", 10, 2, 50),
+
+    /** Consultas pontuais (por id, por etiqueta, resumo): respondidas pelos índices, cache ou chave primária. */
+    POINT("point", 50, 10, 500),
+
+    /** Criações, edições, remoções, importações e operações em lote. */
+    WRITE("write", 20, 4, 100);
+
+    final String tag;
+    final int initialLimit;
+    final int minLimit;
+    final int maxLimit;
+
+    EndpointClass(String tag, int initialLimit, int minLimit, int maxLimit) {
+        this.tag = tag;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return O nome da classe nas propriedades, métricas e respostas.
+     */
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,109 @@
+package com.invent.inventario.logging;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.invent.inventario.metrics.RequestMetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Log de requisições da API em uma única linha chave=valor por requisição (logger 'com.invent.inventario.request'),
+ * no lugar das linhas de INFO que cada método do controlador gerava.
+ *
+ * Registra 1 a cada N requisições ('inventario.logging.request.sample-rate'; 0 desliga a amostragem) e sempre
+ * as requisições com erro (status 5xx ou exceção) ou mais lentas que 'inventario.logging.request.slow-threshold'.
+ * Nenhuma entidade é registrada: apenas método, URI, status, duração e os contadores de banco da requisição.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100) // Por fora do RequestMetricsFilter, para ler os contadores ao final
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger("com.invent.inventario.request");
+
+    @Value("${inventario.logging.request.sample-rate:100}")
+    private int sampleRate;
+
+    @Value("${inventario.logging.request.slow-threshold:1s}")
+    private Duration slowThreshold;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (!request.isAsyncStarted()) { // Respostas assíncronas (exportação) ainda não têm status final
+                log(request, response, System.nanoTime() - start, failure);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long elapsedNanos, Throwable failure) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        String reason;
+        if (failure != null || status >= 500) {
+            reason = "error";
+        } else if (elapsedNanos >= slowThreshold.toNanos()) {
+            reason = "slow";
+        } else if (sampleRate > 0 && requests.incrementAndGet() % sampleRate == 0) {
+            reason = "sampled";
+        } else {
+            return;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        RequestMetrics metrics = (RequestMetrics) request.getAttribute(RequestMetrics.ATTRIBUTE);
+        StringBuilder line = new StringBuilder(160)
+                .append("method=").append(request.getMethod())
+                .append(" uri=").append(pattern != null ? pattern : request.getRequestURI())
+                .append(" status=").append(status)
+                .append(" durationMs=").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        if (metrics != null) {
+            line.append(" statements=").append(metrics.getStatements())
+                    .append(" connectionWaitMs=").append(TimeUnit.NANOSECONDS.toMillis(metrics.getConnectionWaitNanos()));
+        }
+        line.append(" reason=").append(reason);
+        if (failure != null) {
+            line.append(" exception=").append(failure.getClass().getSimpleName());
+        }
+        if ("sampled".equals(reason)) {
+            line.append(" sampleRate=").append(sampleRate);
+        }
+
+        if ("error".equals(reason)) {
+            logger.warn(line.toString());
+        } else {
+            logger.info(line.toString());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.invent.inventario.metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que mede quanto tempo cada getConnection() espera (pool do Hikari e, se habilitado, o limite
+ * de conexões simultâneas) e acumula o valor nos contadores da requisição atual ({@link RequestMetrics}).
+ * O tempo global de espera do pool já é publicado pelo Hikari em 'hikaricp.connections.acquire'.
+ */
+public class MeteredDataSource extends DelegatingDataSource {
+
+    public MeteredDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        RequestMetrics.connectionAcquired(System.nanoTime() - start);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        RequestMetrics.connectionAcquired(System.nanoTime() - start);
+        return connection;
+    }
+}
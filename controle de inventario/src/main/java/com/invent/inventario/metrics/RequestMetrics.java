@@ -0,0 +1,72 @@
+package com.invent.inventario.metrics;
+
+/**
+ * Contadores por requisição: comandos SQL emitidos pelo Hibernate e tempo de espera por conexões do pool.
+ * Os valores ficam em um ThreadLocal aberto pelo {@link RequestMetricsFilter}; fora de uma requisição
+ * (ex: tarefas em segundo plano, corpo assíncrono da exportação) as chamadas são ignoradas.
+ */
+public final class RequestMetrics {
+
+    /** Atributo da requisição com os contadores, disponível para filtros externos (ex: log de requisições). */
+    public static final String ATTRIBUTE = RequestMetrics.class.getName();
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long connectionWaitNanos;
+    private int connections;
+
+    private RequestMetrics() {
+    }
+
+    /**
+     * Inicia a contagem na thread atual.
+     * @return Os contadores da requisição.
+     */
+    static RequestMetrics begin() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * Encerra a contagem na thread atual.
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Registra um comando SQL preparado pelo Hibernate (chamado pelo {@link StatementCounter}).
+     */
+    public static void statementPrepared() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.statements++;
+        }
+    }
+
+    /**
+     * Registra a obtenção de uma conexão (chamado pelo {@link MeteredDataSource}).
+     * @param waitNanos Tempo de espera pela conexão, em nanossegundos.
+     */
+    public static void connectionAcquired(long waitNanos) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.connections++;
+            metrics.connectionWaitNanos += waitNanos;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+}
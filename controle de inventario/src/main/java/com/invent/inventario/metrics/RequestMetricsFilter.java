@@ -0,0 +1,63 @@
+package com.invent.inventario.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que abre os contadores por requisição ({@link RequestMetrics}) nas chamadas à API e, ao final,
+ * publica por endpoint (método + padrão da URI, como em 'http.server.requests'):
+ * - inventario.request.statements: comandos SQL emitidos pelo Hibernate;
+ * - inventario.request.connection.wait: tempo total de espera por conexões do pool.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestMetrics metrics = RequestMetrics.begin();
+        request.setAttribute(RequestMetrics.ATTRIBUTE, metrics);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetrics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("inventario.request.statements")
+                    .description("Comandos SQL emitidos pelo Hibernate por requisição")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(metrics.getStatements());
+            if (metrics.getConnections() > 0) {
+                Timer.builder("inventario.request.connection.wait")
+                        .description("Tempo de espera por conexões do pool por requisição")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .record(metrics.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
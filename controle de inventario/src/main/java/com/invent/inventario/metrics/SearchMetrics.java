@@ -0,0 +1,99 @@
+package com.invent.inventario.metrics;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas da busca de itens, publicadas pelo InventarioService:
+ * - inventario.search: tempo da busca, por formato (filtros informados) e faixa de quantidade de resultados;
+ * - inventario.search.results: quantidade de resultados, por formato.
+ * Buscas acima de 'inventario.search.slow-threshold' são registradas no log (WARN) com os filtros usados.
+ */
+@Component
+public class SearchMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchMetrics.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventario.search.slow-threshold:500ms}")
+    private Duration slowThreshold;
+
+    /**
+     * Registra uma busca concluída.
+     * @param searchTerm Termo de busca (opcional).
+     * @param etiqueta Número da etiqueta (opcional).
+     * @param ativo Status ativo/inativo (opcional).
+     * @param setor Setor (opcional).
+     * @param results Quantidade de itens retornados.
+     * @param elapsedNanos Duração da busca, em nanossegundos.
+     */
+    public void record(String searchTerm, Integer etiqueta, Boolean ativo, String setor, int results, long elapsedNanos) {
+        String shape = shape(searchTerm, etiqueta, ativo, setor);
+        Timer.builder("inventario.search")
+                .description("Tempo da busca de itens")
+                .tag("shape", shape)
+                .tag("results", resultBucket(results))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("inventario.search.results")
+                .description("Quantidade de itens retornados pela busca")
+                .tag("shape", shape)
+                .register(meterRegistry)
+                .record(results);
+
+        if (elapsedNanos >= slowThreshold.toNanos()) {
+            logger.warn("Busca lenta ({} ms, {} resultados): searchTerm='{}', etiqueta={}, ativo={}, setor='{}'.",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), results, searchTerm, etiqueta, ativo, setor);
+        }
+    }
+
+    /**
+     * Formato da busca: os filtros informados, em ordem fixa (ex: "term+ativo"), ou "none".
+     */
+    static String shape(String searchTerm, Integer etiqueta, Boolean ativo, String setor) {
+        StringJoiner shape = new StringJoiner("+");
+        if (StringUtils.hasText(searchTerm)) {
+            shape.add("term");
+        }
+        if (etiqueta != null) {
+            shape.add("etiqueta");
+        }
+        if (ativo != null) {
+            shape.add("ativo");
+        }
+        if (StringUtils.hasText(setor)) {
+            shape.add("setor");
+        }
+        return shape.length() > 0 ? shape.toString() : "none";
+    }
+
+    /**
+     * Faixas fixas de quantidade de resultados, para manter a cardinalidade da tag baixa.
+     */
+    static String resultBucket(int results) {
+        if (results == 0) {
+            return "0";
+        } else if (results == 1) {
+            return "1";
+        } else if (results <= 50) {
+            return "2-50";
+        } else if (results <= 500) {
+            return "51-500";
+        }
+        return "500+";
+    }
+}
@@ -0,0 +1,169 @@
+package com.invent.inventario.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Relatório dos tempos da inicialização, registrado no log quando a API fica pronta, e do tempo até a primeira
+ * requisição atendida ('inventario.startup.first-request'), para comparar a inicialização padrão com a imagem
+ * de inicialização rápida (AOT e CDS, ver FastStartConfig).
+ *
+ * As fases vêm das etapas registradas pelo BufferingApplicationStartup configurado em InventarioApplication:
+ * JVM até o main, preparação do contexto, refresh (processamento da configuração e criação dos beans) e do fim
+ * do refresh até a API pronta. Os beans mais lentos são medidos sem o tempo das suas dependências.
+ * Se o contexto foi iniciado sem esse ApplicationStartup (ex: benchmarks), apenas o tempo total é registrado.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final int TOP_BEANS = 5;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private volatile long primeiraRequisicaoMillis = -1;
+
+    @PostConstruct
+    void registerMetrics() {
+        TimeGauge.builder("inventario.startup.first-request", this, TimeUnit.MILLISECONDS,
+                        report -> report.primeiraRequisicaoMillis >= 0 ? report.primeiraRequisicaoMillis : Double.NaN)
+                .description("Tempo entre o início da JVM e a primeira requisição atendida")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra as fases da inicialização (por último entre os listeners de ApplicationReadyEvent).
+     * @param event O evento de aplicação pronta.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReady(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        long pronta = System.currentTimeMillis();
+        String modo = "AOT " + (AotDetector.useGeneratedArtifacts() ? "sim" : "não")
+                + ", CDS " + (runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")) ? "sim" : "não");
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            logger.info("Inicialização em {} ms desde o início da JVM ({}).", pronta - jvmStart, modo);
+            return;
+        }
+        // Esvazia o buffer: as etapas só servem para este relatório
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        List<TimelineEvent> events = timeline.getEvents();
+        TimelineEvent refresh = find(events, "spring.context.refresh");
+        TimelineEvent configuracao = find(events, "spring.context.beans.post-process");
+        if (refresh == null) {
+            logger.info("Inicialização em {} ms desde o início da JVM ({}).", pronta - jvmStart, modo);
+            return;
+        }
+
+        Map<Long, Long> filhosNanos = new HashMap<>();
+        for (TimelineEvent e : events) {
+            Long parentId = e.getStartupStep().getParentId();
+            if (parentId != null) {
+                filhosNanos.merge(parentId, e.getDuration().toNanos(), Long::sum);
+            }
+        }
+        long beansNanos = 0;
+        List<Map.Entry<String, Long>> beans = new ArrayList<>();
+        for (TimelineEvent e : events) {
+            StartupStep step = e.getStartupStep();
+            if (!"spring.beans.instantiate".equals(step.getName())) {
+                continue;
+            }
+            Long parentId = step.getParentId();
+            if (parentId != null && parentId == refresh.getStartupStep().getId()) {
+                // Criações de primeiro nível do refresh: as dependências estão dentro delas e os BeanPostProcessors,
+                // no processamento da configuração
+                beansNanos += e.getDuration().toNanos();
+            }
+            long proprio = e.getDuration().toNanos() - filhosNanos.getOrDefault(step.getId(), 0L);
+            beans.add(Map.entry(beanName(step), proprio));
+        }
+        String maisLentos = beans.stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(TOP_BEANS)
+                .map(bean -> bean.getKey() + " " + TimeUnit.NANOSECONDS.toMillis(bean.getValue()) + " ms")
+                .collect(Collectors.joining(", "));
+
+        long inicio = timeline.getStartTime().toEpochMilli();
+        long refreshInicio = refresh.getStartTime().toEpochMilli();
+        long refreshFim = refresh.getEndTime().toEpochMilli();
+        logger.info("Inicialização em {} ms desde o início da JVM ({}): JVM até o main {} ms, preparação do contexto {} ms, "
+                        + "refresh {} ms (processamento da configuração {} ms, criação dos beans {} ms), do refresh até "
+                        + "a API pronta {} ms. Beans mais lentos: {}.",
+                pronta - jvmStart, modo, inicio - jvmStart, refreshInicio - inicio, refreshFim - refreshInicio,
+                configuracao != null ? configuracao.getDuration().toMillis() : 0, Duration.ofNanos(beansNanos).toMillis(),
+                pronta - refreshFim, maisLentos);
+    }
+
+    /**
+     * Registra o tempo até a primeira requisição atendida (publicado pelo DispatcherServlet ao fim de cada requisição).
+     * @param event O evento da requisição atendida.
+     */
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (primeiraRequisicaoMillis >= 0) {
+            return;
+        }
+        synchronized (this) {
+            if (primeiraRequisicaoMillis >= 0) {
+                return;
+            }
+            primeiraRequisicaoMillis = System.currentTimeMillis() - jvmStart;
+        }
+        logger.info("Primeira requisição ({} {}) atendida {} ms após o início da JVM.", event.getMethod(),
+                event.getRequestUrl(), primeiraRequisicaoMillis);
+    }
+
+    private static TimelineEvent find(List<TimelineEvent> events, String name) {
+        for (TimelineEvent e : events) {
+            if (name.equals(e.getStartupStep().getName())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+}
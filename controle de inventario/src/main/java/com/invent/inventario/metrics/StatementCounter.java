@@ -0,0 +1,16 @@
+package com.invent.inventario.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector do Hibernate que conta os comandos SQL de cada requisição. Não altera o SQL.
+ * Registrado em 'hibernate.session_factory.statement_inspector' pelo MetricsConfig.
+ */
+public class StatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestMetrics.statementPrepared();
+        return sql;
+    }
+}
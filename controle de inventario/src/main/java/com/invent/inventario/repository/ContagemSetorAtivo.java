@@ -0,0 +1,22 @@
+package com.invent.inventario.repository;
+
+/**
+ * Projeção (interface) com a contagem de itens de um par setor × ativo,
+ * resultado de {@link InventarioRepository#countBySetorAndAtivo()}.
+ */
+public interface ContagemSetorAtivo {
+
+    /**
+     * @return O setor normalizado (ver Inventario.normalizarSetor).
+     */
+    String getSetor();
+
+    /**
+     * @return Uma das grafias gravadas do setor, usada para exibição.
+     */
+    String getNome();
+
+    Boolean getAtivo();
+
+    long getTotal();
+}
@@ -0,0 +1,25 @@
+package com.invent.inventario.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.invent.inventario.entity.InventarioAlteracao;
+
+/**
+ * Repositório do log de alterações usado pela sincronização incremental.
+ * As gravações são feitas em lote pelo AlteracaoLog (JDBC), na mesma transação da alteração.
+ */
+@Repository
+public interface InventarioAlteracaoRepository extends JpaRepository<InventarioAlteracao, Long> {
+
+    /**
+     * Busca as alterações confirmadas após uma revisão, em ordem de revisão.
+     * @param seq A revisão já conhecida pelo cliente.
+     * @param limit Quantidade máxima de alterações.
+     * @return As alterações com revisão maior que 'seq'.
+     */
+    List<InventarioAlteracao> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+}
@@ -1,9 +1,12 @@
 package com.invent.inventario.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.invent.inventario.entity.Inventario;
@@ -11,9 +14,11 @@ import com.invent.inventario.entity.Inventario;
 /**
  * Interface de repositório para a entidade Inventario.
  * Estende JpaRepository para fornecer operações CRUD básicas e busca personalizada.
+ * Consultas que o Spring Data não gera sozinho (ex: paginação por cursor) ficam em {@link InventarioRepositoryCustom}.
  */
 @Repository
-public interface InventarioRepository extends JpaRepository<Inventario, Long>, JpaSpecificationExecutor<Inventario> {
+public interface InventarioRepository extends JpaRepository<Inventario, Long>, JpaSpecificationExecutor<Inventario>,
+        InventarioRepositoryCustom {
     // JpaRepository fornece métodos CRUD básicos (save, findById, findAll, deleteById, etc.)
     // automaticamente para a entidade Inventario com chave primária do tipo Long.
 
@@ -74,4 +79,29 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long>, J
      * @return Uma lista de itens de inventário que correspondem aos critérios.
      */
     List<Inventario> findByAtivoAndSetorContainingIgnoreCase(boolean ativo, String setor);
+
+    /**
+     * Busca um item de inventário pelo número da etiqueta.
+     * @param etiqueta O número da etiqueta.
+     * @return O primeiro item com a etiqueta informada, se existir.
+     */
+    Optional<Inventario> findFirstByEtiqueta(Integer etiqueta);
+
+    /**
+     * Busca os itens de várias etiquetas em uma única consulta (usa o índice único da etiqueta).
+     * @param etiquetas Os números das etiquetas.
+     * @return Os itens encontrados, em qualquer ordem.
+     */
+    List<Inventario> findByEtiquetaIn(Collection<Integer> etiquetas);
+
+    /**
+     * Conta os itens de inventário agrupados por setor (normalizado, sem diferenciar maiúsculas) e status 'ativo'
+     * (um único GROUP BY). A collation binária de setor_normalizado agrupa exatamente pelo valor de
+     * Inventario.normalizarSetor, sem juntar setores que diferem só nos acentos. O nome exibido é uma das grafias
+     * gravadas do setor.
+     * @return Uma linha para cada par setor × ativo existente.
+     */
+    @Query("select i.setorNormalizado as setor, min(i.setor) as nome, i.ativo as ativo, count(i) as total "
+            + "from Inventario i group by i.setorNormalizado, i.ativo")
+    List<ContagemSetorAtivo> countBySetorAndAtivo();
 }
@@ -0,0 +1,122 @@
+package com.invent.inventario.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Fragmento de repositório com consultas que o Spring Data JPA não gera automaticamente.
+ * A implementação fica em {@link InventarioRepositoryCustomImpl} e é combinada ao {@link InventarioRepository}.
+ */
+public interface InventarioRepositoryCustom {
+
+    /**
+     * Busca uma "fatia" de itens com id maior que 'afterId', ordenada por id (keyset pagination).
+     * Diferente de findAll(Specification, Pageable), não executa a consulta de contagem
+     * e não usa OFFSET, então o custo de cada página é constante independentemente do tamanho da tabela.
+     * @param spec Filtros adicionais (pode ser null).
+     * @param afterId Último id já entregue ao cliente (0 para a primeira página).
+     * @param limit Quantidade máxima de itens retornados.
+     * @return Os itens encontrados, ordenados por id crescente.
+     */
+    List<Inventario> findSlice(Specification<Inventario> spec, long afterId, int limit);
+
+    /**
+     * Igual a {@link #findSlice(Specification, long, int)}, mas seleciona apenas os campos informados
+     * (SELECT i.id, i.nome, ...), sem instanciar entidades nem ler as demais colunas.
+     * @param spec Filtros adicionais (pode ser null).
+     * @param afterId Último id já entregue ao cliente (0 para a primeira página).
+     * @param limit Quantidade máxima de itens retornados.
+     * @param fields Nomes dos atributos da entidade a selecionar, na ordem desejada (deve incluir "id").
+     * @return Um mapa campo → valor por item, ordenados por id crescente.
+     */
+    List<Map<String, Object>> findSliceFields(Specification<Inventario> spec, long afterId, int limit, List<String> fields);
+
+    /**
+     * Igual a {@link #findSlice(Specification, long, int)}, mas bloqueia as linhas lidas (SELECT ... FOR UPDATE)
+     * até o fim da transação e não guarda snapshots para dirty checking. Usado pelas operações em lote,
+     * que leem o estado anterior de cada lote e o alteram com um único comando.
+     * @param spec Filtros adicionais (pode ser null).
+     * @param afterId Último id já processado (0 para o primeiro lote).
+     * @param limit Quantidade máxima de itens retornados.
+     * @return Os itens encontrados, ordenados por id crescente.
+     */
+    List<Inventario> lockSlice(Specification<Inventario> spec, long afterId, int limit);
+
+    /**
+     * Abre um Stream com todos os itens, ordenados por id, lendo as linhas do banco sob demanda.
+     * Deve ser consumido dentro de uma transação e fechado ao final (try-with-resources).
+     * @param fetchSize Fetch size do JDBC. No MySQL, Integer.MIN_VALUE ativa o streaming linha a linha
+     *                  do Connector/J, em vez de carregar o result set inteiro na memória.
+     * @return Um Stream de itens (entidades gerenciadas; o chamador deve desanexá-las após o uso).
+     */
+    Stream<Inventario> streamAll(int fetchSize);
+
+    /**
+     * Abre um Stream apenas com os campos textuais usados na busca (id, nome, usuario, numeroSerie),
+     * sem instanciar entidades. Usado para construir índices em memória.
+     * Deve ser consumido dentro de uma transação e fechado ao final (try-with-resources).
+     * @param fetchSize Fetch size do JDBC (veja {@link #streamAll(int)}).
+     * @return Um Stream de arrays [id, nome, usuario, numeroSerie].
+     */
+    Stream<Object[]> streamSearchFields(int fetchSize);
+
+    /**
+     * Abre um Stream com a etiqueta e o id dos itens que têm etiqueta, sem instanciar entidades.
+     * Usado para construir o índice de etiquetas. Deve ser consumido dentro de uma transação e fechado ao final.
+     * @param fetchSize Fetch size do JDBC (veja {@link #streamAll(int)}).
+     * @return Um Stream de arrays [etiqueta, id].
+     */
+    Stream<Object[]> streamEtiquetas(int fetchSize);
+
+    /**
+     * Abre um Stream com a etiqueta, o setor e o status dos itens que têm etiqueta, sem instanciar entidades.
+     * Usado para construir os bitmaps da conciliação de auditorias. Deve ser consumido dentro de uma transação.
+     * @param fetchSize Fetch size do JDBC (veja {@link #streamAll(int)}).
+     * @return Um Stream de arrays [etiqueta, setor, ativo].
+     */
+    Stream<Object[]> streamEtiquetasPorSetor(int fetchSize);
+
+    /**
+     * Abre um Stream com o id, o setor e o status de todos os itens, sem instanciar entidades.
+     * Usado para construir os bitmaps das facetas da busca. Deve ser consumido dentro de uma transação.
+     * @param fetchSize Fetch size do JDBC (veja {@link #streamAll(int)}).
+     * @return Um Stream de arrays [id, setor, ativo].
+     */
+    Stream<Object[]> streamFacetas(int fetchSize);
+
+    /**
+     * Altera apenas os campos informados com um único UPDATE condicional, sem carregar a entidade:
+     * a linha só é alterada se ainda estiver na versão esperada. Incrementa a versão e grava a data de atualização.
+     * Deve ser chamado dentro de uma transação.
+     * @param id O id do item.
+     * @param versao A versão que o cliente leu.
+     * @param campos Os novos valores, por nome de atributo da entidade (já convertidos e validados).
+     * @param atualizadoEm A data/hora da alteração.
+     * @return 1 se o item foi alterado; 0 se ele não existe ou está em outra versão.
+     */
+    int updateFields(Long id, long versao, Map<String, Object> campos, Instant atualizadoEm);
+
+    /**
+     * Aplica os mesmos valores a vários itens com um único UPDATE (WHERE id IN ...), incrementando a versão
+     * e gravando a data de atualização de cada um. Deve ser chamado dentro de uma transação.
+     * @param ids Os ids dos itens.
+     * @param campos Os novos valores, por nome de atributo da entidade (já convertidos e validados).
+     * @param atualizadoEm A data/hora da alteração.
+     * @return A quantidade de itens alterados.
+     */
+    int updateFields(Collection<Long> ids, Map<String, Object> campos, Instant atualizadoEm);
+
+    /**
+     * Remove vários itens com um único DELETE (WHERE id IN ...). Deve ser chamado dentro de uma transação.
+     * @param ids Os ids dos itens.
+     * @return A quantidade de itens removidos.
+     */
+    int deleteByIds(Collection<Long> ids);
+}
@@ -0,0 +1,185 @@
+package com.invent.inventario.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.invent.inventario.entity.Inventario;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Implementação do fragmento {@link InventarioRepositoryCustom}.
+ * O Spring Data encontra esta classe pelo sufixo 'Impl' e a associa ao InventarioRepository.
+ */
+public class InventarioRepositoryCustomImpl implements InventarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Inventario> findSlice(Specification<Inventario> spec, long afterId, int limit) {
+        return sliceQuery(spec, afterId, limit).getResultList();
+    }
+
+    @Override
+    public List<Inventario> lockSlice(Specification<Inventario> spec, long afterId, int limit) {
+        return sliceQuery(spec, afterId, limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true) // Alterados por UPDATE/DELETE em massa, não por dirty checking
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findSliceFields(Specification<Inventario> spec, long afterId, int limit,
+                                                     List<String> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Inventario> root = query.from(Inventario.class);
+        List<Selection<?>> selections = fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList();
+        query.multiselect(selections);
+        keyset(spec, afterId, root, query, criteriaBuilder);
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>(fields.size() * 2);
+            for (int i = 0; i < fields.size(); i++) {
+                item.put(fields.get(i), row.get(i));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private TypedQuery<Inventario> sliceQuery(Specification<Inventario> spec, long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Inventario> query = criteriaBuilder.createQuery(Inventario.class);
+        Root<Inventario> root = query.from(Inventario.class);
+        keyset(spec, afterId, root, query, criteriaBuilder);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit);
+    }
+
+    private void keyset(Specification<Inventario> spec, long afterId, Root<Inventario> root, CriteriaQuery<?> query,
+                        CriteriaBuilder criteriaBuilder) {
+        // O filtro por id usa a chave primária, então o banco faz um range scan a partir do cursor.
+        Predicate afterCursor = criteriaBuilder.greaterThan(root.get("id"), afterId);
+        Predicate filters = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        query.where(filters != null ? criteriaBuilder.and(filters, afterCursor) : afterCursor);
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+    }
+
+    @Override
+    public Stream<Inventario> streamAll(int fetchSize) {
+        return entityManager.createQuery("select i from Inventario i order by i.id", Inventario.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true) // Sem snapshot para dirty checking
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamSearchFields(int fetchSize) {
+        return entityManager.createQuery("select i.id, i.nome, i.usuario, i.numeroSerie from Inventario i", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamEtiquetas(int fetchSize) {
+        return entityManager.createQuery("select i.etiqueta, i.id from Inventario i where i.etiqueta is not null order by i.id",
+                        Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamEtiquetasPorSetor(int fetchSize) {
+        return entityManager.createQuery("select i.etiqueta, i.setor, i.ativo from Inventario i where i.etiqueta is not null",
+                        Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<Object[]> streamFacetas(int fetchSize) {
+        return entityManager.createQuery("select i.id, i.setor, i.ativo from Inventario i", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int updateFields(Long id, long versao, Map<String, Object> campos, Instant atualizadoEm) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Inventario> update = criteriaBuilder.createCriteriaUpdate(Inventario.class);
+        Root<Inventario> root = setFields(update, campos, atualizadoEm);
+        update.where(criteriaBuilder.equal(root.get("id"), id), criteriaBuilder.equal(root.get("versao"), versao));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int updateFields(Collection<Long> ids, Map<String, Object> campos, Instant atualizadoEm) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaUpdate<Inventario> update = entityManager.getCriteriaBuilder().createCriteriaUpdate(Inventario.class);
+        Root<Inventario> root = setFields(update, campos, atualizadoEm);
+        update.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaDelete<Inventario> delete = entityManager.getCriteriaBuilder().createCriteriaDelete(Inventario.class);
+        Root<Inventario> root = delete.from(Inventario.class);
+        delete.where(root.get("id").in(ids));
+
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    private Root<Inventario> setFields(CriteriaUpdate<Inventario> update, Map<String, Object> campos, Instant atualizadoEm) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Root<Inventario> root = update.from(Inventario.class);
+        campos.forEach((campo, valor) -> update.set(root.<Object>get(campo), valor));
+        if (campos.containsKey("setor")) {
+            // A coluna normalizada acompanha o setor (ver Inventario.setSetor)
+            update.set(root.<String>get("setorNormalizado"), Inventario.normalizarSetor((String) campos.get("setor")));
+        }
+        // Atualização em massa: o Hibernate não incrementa a versão nem preenche @UpdateTimestamp sozinho.
+        update.set(root.<Long>get("versao"), criteriaBuilder.sum(root.<Long>get("versao"), 1L));
+        update.set(root.<Instant>get("atualizadoEm"), atualizadoEm);
+        return root;
+    }
+}
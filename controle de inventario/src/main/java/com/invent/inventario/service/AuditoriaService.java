@@ -0,0 +1,231 @@
+package com.invent.inventario.service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.index.EtiquetasPorSetor;
+import com.invent.inventario.index.EtiquetasPorSetor.Reconciliacao;
+
+/**
+ * Conciliação das auditorias físicas: compara as etiquetas lidas em um setor com as etiquetas esperadas
+ * (itens do setor com o status auditado) e aponta as que faltam, as que pertencem a outro setor e as que
+ * não existem no inventário.
+ *
+ * As leituras são acumuladas em um bitmap compactado à medida que o corpo da requisição é lido, sem montar
+ * uma lista de números, e as diferenças são calculadas sobre os bitmaps de {@link EtiquetasPorSetor}.
+ * O resultado é escrito em streaming, etiqueta a etiqueta, sem carregar entidades.
+ */
+@Service
+public class AuditoriaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditoriaService.class);
+
+    private static final int BUFFER_SIZE = 4096; // Leituras acumuladas antes de cada inserção no bitmap
+
+    @Autowired
+    private EtiquetasPorSetor etiquetasPorSetor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Limite de etiquetas distintas por auditoria (protege a memória do servidor).
+    @Value("${inventario.auditoria.max-etiquetas:1000000}")
+    private int maxEtiquetas;
+
+    /**
+     * Etiquetas lidas em uma auditoria.
+     * @param etiquetas As etiquetas distintas.
+     * @param leituras Quantidade de leituras recebidas, incluindo as repetidas.
+     */
+    public record Leituras(RoaringBitmap etiquetas, long leituras) {
+    }
+
+    /**
+     * Resultado da conciliação, pronto para ser escrito.
+     */
+    public record Resultado(Reconciliacao reconciliacao, boolean ativo, Leituras leituras, long elapsedMillis) {
+    }
+
+    /**
+     * Lê as etiquetas de um texto: números separados por quebras de linha, espaços, vírgulas ou ponto e vírgula
+     * (ex: o arquivo exportado pelo coletor). Uma primeira linha não numérica é tratada como cabeçalho.
+     * @param in O corpo da requisição.
+     * @return As etiquetas lidas.
+     * @throws BadRequestException Se houver um valor que não seja um número de etiqueta.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    public Leituras readText(InputStream in) throws IOException {
+        Acumulador acumulador = new Acumulador();
+        InputStream input = new BufferedInputStream(in, 64 * 1024);
+        long line = 1;
+        long value = 0;
+        boolean inNumber = false;
+        boolean header = false;
+        for (int c = input.read(); ; c = input.read()) {
+            if (c >= '0' && c <= '9' && !header) {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new BadRequestException("Etiqueta fora do intervalo na linha " + line + ".");
+                }
+                inNumber = true;
+                continue;
+            }
+            if (inNumber) {
+                acumulador.add((int) value);
+                value = 0;
+                inNumber = false;
+            }
+            if (c == -1) {
+                break;
+            }
+            if (c == '\n') {
+                line++;
+                header = false;
+            } else if (header || c == ' ' || c == '\t' || c == '\r' || c == ',' || c == ';') {
+                continue;
+            } else if (line == 1 && acumulador.leituras == 0) {
+                header = true; // Cabeçalho (ex: "etiqueta"): ignora o resto da linha
+            } else {
+                throw new BadRequestException("Valor inválido na linha " + line + ": use apenas números de etiqueta.");
+            }
+        }
+        return acumulador.finish();
+    }
+
+    /**
+     * Lê as etiquetas de um array JSON de números (ex: [1001, 1002, 1003]), elemento a elemento.
+     * @param in O corpo da requisição.
+     * @return As etiquetas lidas.
+     * @throws BadRequestException Se o corpo não for um array de números inteiros.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    public Leituras readJson(InputStream in) throws IOException {
+        Acumulador acumulador = new Acumulador();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("O corpo da requisição deve ser um array JSON de etiquetas.");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+                    throw new BadRequestException("Valor inválido na posição " + (acumulador.leituras + 1)
+                            + ": use apenas números de etiqueta.");
+                }
+                acumulador.add(parser.getIntValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("JSON inválido: " + e.getOriginalMessage(), e);
+        }
+        return acumulador.finish();
+    }
+
+    /**
+     * Concilia as etiquetas lidas com as esperadas para o setor.
+     * @param setor O setor auditado.
+     * @param ativo O status dos itens esperados (normalmente true).
+     * @param leituras As etiquetas lidas.
+     * @return O resultado, a ser escrito com {@link #write(Resultado, OutputStream)}.
+     */
+    public Resultado reconcile(String setor, boolean ativo, Leituras leituras) {
+        long start = System.nanoTime();
+        Reconciliacao reconciliacao = etiquetasPorSetor.reconcile(setor, ativo, leituras.etiquetas());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Auditoria do setor '{}' conciliada em {} ms: {} lidas, {} esperadas, {} faltando, {} desconhecidas.",
+                setor, elapsedMillis, leituras.etiquetas().getLongCardinality(), reconciliacao.esperadas(),
+                reconciliacao.faltando().getLongCardinality(), reconciliacao.desconhecidas().getLongCardinality());
+        return new Resultado(reconciliacao, ativo, leituras, elapsedMillis);
+    }
+
+    /**
+     * Escreve o resultado em JSON: primeiro os totais, depois as listas de etiquetas em ordem crescente.
+     * @param resultado O resultado da conciliação.
+     * @param out O corpo da resposta.
+     * @throws IOException Se ocorrer um erro de escrita (ex: cliente desconectado).
+     */
+    public void write(Resultado resultado, OutputStream out) throws IOException {
+        Reconciliacao reconciliacao = resultado.reconciliacao();
+        long foraDoLugar = reconciliacao.foraDoLugar().stream().mapToLong(grupo -> grupo.etiquetas().getLongCardinality()).sum();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("setor", reconciliacao.setor());
+            generator.writeBooleanField("ativo", resultado.ativo());
+            generator.writeNumberField("leituras", resultado.leituras().leituras());
+            generator.writeNumberField("lidas", resultado.leituras().etiquetas().getLongCardinality());
+            generator.writeNumberField("esperadas", reconciliacao.esperadas());
+            generator.writeNumberField("encontradas", reconciliacao.encontradas().getLongCardinality());
+            generator.writeNumberField("faltando", reconciliacao.faltando().getLongCardinality());
+            generator.writeNumberField("foraDoLugar", foraDoLugar);
+            generator.writeNumberField("desconhecidas", reconciliacao.desconhecidas().getLongCardinality());
+            generator.writeNumberField("tempoMs", resultado.elapsedMillis());
+
+            writeEtiquetas(generator, "etiquetasFaltando", reconciliacao.faltando());
+            generator.writeArrayFieldStart("etiquetasForaDoLugar");
+            for (EtiquetasPorSetor.Grupo grupo : reconciliacao.foraDoLugar()) {
+                generator.writeStartObject();
+                generator.writeStringField("setor", grupo.setor());
+                generator.writeBooleanField("ativo", grupo.ativo());
+                writeEtiquetas(generator, "etiquetas", grupo.etiquetas());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            writeEtiquetas(generator, "etiquetasDesconhecidas", reconciliacao.desconhecidas());
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeEtiquetas(JsonGenerator generator, String field, RoaringBitmap etiquetas) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (IntIterator iterator = etiquetas.getIntIterator(); iterator.hasNext(); ) {
+            generator.writeNumber(iterator.next());
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Acumula as leituras em blocos e as insere no bitmap de uma vez (addN), conferindo o limite a cada bloco.
+     */
+    private final class Acumulador {
+
+        private final RoaringBitmap etiquetas = new RoaringBitmap();
+        private final int[] buffer = new int[BUFFER_SIZE];
+        private int size;
+        private long leituras;
+
+        void add(int etiqueta) {
+            leituras++;
+            buffer[size++] = etiqueta;
+            if (size == BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        Leituras finish() {
+            flush();
+            etiquetas.runOptimize();
+            return new Leituras(etiquetas, leituras);
+        }
+
+        private void flush() {
+            etiquetas.addN(buffer, 0, size);
+            size = 0;
+            if (etiquetas.getLongCardinality() > maxEtiquetas) {
+                throw new BadRequestException("A auditoria excede o limite de " + maxEtiquetas + " etiquetas distintas.");
+            }
+        }
+    }
+}
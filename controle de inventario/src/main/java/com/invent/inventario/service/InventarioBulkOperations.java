@@ -0,0 +1,198 @@
+package com.invent.inventario.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.invent.inventario.dto.BulkRequest;
+import com.invent.inventario.dto.BulkResult;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.repository.InventarioRepository;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * Operações em lote sobre o inventário: remoção e alteração de status/setor de vários itens,
+ * escolhidos por uma lista de ids ou pelos mesmos critérios da busca.
+ *
+ * Os itens são processados em lotes ordenados por id, cada lote em sua própria transação: um SELECT ... FOR UPDATE
+ * lê o estado anterior dos itens do lote e um único DELETE/UPDATE (WHERE id IN ...) os altera. Os eventos de
+ * alteração são publicados para cada item, então o cache, os índices em memória, os contadores e o log de
+ * alterações continuam consistentes. Lotes já confirmados não são desfeitos se um lote posterior falhar.
+ */
+@Component
+public class InventarioBulkOperations {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioBulkOperations.class);
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${inventario.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Remove os itens escolhidos pelos ids ou pelo filtro da requisição.
+     * @param request Os ids ou o filtro dos itens.
+     * @return As quantidades de itens encontrados e removidos.
+     * @throws BadRequestException Se a requisição não tiver exatamente uma forma de seleção válida.
+     */
+    public BulkResult delete(BulkRequest request) {
+        return execute(request, "remoção", lote -> {
+            List<Long> ids = lote.stream().map(Inventario::getId).toList();
+            int removed = inventarioRepository.deleteByIds(ids);
+            for (Inventario item : lote) {
+                eventPublisher.publishEvent(InventarioAlteradoEvent.removido(new Inventario(item)));
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Altera o status e/ou o setor dos itens escolhidos pelos ids ou pelo filtro da requisição.
+     * Itens que já estão com os valores pedidos não são regravados.
+     * @param request Os ids ou o filtro dos itens e os novos valores de 'ativo' e/ou 'setor'.
+     * @return As quantidades de itens encontrados e alterados.
+     * @throws BadRequestException Se nenhum valor novo for informado ou a seleção for inválida.
+     * @throws ConstraintViolationException Se o novo setor violar as validações da entidade.
+     */
+    public BulkResult update(BulkRequest request) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        if (request.ativo() != null) {
+            campos.put("ativo", request.ativo());
+        }
+        if (request.setor() != null) {
+            campos.put("setor", request.setor());
+        }
+        if (campos.isEmpty()) {
+            throw new BadRequestException("Informe o novo valor de 'ativo' e/ou 'setor'.");
+        }
+        if (request.setor() != null) {
+            Set<ConstraintViolation<Inventario>> violations = validator.validateValue(Inventario.class, "setor", request.setor());
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+        }
+
+        return execute(request, "alteração", lote -> {
+            List<Inventario> alterar = lote.stream()
+                    .filter(item -> (request.ativo() != null && !request.ativo().equals(item.getAtivo()))
+                            || (request.setor() != null && !request.setor().equals(item.getSetor())))
+                    .toList();
+            Instant agora = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            int updated = inventarioRepository.updateFields(alterar.stream().map(Inventario::getId).toList(), campos, agora);
+            for (Inventario item : alterar) {
+                Inventario depois = new Inventario(item);
+                if (request.ativo() != null) {
+                    depois.setAtivo(request.ativo());
+                }
+                if (request.setor() != null) {
+                    depois.setSetor(request.setor());
+                }
+                depois.setVersao(item.getVersao() + 1);
+                depois.setAtualizadoEm(agora);
+                eventPublisher.publishEvent(new InventarioAlteradoEvent(new Inventario(item), depois));
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Percorre os itens selecionados em lotes, cada lote em uma transação.
+     * @param operacao Aplica a operação aos itens (já bloqueados) do lote e retorna a quantidade de itens afetados.
+     */
+    private BulkResult execute(BulkRequest request, String descricao, Function<List<Inventario>, Integer> operacao) {
+        long start = System.nanoTime();
+        long matched = 0;
+        long affected = 0;
+        int batches = 0;
+        for (Specification<Inventario> spec : selections(request)) {
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                long[] counts = transactionTemplate.execute(status -> {
+                    List<Inventario> lote = inventarioRepository.lockSlice(spec, cursor, batchSize);
+                    if (lote.isEmpty()) {
+                        return null;
+                    }
+                    return new long[] {lote.size(), operacao.apply(lote), lote.get(lote.size() - 1).getId()};
+                });
+                if (counts == null) {
+                    break;
+                }
+                matched += counts[0];
+                affected += counts[1];
+                afterId = counts[2];
+                batches++;
+                if (counts[0] < batchSize) {
+                    break;
+                }
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Operação em lote ({}) concluída: {} itens encontrados, {} afetados, {} lotes, {} ms.",
+                descricao, matched, affected, batches, elapsedMillis);
+        return new BulkResult(matched, affected, batches, elapsedMillis);
+    }
+
+    /**
+     * Monta as seleções da requisição: uma Specification por grupo de até 'batchSize' ids, ou a
+     * Specification da busca (a mesma de InventarioService.search) para o filtro.
+     */
+    private List<Specification<Inventario>> selections(BulkRequest request) {
+        boolean hasIds = request.ids() != null && !request.ids().isEmpty();
+        BulkRequest.Filtro filtro = request.filtro();
+        if (hasIds == (filtro != null)) {
+            throw new BadRequestException("Informe a lista de 'ids' ou o 'filtro' dos itens (apenas um dos dois).");
+        }
+        if (hasIds) {
+            List<Long> ids = new ArrayList<>(new TreeSet<>(request.ids().stream().filter(Objects::nonNull).toList()));
+            List<Specification<Inventario>> specs = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                List<Long> grupo = ids.subList(i, Math.min(i + batchSize, ids.size()));
+                specs.add((root, query, criteriaBuilder) -> root.get("id").in(grupo));
+            }
+            return specs;
+        }
+        if (!StringUtils.hasText(filtro.searchTerm()) && filtro.etiqueta() == null && filtro.ativo() == null
+                && !StringUtils.hasText(filtro.setor())) {
+            // Evita aplicar a operação ao inventário inteiro por um filtro vazio enviado por engano.
+            throw new BadRequestException("O filtro precisa de ao menos um critério (searchTerm, etiqueta, ativo ou setor).");
+        }
+        return List.of(inventarioService.buildSpecification(filtro.searchTerm(), filtro.etiqueta(), filtro.ativo(),
+                filtro.setor()));
+    }
+}
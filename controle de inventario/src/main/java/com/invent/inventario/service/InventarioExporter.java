@@ -0,0 +1,237 @@
+package com.invent.inventario.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.exception.BadRequestException;
+
+/**
+ * Componente responsável por exportar o inventário completo em NDJSON, CSV, CBOR ou Smile.
+ * CBOR é uma sequência de itens (RFC 8742, application/cbor-seq) e Smile é um stream de valores Smile.
+ * Escreve cada linha no OutputStream assim que ela é lida do banco (via {@link InventarioService#forEachItem}),
+ * sem montar a lista completa de entidades nem o documento inteiro na memória.
+ */
+@Component
+public class InventarioExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024; // Agrupa escritas pequenas antes de enviá-las ao cliente
+    private static final byte NEW_LINE = '\n';
+    private static final String CSV_HEADER = "id,nome,etiqueta,numeroSerie,usuario,observacoes,ativo,setor\n";
+
+    /**
+     * Formatos suportados pela exportação.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv"),
+        CBOR("application/cbor-seq", "cbor"),
+        SMILE("application/x-jackson-smile", "smile");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Converte o parâmetro 'format' da requisição no formato correspondente.
+         * @param value Nome do formato (ex: "ndjson", "csv"), sem diferenciar maiúsculas/minúsculas.
+         * @return O formato correspondente.
+         * @throws BadRequestException Se o formato não for suportado.
+         */
+        public static Format fromParameter(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Formato de exportação não suportado: " + value);
+        }
+
+        /**
+         * Escolhe o formato pelo cabeçalho Accept, quando o parâmetro 'format' não é informado.
+         * @param accept O cabeçalho Accept da requisição (pode ser null).
+         * @return O primeiro formato aceito (por especificidade e qualidade), ou NDJSON se nenhum for.
+         */
+        public static Format fromAccept(String accept) {
+            if (accept == null || accept.isBlank()) {
+                return NDJSON;
+            }
+            List<MediaType> accepted;
+            try {
+                accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            } catch (InvalidMediaTypeException e) {
+                throw new BadRequestException("Cabeçalho Accept inválido: " + accept, e);
+            }
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.isWildcardType()) {
+                    return NDJSON;
+                }
+                for (Format format : values()) {
+                    if (type.isCompatibleWith(MediaType.parseMediaType(format.contentType))
+                            || (format == CBOR && type.isCompatibleWith(MediaType.APPLICATION_CBOR))) {
+                        return format;
+                    }
+                }
+            }
+            return NDJSON;
+        }
+    }
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    /**
+     * Exporta todos os itens no formato informado.
+     * @param format O formato de saída.
+     * @param out O stream de saída (normalmente o corpo da resposta HTTP).
+     * @return A quantidade de itens exportados.
+     * @throws IOException Se ocorrer um erro ao escrever no stream (ex: cliente desconectou).
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        BufferedOutputStream buffer = new BufferedOutputStream(out, BUFFER_SIZE);
+        RowWriter rowWriter = switch (format) {
+            case CSV -> csvWriter(buffer);
+            case CBOR -> binaryWriter(cborConverter.getObjectMapper(), buffer);
+            case SMILE -> binaryWriter(smileConverter.getObjectMapper(), buffer);
+            default -> ndjsonWriter();
+        };
+        try {
+            long count = inventarioService.forEachItem(new Consumer<>() {
+                private boolean first = true;
+
+                @Override
+                public void accept(Inventario item) {
+                    try {
+                        rowWriter.write(item, buffer);
+                        if (first) {
+                            // Envia a primeira linha imediatamente, para o cliente não esperar o buffer encher.
+                            rowWriter.flush();
+                            buffer.flush();
+                            first = false;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            rowWriter.flush();
+            buffer.flush();
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Escreve um item no stream de saída.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Inventario item, OutputStream out) throws IOException;
+
+        /**
+         * Repassa ao stream o que o writer ainda guarda em buffer próprio (apenas os formatos binários).
+         */
+        default void flush() throws IOException {
+        }
+    }
+
+    private RowWriter ndjsonWriter() {
+        // Sem flush a cada valor: quem controla o envio é o BufferedOutputStream.
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return (item, out) -> {
+            out.write(writer.writeValueAsBytes(item));
+            out.write(NEW_LINE);
+        };
+    }
+
+    private RowWriter binaryWriter(ObjectMapper mapper, OutputStream out) throws IOException {
+        // Um único gerador para o stream inteiro: no Smile o cabeçalho é escrito uma vez só, e no CBOR
+        // os itens ficam em sequência. O flush do gerador não chega ao BufferedOutputStream.
+        JsonGenerator generator = mapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return new RowWriter() {
+            @Override
+            public void write(Inventario item, OutputStream stream) throws IOException {
+                writer.writeValue(generator, item);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                generator.flush();
+            }
+        };
+    }
+
+    private RowWriter csvWriter(OutputStream out) throws IOException {
+        out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        return (item, stream) -> {
+            StringBuilder line = new StringBuilder(128);
+            line.append(item.getId()).append(',');
+            appendCsv(line, item.getNome()).append(',');
+            appendCsv(line, item.getEtiqueta()).append(',');
+            appendCsv(line, item.getNumeroSerie()).append(',');
+            appendCsv(line, item.getUsuario()).append(',');
+            appendCsv(line, item.getObservacoes()).append(',');
+            appendCsv(line, item.getAtivo()).append(',');
+            appendCsv(line, item.getSetor()).append('\n');
+            stream.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    /**
+     * Adiciona um campo CSV (RFC 4180), usando aspas quando o valor contém vírgula, aspas ou quebra de linha.
+     */
+    private static StringBuilder appendCsv(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
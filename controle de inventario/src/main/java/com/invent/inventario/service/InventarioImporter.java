@@ -0,0 +1,432 @@
+package com.invent.inventario.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.dto.ImportResult;
+import com.invent.inventario.dto.ImportResult.RowError;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.index.EtiquetaIndex;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Componente responsável pela importação em lote de itens (array JSON ou CSV).
+ * As linhas são lidas e validadas à medida que chegam e inseridas em lotes via JDBC batch,
+ * cada lote em sua própria transação. A entidade usa GenerationType.IDENTITY, que impede o Hibernate
+ * de agrupar INSERTs; por isso a inserção é feita diretamente pelo JdbcTemplate, deixando o
+ * AUTO_INCREMENT do MySQL gerar os ids (com rewriteBatchedStatements=true o driver envia um único
+ * INSERT com múltiplas linhas por lote).
+ */
+@Component
+public class InventarioImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioImporter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO inventario "
+            + "(nome, etiqueta, numero_serie, usuario, observacoes, ativo, setor, setor_normalizado, versao, atualizado_em) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EtiquetaIndex etiquetaIndex;
+
+    // Quantidade de linhas enviadas ao banco por lote (e por transação).
+    @Value("${inventario.import.batch-size:1000}")
+    private int batchSize;
+
+    // Quantidade máxima de erros detalhados na resposta; os demais são apenas contados.
+    @Value("${inventario.import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Importa itens a partir de um array JSON (ex: [{"nome": "...", "setor": "...", "ativo": true}, ...]).
+     * O array é lido elemento a elemento, sem carregar o documento inteiro na memória.
+     * @param in O corpo da requisição.
+     * @return O resultado da importação, com os erros por linha e a vazão obtida.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    public ImportResult importJson(InputStream in) throws IOException {
+        ImportSession session = new ImportSession();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("O corpo da requisição deve ser um array JSON de itens.");
+            }
+            long row = 0;
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) {
+                        throw new BadRequestException("Array JSON incompleto após a linha " + row + ".");
+                    }
+                    row++;
+                    JsonNode node = objectMapper.readTree(parser);
+                    if (!node.isObject()) {
+                        session.reject(row, "Cada elemento do array deve ser um objeto JSON.");
+                        continue;
+                    }
+                    try {
+                        session.accept(row, objectMapper.treeToValue(node, Inventario.class));
+                    } catch (JsonProcessingException e) {
+                        session.reject(row, "Valor inválido: " + e.getOriginalMessage());
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // JSON malformado: não é possível continuar lendo, mas os lotes válidos já lidos são gravados.
+                session.reject(row + 1, "JSON malformado, importação interrompida: " + e.getOriginalMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    /**
+     * Importa itens a partir de um CSV com cabeçalho (colunas: nome, etiqueta, numeroSerie, usuario,
+     * observacoes, ativo, setor; a coluna id, se existir, é ignorada). Segue a RFC 4180 (campos entre aspas
+     * podem conter vírgulas, aspas duplicadas e quebras de linha).
+     * @param in O corpo da requisição.
+     * @return O resultado da importação, com os erros por linha e a vazão obtida.
+     * @throws IOException Se ocorrer um erro de leitura do corpo da requisição.
+     */
+    public ImportResult importCsv(InputStream in) throws IOException {
+        ImportSession session = new ImportSession();
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new BadRequestException("O arquivo CSV está vazio.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT); // Remove BOM do Excel
+            columns.put(name, i);
+        }
+        for (String required : List.of("nome", "ativo", "setor")) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("Coluna obrigatória ausente no cabeçalho do CSV: " + required);
+            }
+        }
+
+        long row = 0;
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // Ignora linhas em branco
+            }
+            row++;
+            try {
+                session.accept(row, fromCsv(record, columns));
+            } catch (IllegalArgumentException e) {
+                session.reject(row, e.getMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    private static Inventario fromCsv(List<String> record, Map<String, Integer> columns) {
+        Inventario item = new Inventario();
+        item.setNome(csvValue(record, columns, "nome"));
+        String etiqueta = csvValue(record, columns, "etiqueta");
+        if (etiqueta != null) {
+            try {
+                item.setEtiqueta(Integer.valueOf(etiqueta.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("etiqueta: valor numérico inválido '" + etiqueta + "'");
+            }
+        }
+        item.setNumeroSerie(csvValue(record, columns, "numeroserie"));
+        item.setUsuario(csvValue(record, columns, "usuario"));
+        item.setObservacoes(csvValue(record, columns, "observacoes"));
+        item.setAtivo(parseAtivo(csvValue(record, columns, "ativo")));
+        item.setSetor(csvValue(record, columns, "setor"));
+        return item;
+    }
+
+    private static String csvValue(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static Boolean parseAtivo(String value) {
+        if (value == null) {
+            return null; // A validação da entidade reporta o campo obrigatório
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "sim", "s", "ativo" -> Boolean.TRUE;
+            case "false", "0", "nao", "não", "n", "inativo" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("ativo: valor inválido '" + value + "' (use true/false)");
+        };
+    }
+
+    /**
+     * Estado de uma importação em andamento: lote pendente, contadores e erros por linha.
+     */
+    private final class ImportSession {
+
+        private final long startNanos = System.nanoTime();
+        private final List<PendingRow> pending = new ArrayList<>(batchSize);
+        private final Set<Integer> pendingEtiquetas = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long inserted;
+        private long failed;
+
+        void accept(long row, Inventario item) {
+            totalRows++;
+            item.setId(null); // O id é sempre gerado pelo banco
+            Set<ConstraintViolation<Inventario>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                recordError(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            // Etiquetas repetidas são rejeitadas aqui, pelo índice de etiquetas e pelo lote pendente, em vez de
+            // fazer o banco recusar o lote inteiro (índice único) e forçar o reprocessamento linha a linha.
+            Integer etiqueta = item.getEtiqueta();
+            if (etiqueta != null) {
+                long dono = etiquetaIndex.isReady() ? etiquetaIndex.idOf(etiqueta) : 0;
+                if (dono != 0) {
+                    recordError(row, "etiqueta: " + etiqueta + " já pertence ao item " + dono);
+                    return;
+                }
+                if (!pendingEtiquetas.add(etiqueta)) {
+                    recordError(row, "etiqueta: " + etiqueta + " repetida no arquivo");
+                    return;
+                }
+            }
+            pending.add(new PendingRow(row, item));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            totalRows++;
+            recordError(row, message);
+        }
+
+        ImportResult finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            double rowsPerSecond = seconds > 0 ? totalRows / seconds : 0;
+            logger.info("Importação concluída: {} linhas, {} inseridas, {} rejeitadas em {} ms ({} linhas/s).",
+                    totalRows, inserted, failed, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+            return new ImportResult(totalRows, inserted, failed, errors, failed > errors.size(),
+                    elapsedNanos / 1_000_000, rowsPerSecond);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PendingRow> batch = new ArrayList<>(pending);
+            pending.clear();
+            pendingEtiquetas.clear();
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(batch));
+                inserted += batch.size();
+            } catch (DataAccessException e) {
+                // Uma linha rejeitada pelo banco desfaz o lote inteiro; reprocessa linha a linha para isolá-la.
+                logger.warn("Lote de {} linhas rejeitado pelo banco ({}); reprocessando linha a linha.",
+                        batch.size(), e.getMostSpecificCause().getMessage());
+                for (PendingRow pendingRow : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(pendingRow)));
+                        inserted++;
+                    } catch (DataAccessException rowException) {
+                        recordError(pendingRow.row(),
+                                "Erro ao gravar no banco: " + rowException.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private void recordError(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    /**
+     * Insere o lote em um único JDBC batch e lê os ids gerados pelo AUTO_INCREMENT, para publicar
+     * os eventos de criação (entregues aos índices em memória somente após o commit).
+     */
+    private void insertBatch(List<PendingRow> batch) {
+        Instant now = Instant.now();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (PendingRow pendingRow : batch) {
+                    Inventario item = pendingRow.item();
+                    item.setVersao(0L);
+                    item.setAtualizadoEm(now);
+                    ps.setString(1, item.getNome());
+                    ps.setObject(2, item.getEtiqueta(), Types.INTEGER);
+                    ps.setString(3, item.getNumeroSerie());
+                    ps.setString(4, item.getUsuario());
+                    ps.setString(5, item.getObservacoes());
+                    ps.setBoolean(6, item.getAtivo());
+                    ps.setString(7, item.getSetor());
+                    ps.setString(8, Inventario.normalizarSetor(item.getSetor()));
+                    ps.setTimestamp(9, Timestamp.from(now), utc); // Mesmo tratamento do Hibernate para Instant (UTC)
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    for (PendingRow pendingRow : batch) {
+                        if (!keys.next()) {
+                            throw new DataRetrievalFailureException("O banco não retornou os ids gerados do lote.");
+                        }
+                        pendingRow.item().setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+        for (PendingRow pendingRow : batch) {
+            eventPublisher.publishEvent(InventarioAlteradoEvent.criado(pendingRow.item()));
+        }
+    }
+
+    /**
+     * Linha validada aguardando o próximo lote.
+     */
+    private record PendingRow(long row, Inventario item) {
+    }
+
+    /**
+     * Leitor mínimo de CSV (RFC 4180) que devolve um registro por chamada, sem carregar o arquivo inteiro.
+     */
+    private static final class CsvReader {
+
+        private static final int NONE = -2; // Nenhum caractere devolvido ao leitor
+
+        private final Reader reader;
+        private int pushedBack = NONE;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Lê o próximo registro.
+         * @return Os campos do registro, ou null no fim do arquivo.
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (;; c = read()) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new BadRequestException("CSV inválido: campo entre aspas não foi fechado.");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"'); // Aspas duplicadas representam uma aspa literal
+                        } else {
+                            quoted = false;
+                            pushBack(next);
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pushBack(next);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != NONE) {
+                int c = pushedBack;
+                pushedBack = NONE;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private void pushBack(int c) {
+            pushedBack = c;
+        }
+    }
+}
@@ -1,95 +1,718 @@
 package com.invent.inventario.service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.cache.InventarioCache;
+import com.invent.inventario.config.ReplicaRouter;
+import com.invent.inventario.dto.AlteracoesInventario;
+import com.invent.inventario.dto.CursorPage;
+import com.invent.inventario.dto.ItensPorEtiqueta;
+import com.invent.inventario.dto.ResumoInventario;
+import com.invent.inventario.dto.SearchFacets;
 import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.BadRequestException;
+import com.invent.inventario.exception.ConflictException;
 import com.invent.inventario.exception.ResourceNotFoundException;
+import com.invent.inventario.index.EtiquetaIndex;
+import com.invent.inventario.index.FacetIndex;
+import com.invent.inventario.index.ResumoCounters;
+import com.invent.inventario.index.TrigramIndex;
+import com.invent.inventario.metrics.SearchMetrics;
 import com.invent.inventario.repository.InventarioRepository;
+import com.invent.inventario.sync.AlteracaoLog;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 
 @Service
 public class InventarioService {
 
+    // Campos que podem ser pedidos no parâmetro 'fields' das listagens, na ordem em que são devolvidos.
+    private static final List<String> LIST_FIELDS = List.of("id", "nome", "etiqueta", "numeroSerie", "usuario",
+            "observacoes", "ativo", "setor", "versao", "atualizadoEm");
+
+    // Candidatos do índice de trigramas enviados por consulta de uma página da busca, como múltiplo do tamanho da página.
+    private static final int CANDIDATE_WINDOW_FACTOR = 4;
+
+    // Caractere de escape do LIKE (a barra invertida também é escape nas strings do MySQL).
+    private static final char LIKE_ESCAPE = '!';
+
     @Autowired
     private InventarioRepository inventarioRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TrigramIndex trigramIndex;
+
+    @Autowired
+    private InventarioCache inventarioCache;
+
+    @Autowired
+    private EtiquetaIndex etiquetaIndex;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private ResumoCounters resumoCounters;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private AlteracaoLog alteracaoLog;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    // Acima desta quantidade de candidatos, as operações em lote usam apenas o LIKE (veja buildSpecification).
+    // Também é o maior "id IN (...)" de uma janela da busca paginada (veja searchSlice).
+    @Value("${inventario.search.trigram.max-candidates:5000}")
+    private int maxTrigramCandidates;
+
+    // Fetch size usado na exportação. O padrão (Integer.MIN_VALUE) ativa o streaming de linhas do MySQL Connector/J;
+    // para outros bancos (ex: H2 em benchmarks) use um valor positivo, como 1000.
+    @Value("${inventario.export.fetch-size:-2147483648}")
+    private int exportFetchSize;
+
     public List<Inventario> findAll() {
-        return inventarioRepository.findAll();
+        return replicaRouter.read(inventarioRepository::findAll);
+    }
+
+    /**
+     * Percorre todos os itens do inventário, em ordem de id, sem carregá-los todos na memória.
+     * Cada item é entregue ao consumidor e em seguida desanexado do contexto de persistência,
+     * então o uso de heap permanece constante independentemente do tamanho da tabela.
+     * @param consumer Recebe cada item lido do banco.
+     * @return A quantidade de itens percorridos.
+     */
+    @Transactional(readOnly = true)
+    public long forEachItem(Consumer<Inventario> consumer) {
+        long count = 0;
+        try (Stream<Inventario> stream = inventarioRepository.streamAll(exportFetchSize)) {
+            for (Inventario item : (Iterable<Inventario>) stream::iterator) {
+                consumer.accept(item);
+                entityManager.detach(item);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retorna uma página de itens usando paginação por cursor (keyset), ordenada por id.
+     * @param cursor Token recebido na página anterior (null para a primeira página).
+     * @param limit Quantidade máxima de itens na página.
+     * @return A página de itens e o cursor da próxima página.
+     */
+    public CursorPage<Inventario> findPage(String cursor, int limit) {
+        return replicaRouter.read(() -> slice((afterId, n) -> inventarioRepository.findSlice(null, afterId, n), cursor, limit));
     }
 
     public Optional<Inventario> findById(Long id) {
-        return inventarioRepository.findById(id);
+        if (inventarioCache.isEnabled()) {
+            // O item carregado fica no cache até o TTL: uma leitura atrasada da réplica continuaria sendo servida
+            // depois que a réplica se atualizasse. Com o cache, a falha de cache é lida no primário.
+            return inventarioCache.getById(id, inventarioRepository::findById);
+        }
+        return replicaRouter.read(() -> inventarioRepository.findById(id));
+    }
+
+    /**
+     * Busca um item pelo número da etiqueta. Com o índice de etiquetas pronto, o id vem da memória e uma
+     * etiqueta inexistente é respondida sem consultar o banco; sem ele, usa o cache por etiqueta.
+     * @param etiqueta O número da etiqueta.
+     * @return O item com a etiqueta informada, se existir.
+     */
+    public Optional<Inventario> findByEtiqueta(Integer etiqueta) {
+        if (etiquetaIndex.isReady()) {
+            long id = etiquetaIndex.idOf(etiqueta);
+            if (id == 0) {
+                return Optional.empty();
+            }
+            Optional<Inventario> item = findById(id);
+            if (item.isPresent() && etiqueta.equals(item.get().getEtiqueta())) {
+                return item;
+            }
+            // O item mudou de etiqueta durante a construção do índice: confere no banco
+        }
+        return inventarioCache.getByEtiqueta(etiqueta, inventarioRepository::findById, inventarioRepository::findFirstByEtiqueta);
     }
 
+    /**
+     * Busca os itens de várias etiquetas: os ids vêm do índice de etiquetas e os itens, do cache ou de uma
+     * única consulta pelos ids. Sem o índice (ou para itens que mudaram de etiqueta), uma consulta por etiqueta.
+     * @param etiquetas Os números das etiquetas (repetições e nulos são ignorados).
+     * @return Os itens encontrados, na ordem das etiquetas, e as etiquetas sem item.
+     */
+    public ItensPorEtiqueta findByEtiquetas(List<Integer> etiquetas) {
+        int[] distintas = etiquetas.stream().filter(Objects::nonNull).mapToInt(Integer::intValue).distinct().toArray();
+        Map<Integer, Inventario> porEtiqueta = new HashMap<>(distintas.length * 2);
+        List<Integer> consultarNoBanco = new ArrayList<>();
+        if (etiquetaIndex.isReady()) {
+            long[] ids = etiquetaIndex.idsOf(distintas);
+            List<Long> encontrados = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                if (id != 0) {
+                    encontrados.add(id);
+                }
+            }
+            Map<Long, Inventario> itens = inventarioCache.getAllById(encontrados, inventarioRepository::findAllById);
+            for (int i = 0; i < distintas.length; i++) {
+                if (ids[i] == 0) {
+                    continue; // Etiqueta inexistente
+                }
+                Inventario item = itens.get(ids[i]);
+                if (item != null && Integer.valueOf(distintas[i]).equals(item.getEtiqueta())) {
+                    porEtiqueta.put(distintas[i], item);
+                } else {
+                    consultarNoBanco.add(distintas[i]);
+                }
+            }
+        } else {
+            Arrays.stream(distintas).forEach(consultarNoBanco::add);
+        }
+        if (!consultarNoBanco.isEmpty()) {
+            for (Inventario item : inventarioRepository.findByEtiquetaIn(consultarNoBanco)) {
+                porEtiqueta.putIfAbsent(item.getEtiqueta(), item);
+            }
+        }
+
+        List<Inventario> itens = new ArrayList<>(porEtiqueta.size());
+        List<Integer> naoEncontradas = new ArrayList<>();
+        for (int etiqueta : distintas) {
+            Inventario item = porEtiqueta.get(etiqueta);
+            if (item != null) {
+                itens.add(item);
+            } else {
+                naoEncontradas.add(etiqueta);
+            }
+        }
+        return new ItensPorEtiqueta(itens, naoEncontradas);
+    }
+
+    /**
+     * Garante que a etiqueta não pertence a outro item. O índice único da coluna também barra gravações
+     * simultâneas; esta verificação dá ao cliente uma mensagem com o item que já usa a etiqueta.
+     * @param etiqueta A etiqueta a gravar (null é permitido e pode se repetir).
+     * @param id O id do item que vai recebê-la (null na criação).
+     * @throws ConflictException Se outro item já tiver a etiqueta.
+     */
+    private void checkEtiquetaDisponivel(Integer etiqueta, Long id) {
+        if (etiqueta == null) {
+            return;
+        }
+        inventarioRepository.findFirstByEtiqueta(etiqueta)
+                .filter(dono -> !dono.getId().equals(id))
+                .ifPresent(dono -> {
+                    throw new ConflictException("A etiqueta " + etiqueta + " já pertence ao item " + dono.getId() + ".");
+                });
+    }
+
+    @Transactional
     public Inventario save(Inventario inventario) {
-        return inventarioRepository.save(inventario);
+        // Um POST com id existente atualiza o item; guarda o estado anterior para os ouvintes do evento.
+        Inventario existente = inventario.getId() != null
+                ? inventarioRepository.findById(inventario.getId()).orElse(null)
+                : null;
+        Inventario antes = existente != null ? new Inventario(existente) : null;
+        checkEtiquetaDisponivel(inventario.getEtiqueta(), existente != null ? existente.getId() : null);
+        if (existente != null) {
+            // O último a gravar vence, como antes da coluna de versão: usa a versão atual do banco.
+            inventario.setVersao(existente.getVersao());
+        } else {
+            // Id inexistente (ou ausente): cria um novo item, com id e versão gerados pelo banco/Hibernate.
+            inventario.setId(null);
+            inventario.setVersao(null);
+        }
+        // saveAndFlush: o evento leva a versão e a data de atualização já gravadas.
+        Inventario saved = inventarioRepository.saveAndFlush(inventario);
+        eventPublisher.publishEvent(new InventarioAlteradoEvent(antes, new Inventario(saved)));
+        return saved;
     }
 
+    @Transactional
     public Inventario update(Long id, Inventario inventarioDetails) {
         Inventario inventario = inventarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
+        Inventario antes = new Inventario(inventario);
+        checkEtiquetaDisponivel(inventarioDetails.getEtiqueta(), id);
+
+        copyFields(inventarioDetails, inventario);
+
+        Inventario saved = inventarioRepository.saveAndFlush(inventario);
+        eventPublisher.publishEvent(new InventarioAlteradoEvent(antes, new Inventario(saved)));
+        return saved;
+    }
 
-        // Atualiza os campos do item encontrado com os detalhes fornecidos
-        inventario.setNome(inventarioDetails.getNome());
-        inventario.setEtiqueta(inventarioDetails.getEtiqueta());
-        inventario.setNumeroSerie(inventarioDetails.getNumeroSerie());
-        inventario.setUsuario(inventarioDetails.getUsuario());
-        inventario.setObservacoes(inventarioDetails.getObservacoes());
+    /**
+     * Copia os campos editáveis (todos, exceto id, versão e data de atualização) de um item para outro.
+     * Usado pelo PUT, síncrono ou pela fila de gravações assíncronas.
+     * @param origem Os detalhes enviados pelo cliente.
+     * @param destino O item a atualizar.
+     */
+    static void copyFields(Inventario origem, Inventario destino) {
+        destino.setNome(origem.getNome());
+        destino.setEtiqueta(origem.getEtiqueta());
+        destino.setNumeroSerie(origem.getNumeroSerie());
+        destino.setUsuario(origem.getUsuario());
+        destino.setObservacoes(origem.getObservacoes());
         // CORREÇÃO AQUI: Usar getAtivo() porque o campo 'ativo' agora é do tipo Boolean (classe wrapper)
-        inventario.setAtivo(inventarioDetails.getAtivo());
-        inventario.setSetor(inventarioDetails.getSetor());
+        destino.setAtivo(origem.getAtivo());
+        destino.setSetor(origem.getSetor());
+    }
+
+    /**
+     * Altera apenas os campos informados, com controle de concorrência otimista.
+     *
+     * A gravação é um único UPDATE condicional (WHERE id = ? AND versao = ?), sem carregar a entidade nem
+     * regravar a linha inteira. O estado anterior, usado pelos ouvintes do evento (índices e contadores),
+     * vem do cache quando ele está na versão esperada; caso contrário, de uma leitura pela chave primária.
+     * @param id O id do item.
+     * @param versao A versão que o cliente leu (If-Match ou campo 'versao').
+     * @param campos Os novos valores, por nome de campo (nome, etiqueta, numeroSerie, usuario, observacoes, ativo, setor).
+     * @return O item no estado alterado, com a nova versão.
+     * @throws ResourceNotFoundException Se o item não existir.
+     * @throws ConflictException Se o item estiver em outra versão (alterado por outra pessoa) ou a nova etiqueta já
+     *         pertencer a outro item.
+     */
+    @Transactional
+    public Inventario patch(Long id, long versao, Map<String, Object> campos) {
+        Map<String, Object> valores = convertPatchFields(campos);
+        Inventario antes = findById(id)
+                .filter(item -> item.getVersao() != null && item.getVersao() == versao)
+                .or(() -> inventarioRepository.findById(id).map(Inventario::new)) // Cache ausente ou desatualizado
+                .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
+        if (antes.getVersao() == null || antes.getVersao() != versao) {
+            throw versionConflict(id, antes.getVersao());
+        }
+        if (valores.containsKey("etiqueta")) {
+            checkEtiquetaDisponivel((Integer) valores.get("etiqueta"), id);
+        }
+
+        // Truncado para microssegundos, a precisão da coluna, para que a resposta e o banco tenham o mesmo valor.
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (inventarioRepository.updateFields(id, versao, valores, agora) == 0) {
+            // Alterado ou removido entre a leitura e o UPDATE
+            Long atual = inventarioRepository.findById(id).map(Inventario::getVersao)
+                    .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
+            throw versionConflict(id, atual);
+        }
+
+        Inventario depois = new Inventario(antes);
+        valores.forEach((campo, valor) -> PATCH_FIELDS.get(campo).setter().accept(depois, valor));
+        depois.setVersao(versao + 1);
+        depois.setAtualizadoEm(agora);
+        eventPublisher.publishEvent(new InventarioAlteradoEvent(antes, new Inventario(depois)));
+        return depois;
+    }
 
-        return inventarioRepository.save(inventario);
+    private static ConflictException versionConflict(Long id, Long versaoAtual) {
+        return new ConflictException("O item " + id + " foi alterado por outra pessoa (versão atual: " + versaoAtual
+                + "). Recarregue o item e tente novamente.");
     }
 
+    /**
+     * Converte os valores recebidos no PATCH para o tipo de cada campo e aplica as validações da entidade.
+     * @throws BadRequestException Se houver campo desconhecido, valor de tipo inválido ou nenhum campo.
+     * @throws ConstraintViolationException Se algum valor violar as validações da entidade.
+     */
+    private Map<String, Object> convertPatchFields(Map<String, Object> campos) {
+        if (campos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um campo para alterar.");
+        }
+        Map<String, Object> valores = new LinkedHashMap<>();
+        Set<ConstraintViolation<Inventario>> violations = new HashSet<>();
+        campos.forEach((campo, valor) -> {
+            PatchField field = PATCH_FIELDS.get(campo);
+            if (field == null) {
+                throw new BadRequestException("O campo '" + campo + "' não pode ser alterado. Campos permitidos: "
+                        + PATCH_FIELDS.keySet() + ".");
+            }
+            Object convertido;
+            try {
+                convertido = objectMapper.convertValue(valor, field.type());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Valor inválido para o campo '" + campo + "'.", e);
+            }
+            violations.addAll(validator.validateValue(Inventario.class, campo, convertido));
+            valores.put(campo, convertido);
+        });
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return valores;
+    }
+
+    /**
+     * Campo alterável pelo PATCH: tipo do valor e como aplicá-lo a uma cópia do item.
+     */
+    private record PatchField(Class<?> type, BiConsumer<Inventario, Object> setter) {
+    }
+
+    private static final Map<String, PatchField> PATCH_FIELDS = Map.of(
+            "nome", new PatchField(String.class, (item, valor) -> item.setNome((String) valor)),
+            "etiqueta", new PatchField(Integer.class, (item, valor) -> item.setEtiqueta((Integer) valor)),
+            "numeroSerie", new PatchField(String.class, (item, valor) -> item.setNumeroSerie((String) valor)),
+            "usuario", new PatchField(String.class, (item, valor) -> item.setUsuario((String) valor)),
+            "observacoes", new PatchField(String.class, (item, valor) -> item.setObservacoes((String) valor)),
+            "ativo", new PatchField(Boolean.class, (item, valor) -> item.setAtivo((Boolean) valor)),
+            "setor", new PatchField(String.class, (item, valor) -> item.setSetor((String) valor)));
+
+    @Transactional
     public void delete(Long id) {
         Inventario inventario = inventarioRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
         inventarioRepository.delete(inventario);
+        eventPublisher.publishEvent(InventarioAlteradoEvent.removido(new Inventario(inventario)));
+    }
+
+    /**
+     * Retorna a quantidade de itens ativos e inativos por setor, a partir dos contadores em memória.
+     * @return O resumo do inventário.
+     */
+    public ResumoInventario resumo() {
+        return resumoCounters.resumo();
+    }
+
+    /**
+     * Retorna as alterações do inventário desde uma revisão, para a sincronização incremental dos clientes.
+     * Sem revisão (primeira sincronização), retorna apenas a revisão atual: o cliente carrega a lista completa
+     * pela paginação e, daí em diante, pede somente as alterações posteriores a essa revisão.
+     * @param since A última revisão recebida pelo cliente (null na primeira sincronização).
+     * @param limit Quantidade máxima de alterações.
+     * @return Os itens alterados, os ids removidos e a revisão para a próxima chamada.
+     */
+    public AlteracoesInventario alteracoesDesde(Long since, int limit) {
+        if (since == null) {
+            return new AlteracoesInventario(List.of(), List.of(), alteracaoLog.revisaoAtual(), false);
+        }
+        return alteracaoLog.alteracoesDesde(since, limit);
     }
 
     /**
      * Busca itens de inventário com base em múltiplos critérios de filtro (nome, etiqueta, ativo, setor).
      * Usa Specification para construir consultas dinâmicas.
-     * @param searchTerm Termo de busca para nome ou usuário (opcional).
+     * @param searchTerm Termo de busca para nome, usuário ou número de série (opcional).
      * @param etiqueta Número da etiqueta (opcional).
      * @param ativo Status ativo/inativo (opcional).
      * @param setor Setor (opcional).
      * @return Uma lista de itens que correspondem aos critérios de busca.
      */
     public List<Inventario> search(String searchTerm, Integer etiqueta, Boolean ativo, String setor) {
-        return inventarioRepository.findAll((Specification<Inventario>) (root, query, criteriaBuilder) -> {
+        long start = System.nanoTime();
+        Specification<Inventario> spec = buildSpecification(searchTerm, etiqueta, ativo, setor);
+        List<Inventario> items = replicaRouter.read(() -> inventarioRepository.findAll(spec));
+        searchMetrics.record(searchTerm, etiqueta, ativo, setor, items.size(), System.nanoTime() - start);
+        return items;
+    }
+
+    /**
+     * Versão paginada por cursor de {@link #search(String, Integer, Boolean, String)}.
+     * Usa os mesmos filtros, mas limita o resultado a uma página por requisição.
+     * @param searchTerm Termo de busca para nome ou usuário (opcional).
+     * @param etiqueta Número da etiqueta (opcional).
+     * @param ativo Status ativo/inativo (opcional).
+     * @param setor Setor (opcional).
+     * @param cursor Token recebido na página anterior (null para a primeira página).
+     * @param limit Quantidade máxima de itens na página.
+     * @return A página de itens e o cursor da próxima página.
+     */
+    public CursorPage<Inventario> searchPage(String searchTerm, Integer etiqueta, Boolean ativo, String setor,
+                                             String cursor, int limit) {
+        long start = System.nanoTime();
+        CursorPage<Inventario> page = replicaRouter.read(() -> slice((afterId, n) -> searchSlice(searchTerm, etiqueta,
+                ativo, setor, afterId, n, inventarioRepository::findSlice), cursor, limit));
+        searchMetrics.record(searchTerm, etiqueta, ativo, setor, page.items().size(), System.nanoTime() - start);
+        return page;
+    }
+
+    /**
+     * Calcula as facetas da busca (quantidade de itens por setor e por status) nos bitmaps em memória, a partir dos
+     * candidatos do índice de trigramas e do índice de etiquetas, sem consulta ao banco.
+     * @param searchTerm Termo de busca (opcional).
+     * @param ativo Status ativo/inativo (opcional).
+     * @param setor Setor (opcional).
+     * @return As facetas, ou null se os índices não puderem respondê-las (em construção, desabilitados, ou termo
+     *         com menos de 3 caracteres).
+     */
+    public SearchFacets facets(String searchTerm, Boolean ativo, String setor) {
+        if (!StringUtils.hasText(searchTerm)) {
+            return facetIndex.facets(null, setor, ativo, true);
+        }
+        // Os mesmos candidatos da busca paginada, inclusive o item da etiqueta de um termo numérico
+        int[] candidates = searchCandidates(searchTerm);
+        if (candidates == null) {
+            return null;
+        }
+        return facetIndex.facets(candidates, setor, ativo, false);
+    }
+
+    /**
+     * Versão de {@link #findPage(String, int)} que seleciona e devolve apenas alguns campos de cada item.
+     * @param cursor Token recebido na página anterior (null para a primeira página).
+     * @param limit Quantidade máxima de itens na página.
+     * @param fields Os campos pedidos (veja {@link #parseFields(String)}).
+     * @return A página com um mapa campo → valor por item e o cursor da próxima página.
+     */
+    public CursorPage<Map<String, Object>> findPageFields(String cursor, int limit, List<String> fields) {
+        return replicaRouter.read(() -> sliceFields((afterId, n) -> inventarioRepository.findSliceFields(null, afterId, n,
+                fields), cursor, limit));
+    }
+
+    /**
+     * Versão de {@link #searchPage(String, Integer, Boolean, String, String, int)} que seleciona e devolve
+     * apenas alguns campos de cada item.
+     * @param fields Os campos pedidos (veja {@link #parseFields(String)}).
+     * @return A página com um mapa campo → valor por item e o cursor da próxima página.
+     */
+    public CursorPage<Map<String, Object>> searchPageFields(String searchTerm, Integer etiqueta, Boolean ativo, String setor,
+                                                            String cursor, int limit, List<String> fields) {
+        long start = System.nanoTime();
+        CursorPage<Map<String, Object>> page = replicaRouter.read(() -> sliceFields((afterId, n) -> searchSlice(searchTerm,
+                etiqueta, ativo, setor, afterId, n, (spec, after, max) -> inventarioRepository.findSliceFields(spec,
+                        after, max, fields)), cursor, limit));
+        searchMetrics.record(searchTerm, etiqueta, ativo, setor, page.items().size(), System.nanoTime() - start);
+        return page;
+    }
+
+    /**
+     * Interpreta o parâmetro 'fields' das listagens (ex: "nome,etiqueta,setor").
+     * O id é sempre incluído (é a chave do cursor) e os campos voltam na ordem de LIST_FIELDS,
+     * então "setor,nome" e "nome,setor" geram a mesma consulta e o mesmo JSON.
+     * @param fields Os nomes separados por vírgula.
+     * @return Os campos a selecionar.
+     * @throws BadRequestException Se algum nome não for um campo do item.
+     */
+    public List<String> parseFields(String fields) {
+        Set<String> requested = new HashSet<>();
+        requested.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!LIST_FIELDS.contains(name)) {
+                throw new BadRequestException("Campo desconhecido em 'fields': '" + name + "'. Campos disponíveis: "
+                        + LIST_FIELDS + ".");
+            }
+            requested.add(name);
+        }
+        return LIST_FIELDS.stream().filter(requested::contains).toList();
+    }
+
+    /**
+     * Leitura de uma fatia ordenada por id: até 'limit' itens com id maior que 'afterId'.
+     */
+    @FunctionalInterface
+    private interface SliceReader<T> {
+        List<T> read(long afterId, int limit);
+    }
+
+    /**
+     * Consulta de uma fatia com uma Specification (ex: InventarioRepository::findSlice).
+     */
+    @FunctionalInterface
+    private interface SliceQuery<T> {
+        List<T> find(Specification<Inventario> spec, long afterId, int limit);
+    }
+
+    private CursorPage<Map<String, Object>> sliceFields(SliceReader<Map<String, Object>> reader, String cursor, int limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        List<Map<String, Object>> items = reader.read(afterId, limit + 1);
+        if (items.size() <= limit) {
+            return new CursorPage<>(items, null);
+        }
+        List<Map<String, Object>> page = items.subList(0, limit);
+        return new CursorPage<>(page, CursorPage.encodeCursor((Long) page.get(limit - 1).get("id")));
+    }
+
+    private CursorPage<Inventario> slice(SliceReader<Inventario> reader, String cursor, int limit) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        // Busca um item a mais para saber se existe uma próxima página sem precisar de COUNT.
+        List<Inventario> items = reader.read(afterId, limit + 1);
+        if (items.size() <= limit) {
+            return new CursorPage<>(items, null);
+        }
+        List<Inventario> page = items.subList(0, limit);
+        return new CursorPage<>(page, CursorPage.encodeCursor(page.get(limit - 1).getId()));
+    }
+
+    /**
+     * Lê uma página da busca (até 'limit' itens com id maior que 'afterId') enviando ao banco apenas uma janela dos
+     * candidatos do termo, em vez da lista inteira.
+     *
+     * Os candidatos estão ordenados por id, assim como a página: a primeira janela são os candidatos após o cursor,
+     * CANDIDATE_WINDOW_FACTOR vezes o tamanho da página. Como o índice devolve um superconjunto (o LIKE ainda é
+     * aplicado) e os outros filtros descartam linhas, a janela pode não completar a página; nesse caso a leitura
+     * continua a partir do fim da janela, com uma janela duas vezes maior, até 'inventario.search.trigram.max-candidates'.
+     * Se nem a maior janela completar a página (filtros seletivos sobre um termo comum), o restante da página vem do
+     * LIKE a partir do fim da última janela, em vez de uma lista "id IN (...)" ainda maior.
+     *
+     * Sem candidatos (índice em construção ou desabilitado, ou termo com menos de 3 caracteres), a página vem apenas
+     * do LIKE, lido em ordem de id a partir do cursor e limitado ao tamanho da página.
+     */
+    private <T> List<T> searchSlice(String searchTerm, Integer etiqueta, Boolean ativo, String setor, long afterId,
+                                    int limit, SliceQuery<T> query) {
+        int[] candidates = StringUtils.hasText(searchTerm) ? searchCandidates(searchTerm) : null;
+        if (candidates == null) {
+            return query.find(buildSpecification(searchTerm, etiqueta, ativo, setor, null), afterId, limit);
+        }
+        int from = Arrays.binarySearch(candidates, (int) Math.min(afterId, Integer.MAX_VALUE));
+        from = from >= 0 ? from + 1 : -from - 1;
+        int window = (int) Math.max(1, Math.min((long) CANDIDATE_WINDOW_FACTOR * limit, maxTrigramCandidates));
+        long after = afterId;
+        List<T> items = new ArrayList<>(limit);
+        while (from < candidates.length) {
+            int to = (int) Math.min(candidates.length, (long) from + window);
+            List<Long> candidateIds = Arrays.stream(candidates, from, to).asLongStream().boxed().toList();
+            items.addAll(query.find(buildSpecification(searchTerm, etiqueta, ativo, setor, candidateIds),
+                    after, limit - items.size()));
+            if (items.size() >= limit) {
+                break;
+            }
+            after = candidates[to - 1];
+            from = to;
+            if (window >= maxTrigramCandidates && from < candidates.length) {
+                // Candidatos demais para a página: continua pelo LIKE, após os candidatos já conferidos
+                items.addAll(query.find(buildSpecification(searchTerm, etiqueta, ativo, setor, null),
+                        after, limit - items.size()));
+                break;
+            }
+            window = (int) Math.min(2L * window, maxTrigramCandidates);
+        }
+        return items;
+    }
+
+    /**
+     * Ids que podem conter o termo de busca, ordenados: os candidatos do índice de trigramas e, para um termo
+     * numérico, o item com essa etiqueta (o termo também busca pela etiqueta).
+     * @return Os candidatos, ou null se o índice não puder respondê-los (em construção ou desabilitado, ou termo com
+     *         menos de 3 caracteres, que não forma trigramas) e a busca deve usar apenas o LIKE.
+     */
+    private int[] searchCandidates(String searchTerm) {
+        String termo = searchTerm.trim();
+        if (!TrigramIndex.formaTrigramas(termo)) {
+            return null;
+        }
+        int[] candidates = trigramIndex.candidates(termo);
+        if (candidates == null) {
+            return null;
+        }
+        Integer searchEtiqueta = parseEtiqueta(termo);
+        if (searchEtiqueta != null) {
+            long id = idDaEtiqueta(searchEtiqueta);
+            if (id != 0 && id <= Integer.MAX_VALUE && Arrays.binarySearch(candidates, (int) id) < 0) {
+                candidates = Arrays.copyOf(candidates, candidates.length + 1);
+                candidates[candidates.length - 1] = (int) id;
+                Arrays.sort(candidates);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Id do item com a etiqueta, pelo índice de etiquetas ou, sem ele, pelo índice único da coluna (0 = nenhum).
+     */
+    private long idDaEtiqueta(int etiqueta) {
+        if (etiquetaIndex.isReady()) {
+            return etiquetaIndex.idOf(etiqueta);
+        }
+        return inventarioRepository.findFirstByEtiqueta(etiqueta).map(Inventario::getId).orElse(0L);
+    }
+
+    private static Integer parseEtiqueta(String termo) {
+        try {
+            return Integer.parseInt(termo);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Monta a Specification com os filtros de busca (nome, usuário, etiqueta, ativo, setor).
+     * Usada pelas operações em lote, que aplicam a operação a todos os itens encontrados: com todos os candidatos
+     * do termo ou, acima de 'inventario.search.trigram.max-candidates' (ou sem candidatos, ver searchCandidates),
+     * apenas o LIKE, que lê a tabela inteira.
+     */
+    Specification<Inventario> buildSpecification(String searchTerm, Integer etiqueta, Boolean ativo, String setor) {
+        int[] candidates = StringUtils.hasText(searchTerm) ? searchCandidates(searchTerm) : null;
+        List<Long> candidateIds = candidates != null && candidates.length <= maxTrigramCandidates
+                ? Arrays.stream(candidates).asLongStream().boxed().toList()
+                : null;
+        return buildSpecification(searchTerm, etiqueta, ativo, setor, candidateIds);
+    }
+
+    /**
+     * Monta a Specification com os filtros de busca.
+     * @param candidateIds Os ids que podem conter o termo (ver searchCandidates); null = apenas o LIKE.
+     */
+    private Specification<Inventario> buildSpecification(String searchTerm, Integer etiqueta, Boolean ativo, String setor,
+                                                         List<Long> candidateIds) {
+        return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // 1. Filtro por searchTerm (nome OU usuário OU etiqueta)
+            // 1. Filtro por searchTerm (nome OU usuário OU número de série OU etiqueta)
             if (StringUtils.hasText(searchTerm)) {
-                try {
-                    // Tenta converter searchTerm para Integer para buscar por etiqueta
-                    // HINT: "Unnecessary temporary when converting from String"
-                    // Embora o IDE possa sugerir isso, searchTerm.trim() é útil para remover
-                    // espaços em branco antes de tentar a conversão ou usar em comparações,
-                    // garantindo que a lógica de parseamento não falhe por espaços indesejados.
-                    Integer searchEtiqueta = Integer.parseInt(searchTerm.trim());
-                    predicates.add(criteriaBuilder.or(
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("nome")), "%" + searchTerm.toLowerCase() + "%"),
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("usuario")), "%" + searchTerm.toLowerCase() + "%"),
-                            criteriaBuilder.equal(root.get("etiqueta"), searchEtiqueta) // Busca por etiqueta
-                    ));
-                } catch (NumberFormatException e) {
-                    // Se não for um número, busca apenas por nome ou usuário
-                    predicates.add(criteriaBuilder.or(
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("nome")), "%" + searchTerm.toLowerCase() + "%"),
-                            criteriaBuilder.like(criteriaBuilder.lower(root.get("usuario")), "%" + searchTerm.toLowerCase() + "%")
-                    ));
+                // Os curingas do LIKE digitados no termo são buscados literalmente, como no índice de trigramas
+                String pattern = "%" + escapeLike(searchTerm.toLowerCase()) + "%";
+                Predicate textMatch = criteriaBuilder.or(
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("nome")), pattern, LIKE_ESCAPE),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("usuario")), pattern, LIKE_ESCAPE),
+                        criteriaBuilder.like(criteriaBuilder.lower(root.get("numeroSerie")), pattern, LIKE_ESCAPE)
+                );
+                Integer searchEtiqueta = parseEtiqueta(searchTerm.trim());
+                if (searchEtiqueta != null) {
+                    // Um termo numérico também busca pela etiqueta
+                    textMatch = criteriaBuilder.or(textMatch, criteriaBuilder.equal(root.get("etiqueta"), searchEtiqueta));
                 }
+                if (candidateIds != null) {
+                    // Com os candidatos, o banco aplica o LIKE apenas sobre as linhas "id IN (...)", lidas pela
+                    // chave primária, em vez de varrer a tabela inteira. O item da etiqueta está entre eles.
+                    textMatch = candidateIds.isEmpty()
+                            ? criteriaBuilder.disjunction()
+                            : criteriaBuilder.and(root.get("id").in(candidateIds), textMatch);
+                }
+                predicates.add(textMatch);
             }
 
             // 2. Filtro por etiqueta (se fornecida explicitamente como um campo separado)
@@ -102,9 +725,9 @@ public class InventarioService {
                 predicates.add(criteriaBuilder.equal(root.get("ativo"), ativo));
             }
 
-            // 4. Filtro por 'setor'
+            // 4. Filtro por 'setor' (sem diferenciar maiúsculas: compara a coluna normalizada, que usa o índice)
             if (StringUtils.hasText(setor)) {
-                predicates.add(criteriaBuilder.equal(criteriaBuilder.lower(root.get("setor")), setor.toLowerCase()));
+                predicates.add(criteriaBuilder.equal(root.get("setorNormalizado"), Inventario.normalizarSetor(setor)));
             }
 
             // HINT: "new array created just to be passed to Collection.toArray"
@@ -112,6 +735,18 @@ public class InventarioService {
             // uma List em um array de um tipo específico, especialmente para coleções
             // genéricas. É eficiente e evita ClassCastException em tempo de execução.
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        });
+        };
+    }
+
+    private static String escapeLike(String termo) {
+        StringBuilder escapado = new StringBuilder(termo.length() + 4);
+        for (int i = 0; i < termo.length(); i++) {
+            char c = termo.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escapado.append(LIKE_ESCAPE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
     }
 }
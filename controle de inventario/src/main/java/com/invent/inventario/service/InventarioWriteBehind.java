@@ -0,0 +1,634 @@
+package com.invent.inventario.service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.dto.EstadoGravacao;
+import com.invent.inventario.dto.EstadoGravacao.Estado;
+import com.invent.inventario.dto.WriteBehindStatistics;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.ResourceNotFoundException;
+import com.invent.inventario.exception.ServiceUnavailableException;
+import com.invent.inventario.repository.InventarioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Fila de gravações assíncronas do PUT /itens/{id} (opcional, com Prefer: respond-async).
+ *
+ * A gravação é aceita em memória e respondida com 202 e um número de sequência; uma thread separada grava os
+ * itens pendentes em lotes, cada lote em uma única transação (um SELECT por id, os UPDATEs em JDBC batch e os
+ * eventos de alteração). Gravações do mesmo item que ainda não foram gravadas são mescladas: vence a última,
+ * e o item mantém a posição da primeira na fila. A fila é limitada em itens distintos; cheia, a gravação espera
+ * alguns milissegundos por espaço e depois é recusada com 503.
+ *
+ * Durabilidade: uma gravação aceita só está no banco depois de confirmada (estado GRAVADA); até lá, ela se perde
+ * se o processo terminar de forma abrupta. No encerramento normal, os itens pendentes são gravados antes de sair.
+ * Leituras (GET, buscas, exportação) só veem a alteração depois de gravada. As gravações síncronas do mesmo item
+ * (PUT sem a preferência, PATCH, DELETE e operações em lote) gravam antes o que estiver pendente, para não serem
+ * sobrescritas por uma gravação mais antiga.
+ */
+@Component
+public class InventarioWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventarioWriteBehind.class);
+
+    private static final int MAX_FALHAS = 1000; // Falhas guardadas para consulta (as mais recentes)
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventario.write-behind.enabled:false}")
+    private boolean enabled;
+
+    // Quantidade máxima de itens distintos pendentes (as gravações mescladas não ocupam espaço).
+    @Value("${inventario.write-behind.capacity:10000}")
+    private int capacity;
+
+    // Itens gravados por transação.
+    @Value("${inventario.write-behind.batch-size:500}")
+    private int batchSize;
+
+    // Tempo máximo que uma gravação espera por um lote completo antes de ser gravada.
+    @Value("${inventario.write-behind.max-delay-ms:200}")
+    private long maxDelayMillis;
+
+    // Tempo que uma gravação espera por espaço na fila cheia antes de receber 503.
+    @Value("${inventario.write-behind.offer-timeout-ms:100}")
+    private long offerTimeoutMillis;
+
+    /**
+     * Gravação pendente de um item: os dados mais recentes e as sequências das gravações mescladas nela.
+     */
+    private static final class Pendente {
+
+        final Long id;
+        final long aceitaEm; // System.nanoTime() da primeira gravação (atraso até a confirmação)
+        Inventario dados;
+        long[] sequencias = new long[2];
+        int quantidade;
+
+        Pendente(Long id, Inventario dados, long sequencia) {
+            this.id = id;
+            this.dados = dados;
+            this.aceitaEm = System.nanoTime();
+            add(sequencia);
+        }
+
+        void add(long sequencia) {
+            if (quantidade == sequencias.length) {
+                sequencias = Arrays.copyOf(sequencias, quantidade * 2);
+            }
+            sequencias[quantidade++] = sequencia;
+        }
+
+        long primeira() {
+            return sequencias[0];
+        }
+
+        long ultima() {
+            return sequencias[quantidade - 1];
+        }
+
+        boolean contains(long sequencia) {
+            return Arrays.binarySearch(sequencias, 0, quantidade, sequencia) >= 0; // Crescentes
+        }
+    }
+
+    /**
+     * Falha de gravação de um item, com as sequências das gravações incluídas.
+     */
+    private record Falha(long[] sequencias, Long id, String mensagem, Instant quando) {
+
+        boolean contains(long sequencia) {
+            return Arrays.binarySearch(sequencias, sequencia) >= 0;
+        }
+
+        WriteBehindStatistics.Failure toFailure() {
+            return new WriteBehindStatistics.Failure(sequencias[0], sequencias[sequencias.length - 1], id, mensagem, quando);
+        }
+    }
+
+    /**
+     * Resultado da gravação de um lote: os itens gravados (ou sem alteração) e os recusados, com o motivo.
+     */
+    private record ResultadoLote(List<Pendente> gravados, Map<Pendente, String> falhas) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition naoVazia = lock.newCondition();
+    private final Condition gravados = lock.newCondition(); // Sinalizada ao fim de cada lote (espaço livre, itens em voo)
+    private final LinkedHashMap<Long, Pendente> pendentes = new LinkedHashMap<>(); // Ordem de chegada
+    private final Map<Long, Pendente> emVoo = new HashMap<>(); // Retirados da fila e ainda não confirmados
+    private final Deque<Falha> falhas = new ArrayDeque<>();
+    private long ultimaSequencia;
+    private boolean encerrando;
+    private volatile int tamanho; // pendentes.size(), para o gauge sem o lock
+    private Thread flusher;
+
+    private Counter aceitas;
+    private Counter mescladas;
+    private Counter recusadas;
+    private Counter gravadas;
+    private Counter falharam;
+    private Timer atraso;
+    private Timer lotes;
+    private DistributionSummary tamanhoLote;
+
+    @PostConstruct
+    void registerMetrics() {
+        aceitas = counter("accepted");
+        mescladas = counter("merged");
+        recusadas = counter("rejected");
+        gravadas = counter("written");
+        falharam = counter("failed");
+        atraso = Timer.builder("inventario.write-behind.lag")
+                .description("Tempo entre a aceitação de uma gravação assíncrona e o commit")
+                .register(meterRegistry);
+        lotes = Timer.builder("inventario.write-behind.flush")
+                .description("Tempo de gravação de um lote da fila de gravações assíncronas")
+                .register(meterRegistry);
+        tamanhoLote = DistributionSummary.builder("inventario.write-behind.batch.size")
+                .description("Itens por lote da fila de gravações assíncronas")
+                .register(meterRegistry);
+        Gauge.builder("inventario.write-behind.pending", this, writeBehind -> writeBehind.tamanho)
+                .description("Itens com gravação assíncrona pendente")
+                .register(meterRegistry);
+        Gauge.builder("inventario.write-behind.oldest", this, InventarioWriteBehind::oldestPendingMillis)
+                .description("Espera da gravação assíncrona pendente mais antiga, em milissegundos")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("inventario.write-behind.updates")
+                .description("Gravações assíncronas, por resultado")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia a thread de gravação, se o modo assíncrono estiver habilitado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            flusher = Thread.ofPlatform().name("write-behind-flush").daemon().start(this::run);
+            logger.info("Gravações assíncronas habilitadas: até {} itens pendentes, lotes de {} itens, atraso máximo de {} ms.",
+                    capacity, batchSize, maxDelayMillis);
+        }
+    }
+
+    /**
+     * Encerramento normal: recusa novas gravações e grava as pendentes antes de sair.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        lock.lock();
+        try {
+            encerrando = true;
+            naoVazia.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        flushAll();
+    }
+
+    /**
+     * @return Se o PUT pode ser respondido de forma assíncrona (inventario.write-behind.enabled).
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Aceita uma gravação do item para ser feita em segundo plano. Se o item já tiver uma gravação pendente,
+     * os novos dados a substituem.
+     * @param id O id do item.
+     * @param detalhes Os novos dados do item (já validados).
+     * @return O estado da gravação (PENDENTE), com a sequência para consulta.
+     * @throws ResourceNotFoundException Se o item não existir.
+     * @throws ServiceUnavailableException Se a fila continuar cheia após a espera ou a API estiver encerrando.
+     */
+    public EstadoGravacao enqueue(Long id, Inventario detalhes) {
+        // Item inexistente recebe 404 na hora (a consulta usa o cache), em vez de uma falha depois do 202.
+        inventarioService.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Item de inventário não encontrado com id: " + id));
+        lock.lock();
+        try {
+            long restante = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+            while (true) {
+                if (encerrando) {
+                    throw new ServiceUnavailableException("A API está encerrando e não aceita novas gravações.", 5);
+                }
+                Pendente pendente = pendentes.get(id);
+                if (pendente != null) {
+                    pendente.dados = detalhes;
+                    pendente.add(++ultimaSequencia);
+                    aceitas.increment();
+                    mescladas.increment();
+                    return new EstadoGravacao(ultimaSequencia, id, Estado.PENDENTE, null);
+                }
+                if (pendentes.size() < capacity) {
+                    break;
+                }
+                if (restante <= 0) {
+                    recusadas.increment();
+                    throw new ServiceUnavailableException("A fila de gravações assíncronas está cheia (" + capacity
+                            + " itens pendentes). Tente novamente em instantes.", 1);
+                }
+                restante = gravados.awaitNanos(restante);
+            }
+            Pendente pendente = new Pendente(id, detalhes, ++ultimaSequencia);
+            pendentes.put(id, pendente);
+            tamanho = pendentes.size();
+            aceitas.increment();
+            if (tamanho == 1 || tamanho >= batchSize) {
+                naoVazia.signal();
+            }
+            return new EstadoGravacao(pendente.ultima(), id, Estado.PENDENTE, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("A gravação foi interrompida antes de ser aceita.", 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Consulta o estado de uma gravação aceita.
+     * @param sequencia A sequência devolvida no 202.
+     * @return PENDENTE, GRAVADA ou FALHOU (com o motivo).
+     * @throws ResourceNotFoundException Se a sequência não tiver sido atribuída por esta instância da API.
+     */
+    public EstadoGravacao estado(long sequencia) {
+        lock.lock();
+        try {
+            if (sequencia <= 0 || sequencia > ultimaSequencia) {
+                throw new ResourceNotFoundException("Gravação assíncrona não encontrada: " + sequencia
+                        + " (a sequência é reiniciada quando a API reinicia).");
+            }
+            if (sequencia > confirmada()) {
+                for (Pendente pendente : emEspera()) {
+                    if (pendente.contains(sequencia)) {
+                        return new EstadoGravacao(sequencia, pendente.id, Estado.PENDENTE, null);
+                    }
+                }
+            }
+            for (Falha falha : falhas) {
+                if (falha.contains(sequencia)) {
+                    return new EstadoGravacao(sequencia, falha.id(), Estado.FALHOU, falha.mensagem());
+                }
+            }
+            return new EstadoGravacao(sequencia, null, Estado.GRAVADA, null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava agora a gravação pendente do item, se houver, esperando a que estiver em andamento. Chamado antes
+     * das gravações síncronas do item, para que uma gravação assíncrona mais antiga não as sobrescreva depois.
+     * @param id O id do item.
+     */
+    public void drain(Long id) {
+        Pendente pendente;
+        lock.lock();
+        try {
+            if (pendentes.isEmpty() && emVoo.isEmpty()) {
+                return;
+            }
+            while (emVoo.containsKey(id)) {
+                gravados.awaitUninterruptibly();
+            }
+            pendente = pendentes.remove(id);
+            if (pendente == null) {
+                return;
+            }
+            tamanho = pendentes.size();
+            emVoo.put(id, pendente);
+        } finally {
+            lock.unlock();
+        }
+        write(List.of(pendente));
+    }
+
+    /**
+     * Grava agora todos os itens pendentes (antes das operações em lote, no encerramento ou a pedido).
+     * @return O estado da fila após a gravação.
+     */
+    public WriteBehindStatistics flushAll() {
+        while (true) {
+            List<Pendente> lote;
+            lock.lock();
+            try {
+                while (!emVoo.isEmpty()) {
+                    gravados.awaitUninterruptibly();
+                }
+                if (pendentes.isEmpty()) {
+                    break;
+                }
+                lote = takeBatch();
+            } finally {
+                lock.unlock();
+            }
+            write(lote);
+        }
+        return statistics();
+    }
+
+    /**
+     * @return O estado da fila e os contadores de gravações.
+     */
+    public WriteBehindStatistics statistics() {
+        lock.lock();
+        try {
+            return new WriteBehindStatistics(enabled, pendentes.size() + emVoo.size(), capacity, ultimaSequencia,
+                    confirmada(), oldestPendingMillis(), (long) aceitas.count(), (long) mescladas.count(),
+                    (long) recusadas.count(), (long) gravadas.count(), (long) falharam.count(), lotes.count(),
+                    falhas.stream().map(Falha::toFailure).toList());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: espera um lote completo ou a gravação mais antiga atingir o atraso máximo.
+     */
+    private void run() {
+        long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        while (true) {
+            List<Pendente> lote;
+            lock.lock();
+            try {
+                while (pendentes.isEmpty()) {
+                    if (encerrando) {
+                        return;
+                    }
+                    naoVazia.await();
+                }
+                while (!encerrando && !pendentes.isEmpty() && pendentes.size() < batchSize) {
+                    long espera = maxDelayNanos - (System.nanoTime() - pendentes.firstEntry().getValue().aceitaEm);
+                    if (espera <= 0) {
+                        break;
+                    }
+                    naoVazia.awaitNanos(espera);
+                }
+                if (pendentes.isEmpty()) {
+                    continue; // Gravados por drain/flushAll enquanto esperava
+                }
+                lote = takeBatch();
+                if (lote.isEmpty()) {
+                    gravados.await(); // Todos os pendentes já têm uma gravação em voo (drain)
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                logger.warn("Thread de gravações assíncronas interrompida; os itens pendentes serão gravados no encerramento.");
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                write(lote);
+            } catch (RuntimeException e) {
+                logger.error("Erro inesperado na thread de gravações assíncronas: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Retira até batch-size itens do início da fila e os marca como em voo. Chamado com o lock.
+     * Um item que já está em voo (retirado por drain e aceito de novo enquanto era gravado) continua na fila: duas
+     * transações gravando o mesmo item ao mesmo tempo poderiam confirmar os dados mais antigos por último.
+     */
+    private List<Pendente> takeBatch() {
+        List<Pendente> lote = new ArrayList<>(Math.min(batchSize, pendentes.size()));
+        Iterator<Pendente> iterator = pendentes.values().iterator();
+        while (iterator.hasNext() && lote.size() < batchSize) {
+            Pendente pendente = iterator.next();
+            if (emVoo.containsKey(pendente.id)) {
+                continue;
+            }
+            iterator.remove();
+            emVoo.put(pendente.id, pendente);
+            lote.add(pendente);
+        }
+        tamanho = pendentes.size();
+        return lote;
+    }
+
+    /**
+     * Grava o lote em uma transação; se o banco recusar o lote, grava os itens um a um para isolar o problema.
+     */
+    private void write(List<Pendente> lote) {
+        long start = System.nanoTime();
+        try {
+            try {
+                ResultadoLote resultado = transactionTemplate.execute(status -> writeBatch(lote));
+                resultado.gravados().forEach(this::recordWritten);
+                resultado.falhas().forEach(this::recordFailure);
+            } catch (RuntimeException e) {
+                // O flush do EntityManager não passa pela tradução de exceções dos repositórios.
+                logger.warn("Lote de {} gravações assíncronas rejeitado pelo banco ({}); gravando item a item.",
+                        lote.size(), e instanceof DataAccessException d ? d.getMostSpecificCause().getMessage() : e.getMessage());
+                for (Pendente pendente : lote) {
+                    writeOne(pendente);
+                }
+            }
+            lotes.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            tamanhoLote.record(lote.size());
+        } finally {
+            lock.lock();
+            try {
+                for (Pendente pendente : lote) {
+                    emVoo.remove(pendente.id);
+                }
+                gravados.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lê os itens do lote por id, confere as etiquetas e aplica os novos dados; o flush envia os UPDATEs em
+     * JDBC batch. Itens removidos ou com etiqueta de outro item são recusados sem afetar o restante do lote.
+     */
+    private ResultadoLote writeBatch(List<Pendente> lote) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        Map<Long, Inventario> itens = new HashMap<>();
+        inventarioRepository.findAllById(lote.stream().map(pendente -> pendente.id).toList())
+                .forEach(item -> itens.put(item.getId(), item));
+        List<Integer> etiquetas = lote.stream().map(pendente -> pendente.dados.getEtiqueta()).filter(Objects::nonNull).toList();
+        Map<Integer, Long> donos = new HashMap<>();
+        if (!etiquetas.isEmpty()) {
+            inventarioRepository.findByEtiquetaIn(etiquetas).forEach(item -> donos.put(item.getEtiqueta(), item.getId()));
+        }
+
+        List<Pendente> confirmados = new ArrayList<>(lote.size());
+        Map<Pendente, String> recusados = new LinkedHashMap<>();
+        Map<Integer, Long> etiquetasDoLote = new HashMap<>();
+        List<Inventario> antes = new ArrayList<>();
+        List<Inventario> alterados = new ArrayList<>();
+        for (Pendente pendente : lote) {
+            Inventario item = itens.get(pendente.id);
+            if (item == null) {
+                recusados.put(pendente, "Item de inventário não encontrado com id: " + pendente.id);
+                continue;
+            }
+            Integer etiqueta = pendente.dados.getEtiqueta();
+            if (etiqueta != null) {
+                Long dono = donos.get(etiqueta);
+                Long outro = etiquetasDoLote.putIfAbsent(etiqueta, pendente.id);
+                if (dono != null && !dono.equals(pendente.id) || outro != null) {
+                    recusados.put(pendente, "A etiqueta " + etiqueta + " já pertence ao item "
+                            + (outro != null ? outro : dono) + ".");
+                    continue;
+                }
+            }
+            confirmados.add(pendente);
+            if (!sameFields(item, pendente.dados)) {
+                antes.add(new Inventario(item));
+                InventarioService.copyFields(pendente.dados, item);
+                alterados.add(item);
+            }
+        }
+        // Uma etiqueta que passa de um item para outro do mesmo lote depende da ordem dos UPDATEs (índice único);
+        // se o banco recusar, o lote é desfeito e gravado item a item.
+        entityManager.flush();
+        for (int i = 0; i < alterados.size(); i++) {
+            eventPublisher.publishEvent(new InventarioAlteradoEvent(antes.get(i), new Inventario(alterados.get(i))));
+        }
+        return new ResultadoLote(confirmados, recusados);
+    }
+
+    /**
+     * Grava um item em sua própria transação, pelo mesmo caminho do PUT síncrono.
+     */
+    private void writeOne(Pendente pendente) {
+        try {
+            inventarioService.update(pendente.id, pendente.dados);
+            recordWritten(pendente);
+        } catch (DataAccessException e) {
+            recordFailure(pendente, "Erro ao gravar no banco: " + e.getMostSpecificCause().getMessage());
+        } catch (RuntimeException e) {
+            recordFailure(pendente, e.getMessage()); // ResourceNotFoundException, ConflictException
+        }
+    }
+
+    private void recordWritten(Pendente pendente) {
+        gravadas.increment();
+        atraso.record(System.nanoTime() - pendente.aceitaEm, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordFailure(Pendente pendente, String mensagem) {
+        falharam.increment();
+        logger.warn("Gravação assíncrona do item {} (sequências {} a {}) falhou: {}",
+                pendente.id, pendente.primeira(), pendente.ultima(), mensagem);
+        lock.lock();
+        try {
+            if (falhas.size() == MAX_FALHAS) {
+                falhas.removeFirst();
+            }
+            falhas.addLast(new Falha(Arrays.copyOf(pendente.sequencias, pendente.quantidade), pendente.id, mensagem,
+                    Instant.now()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Todas as gravações até esta sequência já foram gravadas ou falharam. Chamado com o lock.
+     */
+    private long confirmada() {
+        long menor = pendentes.isEmpty() ? Long.MAX_VALUE : pendentes.firstEntry().getValue().primeira(); // Ordem de chegada
+        for (Pendente pendente : emVoo.values()) {
+            menor = Math.min(menor, pendente.primeira());
+        }
+        return menor == Long.MAX_VALUE ? ultimaSequencia : menor - 1;
+    }
+
+    /**
+     * Itens pendentes e em voo. Chamado com o lock.
+     */
+    private List<Pendente> emEspera() {
+        List<Pendente> todos = new ArrayList<>(emVoo.values());
+        todos.addAll(pendentes.values());
+        return todos;
+    }
+
+    private long oldestPendingMillis() {
+        lock.lock();
+        try {
+            long agora = System.nanoTime();
+            long maisAntiga = pendentes.isEmpty() ? agora : pendentes.firstEntry().getValue().aceitaEm;
+            for (Pendente pendente : emVoo.values()) {
+                maisAntiga = Math.min(maisAntiga, pendente.aceitaEm);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(agora - maisAntiga);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean sameFields(Inventario item, Inventario dados) {
+        return Objects.equals(item.getNome(), dados.getNome())
+                && Objects.equals(item.getEtiqueta(), dados.getEtiqueta())
+                && Objects.equals(item.getNumeroSerie(), dados.getNumeroSerie())
+                && Objects.equals(item.getUsuario(), dados.getUsuario())
+                && Objects.equals(item.getObservacoes(), dados.getObservacoes())
+                && Objects.equals(item.getAtivo(), dados.getAtivo())
+                && Objects.equals(item.getSetor(), dados.getSetor());
+    }
+}
@@ -0,0 +1,404 @@
+package com.invent.inventario.sync;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.invent.inventario.dto.AlteracoesInventario;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.ResyncRequiredException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Feed de alterações em Server-Sent Events (GET /api/inventario/itens/changes/stream), para que as telas
+ * abertas recebam as criações, alterações e remoções em vez de recarregar a lista.
+ *
+ * O feed é lido do log de alterações ({@link AlteracaoLog}), não dos eventos em memória: o id de cada evento
+ * SSE é a revisão do inventário, em ordem de commit, e um cliente que reconecta com o Last-Event-ID recebe
+ * exatamente o que perdeu (inclusive alterações feitas por outra instância da API). Os eventos de alteração
+ * apenas acordam a thread de despacho, sem nenhum trabalho na thread de quem gravou. A thread espera
+ * 'inventario.sse.coalesce-ms' para agrupar uma rajada de gravações, lê as alterações uma única vez e as
+ * repassa a todos os assinantes; o JSON é gerado uma vez por filtro distinto.
+ *
+ * Os lotes mais recentes ficam em um buffer compartilhado. Cada assinante é atendido por uma thread do pool
+ * de envio e nunca tem mais de um envio em andamento: um cliente lento não atrasa os demais nem acumula uma
+ * fila própria. Quando ele termina e os lotes que perdeu já saíram do buffer, recebe uma página agrupada do
+ * log (apenas o estado atual de cada item), como na reconexão. Um assinante parado ocupa apenas o
+ * SseEmitter e alguns campos; nenhuma thread fica presa a ele.
+ *
+ * Se a revisão do assinante for anterior ao horizonte da limpeza do log (ver {@link AlteracaoLog#purge()}) ou
+ * posterior à revisão atual (banco restaurado ou recriado depois que o cliente a recebeu), ele recebe um evento
+ * 'resync' e a conexão é encerrada: o cliente deve recarregar a lista e abrir outro feed.
+ */
+@Component
+public class AlteracaoFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlteracaoFeed.class);
+
+    private static final int PAGE_SIZE = 500; // Alterações por evento (mesmo limite de GET /itens/changes)
+
+    @Autowired
+    private AlteracaoLog alteracaoLog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Espera antes de ler o log, para agrupar as alterações de uma rajada em um único evento.
+    @Value("${inventario.sse.coalesce-ms:200}")
+    private long coalesceMillis;
+
+    // Intervalo de consulta ao log sem alterações locais (alterações feitas por outras instâncias da API).
+    @Value("${inventario.sse.poll-interval-ms:2000}")
+    private long pollIntervalMillis;
+
+    // Comentário enviado às conexões paradas, antes do timeout de leitura dos proxies (60 s no Nginx).
+    @Value("${inventario.sse.heartbeat-ms:30000}")
+    private long heartbeatMillis;
+
+    // Duração máxima de uma conexão; o EventSource do navegador reconecta com o Last-Event-ID.
+    @Value("${inventario.sse.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    // Lotes mantidos para os assinantes que ainda estão enviando o lote anterior.
+    @Value("${inventario.sse.buffer-lotes:32}")
+    private int bufferLotes;
+
+    @Value("${inventario.sse.send-threads:8}")
+    private int sendThreads;
+
+    /**
+     * Filtro do assinante. Campos null não filtram.
+     */
+    private record Filtro(String setor, Boolean ativo) {
+
+        boolean vazio() {
+            return setor == null && ativo == null;
+        }
+
+        boolean combina(Inventario item) {
+            return (setor == null || setor.equals(Inventario.normalizarSetor(item.getSetor())))
+                    && (ativo == null || ativo.equals(item.getAtivo()));
+        }
+    }
+
+    /**
+     * Página do log lida pela thread de despacho e compartilhada pelos assinantes em dia.
+     * @param desde A revisão a partir da qual a página foi lida.
+     * @param alteracoes A página.
+     * @param payloads O JSON da página para cada filtro, gerado no primeiro envio.
+     */
+    private record Lote(long desde, AlteracoesInventario alteracoes, Map<Filtro, String> payloads) {
+    }
+
+    /**
+     * Conexão SSE de um cliente e a revisão já entregue a ele.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private final Filtro filtro;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile long revisao;
+        private volatile boolean heartbeat;
+        private volatile boolean encerrado;
+
+        Assinante(SseEmitter emitter, Filtro filtro, long revisao) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+            this.revisao = revisao;
+        }
+    }
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final Deque<Lote> recentes = new ArrayDeque<>(); // Protegido por synchronized (recentes)
+    private volatile long ultimaRevisao = -1; // Revisão do último lote lido (-1: desatualizada)
+    private volatile Thread despacho;
+    private ExecutorService envios;
+
+    /**
+     * Cria o pool de envio e registra a métrica de conexões abertas.
+     */
+    @PostConstruct
+    void init() {
+        // Pool fixo: um cliente lento ocupa no máximo uma thread enquanto a escrita estiver bloqueada.
+        envios = Executors.newFixedThreadPool(sendThreads, Thread.ofPlatform().name("alteracoes-envio-", 0).daemon().factory());
+        Gauge.builder("inventario.sse.assinantes", assinantes, Set::size)
+                .description("Conexões abertas no feed de alterações (SSE)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia a thread de despacho ao fim da inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        despacho = Thread.ofPlatform().name("alteracoes-despacho").daemon().start(this::run);
+    }
+
+    /**
+     * Encerra as conexões abertas (o EventSource reconecta em outra instância ou após o reinício).
+     */
+    @PreDestroy
+    public void stop() {
+        Thread thread = despacho;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        envios.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        assinantes.clear();
+    }
+
+    /**
+     * Acorda a thread de despacho após o commit de uma alteração. Não bloqueia quem gravou.
+     * @param event O evento de alteração publicado pelo InventarioService, importação ou operação em lote.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        Thread thread = despacho;
+        if (thread != null && !assinantes.isEmpty()) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Abre uma conexão no feed.
+     * @param setor Envia apenas os itens deste setor (opcional, sem diferenciar maiúsculas).
+     * @param ativo Envia apenas os itens com este status (opcional).
+     * @param desde Revisão já conhecida pelo cliente (Last-Event-ID ou 'versao' de GET /itens/changes). Sem ela,
+     *              o feed começa na revisão atual, enviada em um evento 'revisao'.
+     * @return O emitter da conexão.
+     */
+    public SseEmitter subscribe(String setor, Boolean ativo, Long desde) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Filtro filtro = new Filtro(StringUtils.hasText(setor) ? Inventario.normalizarSetor(setor) : null, ativo);
+        Assinante assinante = new Assinante(emitter, filtro, desde != null ? desde : alteracaoLog.revisaoAtual());
+        emitter.onCompletion(() -> remove(assinante));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(assinante));
+        if (desde == null) {
+            // Antes de registrar o assinante: nenhum envio concorrente, e o navegador guarda o id para reconectar.
+            try {
+                emitter.send(SseEmitter.event().id(String.valueOf(assinante.revisao)).name("revisao")
+                        .data(String.valueOf(assinante.revisao)));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                return emitter;
+            }
+        }
+        assinantes.add(assinante);
+        logger.debug("Nova conexão no feed de alterações (setor={}, ativo={}, desde {}); {} conexões.",
+                filtro.setor(), filtro.ativo(), assinante.revisao, assinantes.size());
+        schedule(assinante);
+        return emitter;
+    }
+
+    private void run() {
+        long proximoHeartbeat = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis));
+            if (assinantes.isEmpty()) {
+                ultimaRevisao = -1; // Sem assinantes o log não é lido; quem conectar depois usa o Last-Event-ID
+                continue;
+            }
+            try {
+                Thread.sleep(coalesceMillis);
+                publish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Erro ao ler o log para o feed de alterações: {}", e.getMessage(), e);
+            }
+            if (System.nanoTime() - proximoHeartbeat >= 0) {
+                proximoHeartbeat = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+                for (Assinante assinante : assinantes) {
+                    assinante.heartbeat = true;
+                    schedule(assinante);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lê do log as alterações após o último lote e as coloca no buffer compartilhado.
+     */
+    private void publish() {
+        if (ultimaRevisao < 0) {
+            synchronized (recentes) {
+                recentes.clear();
+            }
+            ultimaRevisao = alteracaoLog.revisaoAtual();
+            assinantes.forEach(this::schedule); // Quem conectou com o Last-Event-ID recebe o que perdeu
+        }
+        long desde = ultimaRevisao;
+        while (true) {
+            AlteracoesInventario pagina = alteracaoLog.alteracoesDesde(desde, PAGE_SIZE);
+            if (pagina.versao() <= desde) {
+                return;
+            }
+            synchronized (recentes) {
+                recentes.addLast(new Lote(desde, pagina, new ConcurrentHashMap<>()));
+                if (recentes.size() > bufferLotes) {
+                    recentes.removeFirst();
+                }
+            }
+            ultimaRevisao = pagina.versao();
+            assinantes.forEach(this::schedule);
+            if (!pagina.hasMore()) {
+                return;
+            }
+            desde = pagina.versao();
+        }
+    }
+
+    /**
+     * Agenda o envio para o assinante, se ele não tiver um envio em andamento (o envio em andamento
+     * confere, ao terminar, se há algo novo).
+     */
+    private void schedule(Assinante assinante) {
+        if (!assinante.encerrado && assinante.enviando.compareAndSet(false, true)) {
+            envios.execute(() -> deliver(assinante));
+        }
+    }
+
+    /**
+     * Envia ao assinante tudo o que ele ainda não recebeu: os lotes do buffer que seguem a sua revisão ou,
+     * se ele ficou para trás, páginas lidas do log a partir dela.
+     */
+    private void deliver(Assinante assinante) {
+        boolean enviou = false;
+        try {
+            while (!assinante.encerrado) {
+                long revisao = assinante.revisao;
+                Lote lote = loteDesde(revisao);
+                AlteracoesInventario alteracoes;
+                String payload;
+                if (lote != null) {
+                    alteracoes = lote.alteracoes();
+                    payload = lote.payloads().computeIfAbsent(assinante.filtro, filtro -> toJson(filter(lote.alteracoes(), filtro)));
+                } else if (ultimaRevisao >= 0 && revisao != ultimaRevisao) {
+                    // Atrás do último lote ou à frente dele: o log confere a revisão (posterior à atual: resync)
+                    alteracoes = filter(alteracaoLog.alteracoesDesde(revisao, PAGE_SIZE), assinante.filtro);
+                    payload = toJson(alteracoes);
+                } else {
+                    break; // Em dia com o último lote lido
+                }
+                if (alteracoes.versao() <= revisao) {
+                    break;
+                }
+                if (!alteracoes.alterados().isEmpty() || !alteracoes.removidos().isEmpty()) {
+                    assinante.emitter.send(SseEmitter.event().id(String.valueOf(alteracoes.versao()))
+                            .name("alteracoes").data(payload));
+                    enviou = true;
+                }
+                assinante.revisao = alteracoes.versao();
+            }
+            if (assinante.heartbeat && !enviou && !assinante.encerrado) {
+                assinante.emitter.send(SseEmitter.event().comment(""));
+            }
+            assinante.heartbeat = false;
+        } catch (ResyncRequiredException e) {
+            remove(assinante);
+            try {
+                assinante.emitter.send(SseEmitter.event().name("resync").data(String.valueOf(e.getHorizonte())));
+                assinante.emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                assinante.emitter.completeWithError(ex);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado ou emitter já encerrado
+            logger.debug("Conexão do feed de alterações encerrada: {}", e.getMessage());
+            remove(assinante);
+            assinante.emitter.completeWithError(e);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao enviar alterações pelo feed: {}", e.getMessage(), e);
+            remove(assinante);
+            assinante.emitter.completeWithError(e);
+        } finally {
+            assinante.enviando.set(false);
+        }
+        // Um lote publicado durante o envio não reagendou este assinante (o envio estava em andamento).
+        // Se ele já saiu do buffer, o assinante é reagendado na próxima leitura do log ou no heartbeat.
+        if (loteDesde(assinante.revisao) != null) {
+            schedule(assinante);
+        }
+    }
+
+    private Lote loteDesde(long revisao) {
+        synchronized (recentes) {
+            for (Lote lote : recentes) {
+                if (lote.desde() == revisao) {
+                    return lote;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void remove(Assinante assinante) {
+        assinante.encerrado = true;
+        if (assinantes.remove(assinante)) {
+            logger.debug("Conexão do feed de alterações removida; {} conexões.", assinantes.size());
+        }
+    }
+
+    /**
+     * Aplica o filtro do assinante a uma página. Um item alterado fora do filtro pode ter acabado de sair
+     * dele (ex: mudou de setor), então vai como removido: o cliente apaga a linha, se a tiver.
+     */
+    private static AlteracoesInventario filter(AlteracoesInventario pagina, Filtro filtro) {
+        if (filtro.vazio()) {
+            return pagina;
+        }
+        List<Inventario> alterados = new ArrayList<>();
+        List<Long> removidos = new ArrayList<>(pagina.removidos());
+        for (Inventario item : pagina.alterados()) {
+            if (filtro.combina(item)) {
+                alterados.add(item);
+            } else {
+                removidos.add(item.getId());
+            }
+        }
+        return new AlteracoesInventario(alterados, removidos, pagina.versao(), pagina.hasMore());
+    }
+
+    private String toJson(AlteracoesInventario alteracoes) {
+        try {
+            return objectMapper.writeValueAsString(alteracoes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
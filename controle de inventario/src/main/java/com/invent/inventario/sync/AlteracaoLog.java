@@ -0,0 +1,314 @@
+package com.invent.inventario.sync;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.invent.inventario.config.FastStartConfig;
+import com.invent.inventario.dto.AlteracoesInventario;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.entity.InventarioAlteracao;
+import com.invent.inventario.entity.InventarioAlteracao.Tipo;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+import com.invent.inventario.exception.ResyncRequiredException;
+import com.invent.inventario.repository.InventarioAlteracaoRepository;
+import com.invent.inventario.repository.InventarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Log de alterações e revisão global do inventário, base da sincronização incremental e dos ETags.
+ *
+ * Escuta os eventos de alteração dentro da transação que os publicou (InventarioService e importação em lote),
+ * acumula os ids alterados e, logo antes do commit, incrementa o contador de revisão e grava as alterações
+ * com as novas revisões. O contador fica bloqueado do incremento até o commit, então as revisões seguem
+ * a ordem de commit: quem leu a revisão R já pode ver todas as alterações até R.
+ *
+ * O custo é que as transações de escrita (inclusive cada PATCH e cada lote das operações em lote) passam uma
+ * de cada vez por esse trecho final. Ele é curto, porque as alterações do Hibernate já foram gravadas: apenas
+ * o incremento, a troca das linhas do log e o commit. O tempo em que a linha fica bloqueada é medido em
+ * 'inventario.sync.revision-lock'; se ele se aproximar da latência das escritas, o contador é o gargalo.
+ *
+ * O log guarda uma linha por item (o tamanho acompanha a tabela), mais os marcadores de remoção. Estes são
+ * apagados após 'inventario.sync.retention' (ver {@link #purge()}); quem pedir alterações desde uma revisão
+ * anterior ao horizonte da limpeza recebe {@link ResyncRequiredException} e precisa recarregar a lista. O mesmo
+ * vale para uma revisão posterior à atual, que o cliente guardou antes de o banco ser restaurado ou recriado.
+ */
+@Component
+public class AlteracaoLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlteracaoLog.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventarioAlteracaoRepository alteracaoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Marcadores de remoção mais antigos que isto são apagados do log (0 = nunca)
+    @Value("${inventario.sync.retention:30d}")
+    private Duration retencao;
+
+    @Value("${inventario.sync.purge-interval:1h}")
+    private Duration intervaloLimpeza;
+
+    private Timer bloqueioRevisao;
+
+    /**
+     * Cria a linha do contador de revisão, se ainda não existir (exceto na execução de treino do CDS, sem banco).
+     */
+    @PostConstruct
+    void init() {
+        bloqueioRevisao = Timer.builder("inventario.sync.revision-lock")
+                .description("Tempo em que uma transação de escrita segura o contador de revisão (do incremento ao fim do commit)")
+                .register(meterRegistry);
+        if (FastStartConfig.isTrainingRun(environment)) {
+            return;
+        }
+        Integer linhas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventario_revisao WHERE id = 1", Integer.class);
+        if (linhas != null && linhas == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO inventario_revisao (id, valor, horizonte) VALUES (1, 0, 0)");
+                logger.info("Contador de revisão do inventário criado.");
+            } catch (DuplicateKeyException e) {
+                // Outra instância da API criou a linha ao mesmo tempo
+            }
+        }
+    }
+
+    /**
+     * Inicia a limpeza periódica dos marcadores de remoção antigos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (retencao.isZero() || retencao.isNegative()) {
+            logger.info("Retenção do log de alterações desabilitada: os marcadores de remoção são mantidos.");
+            return;
+        }
+        Thread.ofPlatform().name("alteracao-purge").daemon().start(this::runPurge);
+    }
+
+    /**
+     * Acumula a alteração na transação atual (gravada antes do commit) ou, sem transação, grava imediatamente.
+     * @param event O evento de alteração publicado pelo InventarioService ou pela importação.
+     */
+    @EventListener
+    public void onInventarioAlterado(InventarioAlteradoEvent event) {
+        Tipo tipo = event.remocao() ? Tipo.REMOVIDO : Tipo.ALTERADO;
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> write(Map.of(event.id(), tipo)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Tipo> pending = (Map<Long, Tipo>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Tipo> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Grava as alterações pendentes do Hibernate antes de bloquear o contador, para que a
+                    // transação não precise de outros bloqueios enquanto o segura (evita deadlocks).
+                    entityManager.flush();
+                    write(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AlteracaoLog.this);
+                }
+            });
+            pending = created;
+        }
+        pending.put(event.id(), tipo); // Várias alterações do mesmo item na transação: vale a última
+    }
+
+    /**
+     * @return A revisão atual do inventário (aumenta a cada alteração confirmada).
+     */
+    public long revisaoAtual() {
+        Long valor = jdbcTemplate.queryForObject("SELECT valor FROM inventario_revisao WHERE id = 1", Long.class);
+        return valor != null ? valor : 0;
+    }
+
+    /**
+     * Busca as alterações confirmadas após uma revisão.
+     * @param since A revisão já conhecida pelo cliente.
+     * @param limit Quantidade máxima de alterações.
+     * @return Os itens alterados (no estado atual), os ids removidos e a revisão para a próxima chamada.
+     * @throws ResyncRequiredException Se 'since' for anterior ao horizonte da limpeza ou posterior à revisão atual.
+     */
+    public AlteracoesInventario alteracoesDesde(long since, int limit) {
+        // Lida antes das alterações: tudo até esta revisão já foi confirmado e aparece na consulta abaixo.
+        Map<String, Object> revisao = jdbcTemplate.queryForMap("SELECT valor, horizonte FROM inventario_revisao WHERE id = 1");
+        long atual = ((Number) revisao.get("valor")).longValue();
+        long horizonte = ((Number) revisao.get("horizonte")).longValue();
+        if (since < horizonte) {
+            throw new ResyncRequiredException("As remoções anteriores à revisão " + horizonte + " já saíram do log de "
+                    + "alterações. Recarregue a lista completa e sincronize a partir da revisão atual.", horizonte);
+        }
+        if (since > atual) {
+            // Revisão guardada antes de uma restauração ou recriação do banco: as alterações até ela não são as
+            // mesmas, e esperar o contador passar dela pularia as que vierem antes.
+            throw new ResyncRequiredException("A revisão " + since + " é posterior à atual (" + atual + "): o banco "
+                    + "foi restaurado ou recriado. Recarregue a lista completa e sincronize a partir da revisão atual.",
+                    horizonte);
+        }
+        List<InventarioAlteracao> page = alteracaoRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit + 1));
+        boolean hasMore = page.size() > limit;
+        if (hasMore) {
+            page = page.subList(0, limit);
+        }
+
+        List<Long> alteradosIds = new ArrayList<>();
+        List<Long> removidos = new ArrayList<>();
+        for (InventarioAlteracao alteracao : page) {
+            (alteracao.getTipo() == Tipo.REMOVIDO ? removidos : alteradosIds).add(alteracao.getItemId());
+        }
+        Map<Long, Inventario> itens = new LinkedHashMap<>();
+        for (Inventario item : inventarioRepository.findAllById(alteradosIds)) {
+            itens.put(item.getId(), item);
+        }
+        List<Inventario> alterados = new ArrayList<>(itens.size());
+        for (Long id : alteradosIds) {
+            Inventario item = itens.get(id);
+            if (item != null) {
+                alterados.add(item);
+            } else {
+                removidos.add(id); // Removido depois da leitura do log; a remoção aparece de novo na próxima chamada
+            }
+        }
+
+        long ultima = page.isEmpty() ? since : page.get(page.size() - 1).getSeq();
+        long versao = hasMore ? ultima : Math.max(ultima, atual);
+        return new AlteracoesInventario(alterados, removidos, versao, hasMore);
+    }
+
+    /**
+     * Apaga do log os marcadores de remoção mais antigos que o período de retenção.
+     *
+     * Primeiro o horizonte avança até a maior revisão apagada, depois as linhas são apagadas, cada passo no seu
+     * commit: um cliente que pedir alterações entre os dois é mandado recarregar um pouco antes do necessário,
+     * mas nunca deixa de receber uma remoção. A remoção em lotes, fora da transação do horizonte, não segura o
+     * contador de revisão enquanto apaga.
+     * @return Quantos marcadores foram apagados.
+     */
+    public int purge() {
+        Timestamp limite = Timestamp.from(Instant.now().minus(retencao));
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        Long horizonte = jdbcTemplate.query(
+                "SELECT MAX(seq) FROM inventario_alteracao WHERE tipo = 'REMOVIDO' AND alterado_em < ?",
+                ps -> ps.setTimestamp(1, limite, utc), rs -> rs.next() ? rs.getObject(1, Long.class) : null);
+        if (horizonte == null) {
+            return 0;
+        }
+        jdbcTemplate.update("UPDATE inventario_revisao SET horizonte = GREATEST(horizonte, ?) WHERE id = 1", horizonte);
+        int total = 0;
+        int apagados;
+        do {
+            apagados = jdbcTemplate.update("DELETE FROM inventario_alteracao WHERE tipo = 'REMOVIDO' AND seq <= ? LIMIT "
+                    + BATCH_SIZE, horizonte);
+            total += apagados;
+        } while (apagados == BATCH_SIZE);
+        if (total > 0) {
+            logger.info("Log de alterações: {} marcadores de remoção anteriores a {} apagados (horizonte na revisão {}).",
+                    total, limite.toInstant(), horizonte);
+        }
+        return total;
+    }
+
+    private void runPurge() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                logger.error("Falha na limpeza do log de alterações: {}", e.getMessage(), e);
+            }
+            try {
+                Thread.sleep(intervaloLimpeza.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Incrementa o contador de revisão e grava uma alteração por item, substituindo as anteriores do mesmo item.
+     */
+    private void write(Map<Long, Tipo> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int count = pending.size();
+        // O UPDATE bloqueia a linha do contador até o commit: as revisões seguem a ordem de commit.
+        jdbcTemplate.update("UPDATE inventario_revisao SET valor = valor + ? WHERE id = 1", count);
+        long bloqueadoEm = System.nanoTime();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bloqueioRevisao.record(System.nanoTime() - bloqueadoEm, TimeUnit.NANOSECONDS);
+            }
+        });
+        long ultima = revisaoAtual();
+
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        jdbcTemplate.batchUpdate("DELETE FROM inventario_alteracao WHERE item_id = ?", ids, BATCH_SIZE,
+                (ps, id) -> ps.setLong(1, id));
+
+        Timestamp agora = Timestamp.from(Instant.now());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        long[] seq = {ultima - count};
+        jdbcTemplate.batchUpdate("INSERT INTO inventario_alteracao (seq, item_id, tipo, alterado_em) VALUES (?, ?, ?, ?)",
+                new ArrayList<>(pending.entrySet()), BATCH_SIZE, (ps, entry) -> {
+                    ps.setLong(1, ++seq[0]);
+                    ps.setLong(2, entry.getKey());
+                    ps.setString(3, entry.getValue().name());
+                    ps.setTimestamp(4, agora, utc); // Mesmo tratamento do Hibernate para Instant (UTC)
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package com.invent.inventario.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.invent.inventario.config.ReplicaRouter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ETag das listagens e buscas a partir da revisão global do inventário.
+ *
+ * A revisão é lida (uma consulta pela chave primária) antes de executar a listagem: se o cliente enviar
+ * If-None-Match com a mesma revisão, nada mudou no inventário e a resposta é um 304 sem corpo, sem consultar
+ * nem serializar os itens. O ETag identifica a revisão; como ele vale para a URL, os parâmetros (filtros,
+ * cursor, limit) não precisam fazer parte dele. Cache-Control: no-cache faz o navegador revalidar sempre.
+ * A mesma URL pode ser respondida em JSON, CBOR ou Smile (pelo Accept), então o formato entra no ETag
+ * e a resposta leva Vary: Accept.
+ * Com a réplica de leitura, a revisão é a do banco que vai atender a listagem (ver {@link ReplicaRouter}).
+ */
+@Component
+public class RevisaoEtagInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private AlteracaoLog alteracaoLog;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // Lida antes da consulta: se algo mudar durante a listagem, o próximo pedido recebe a resposta completa.
+        String etag = "W/\"" + replicaRouter.revisaoAtual(alteracaoLog::revisaoAtual) + representation(request) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    /**
+     * Sufixo do ETag para o formato que a negociação de conteúdo vai escolher: o primeiro tipo aceito
+     * (por especificidade e qualidade) que seja JSON, CBOR ou Smile. JSON, o padrão, não tem sufixo.
+     */
+    private static String representation(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return ""; // O Spring responde 406/400 para este Accept; o ETag não importa
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return "-smile";
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,16 @@
+-- Schema inicial do inventário, idêntico ao que o Hibernate criava com ddl-auto=update (apenas a tabela
+-- inventario, com os 8 campos originais). Bancos já existentes (criados pelo Hibernate) são marcados nesta
+-- versão sem executá-la (spring.flyway.baseline-on-migrate / baseline-version=1) e recebem apenas as migrações
+-- seguintes, então nada que o Hibernate não criava pode entrar aqui.
+
+CREATE TABLE inventario (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    nome VARCHAR(255) NOT NULL,
+    etiqueta INT,
+    numero_serie VARCHAR(255),
+    usuario VARCHAR(255),
+    observacoes VARCHAR(500),
+    ativo BIT NOT NULL,
+    setor VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
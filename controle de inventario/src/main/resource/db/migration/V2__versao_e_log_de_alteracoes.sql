@@ -0,0 +1,24 @@
+-- Versão de cada item (ETag, PATCH condicional e 409 em conflito) e log de alterações da sincronização
+-- incremental (GET /api/inventario/itens/changes e o feed SSE).
+
+-- Os itens existentes começam na versão 0; atualizado_em é preenchido na próxima gravação de cada item.
+ALTER TABLE inventario ADD COLUMN versao BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE inventario ADD COLUMN atualizado_em DATETIME(6);
+
+-- Log de alterações da sincronização incremental (uma linha por item, chave = revisão)
+CREATE TABLE inventario_alteracao (
+    seq BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    tipo VARCHAR(10) NOT NULL,
+    alterado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (seq)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_inventario_alteracao_item ON inventario_alteracao (item_id);
+
+-- Contador da revisão global (linha única, criada pelo AlteracaoLog)
+CREATE TABLE inventario_revisao (
+    id INT NOT NULL,
+    valor BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,18 @@
+-- Índices dos filtros da busca (GET /api/inventario/itens/search) e coluna de setor normalizado.
+-- Conferência dos planos: SearchPlanTest (MySQL, via Testcontainers) e SearchSchemaTest (H2, sem Docker).
+
+-- Setor em minúsculas, mantido pela aplicação a cada gravação. O filtro por setor compara esta coluna
+-- em vez de LOWER(setor), que não pode usar índice.
+-- Collation binária: o banco compara e agrupa exatamente como Inventario.normalizarSetor. Com a collation
+-- padrão (utf8mb4_0900_ai_ci), o GROUP BY do resumo juntaria "jurídico" e "juridico", que na aplicação são
+-- setores diferentes. A _0900_bin também não ignora espaços no fim, ao contrário da utf8mb4_bin.
+ALTER TABLE inventario ADD COLUMN setor_normalizado VARCHAR(100) COLLATE utf8mb4_0900_bin;
+UPDATE inventario SET setor_normalizado = LOWER(setor);
+ALTER TABLE inventario MODIFY setor_normalizado VARCHAR(100) NOT NULL COLLATE utf8mb4_0900_bin;
+
+-- Busca por etiqueta (filtro explícito e termo numérico) e pelo cache por etiqueta
+CREATE INDEX idx_inventario_etiqueta ON inventario (etiqueta);
+-- Filtro por status: o InnoDB inclui o id no índice, então "ativo = ? AND id > ? ORDER BY id" é um range scan
+CREATE INDEX idx_inventario_ativo ON inventario (ativo);
+-- Filtro por setor (prefixo do índice) e por setor + status
+CREATE INDEX idx_inventario_setor_ativo ON inventario (setor_normalizado, ativo);
@@ -0,0 +1,7 @@
+-- Etiqueta única por item (consulta por código de barras: GET /api/inventario/itens/etiqueta/{etiqueta}).
+-- Itens sem etiqueta (NULL) continuam permitidos e podem ser vários.
+-- Em um banco com etiquetas repetidas a criação do índice falha; localize-as antes com:
+--   SELECT etiqueta, COUNT(*) FROM inventario WHERE etiqueta IS NOT NULL GROUP BY etiqueta HAVING COUNT(*) > 1;
+CREATE UNIQUE INDEX uq_inventario_etiqueta ON inventario (etiqueta);
+-- O índice único substitui o índice simples da V3
+DROP INDEX idx_inventario_etiqueta ON inventario;
@@ -0,0 +1,7 @@
+-- Retenção do log de alterações (ver AlteracaoLog.purge): os marcadores de remoção mais antigos que
+-- 'inventario.sync.retention' são apagados e o horizonte guarda a maior revisão apagada. Um cliente com
+-- 'since' anterior ao horizonte recebe 410 e precisa recarregar a lista completa.
+ALTER TABLE inventario_revisao ADD COLUMN horizonte BIGINT NOT NULL DEFAULT 0;
+
+-- Localiza os marcadores de remoção antigos sem varrer o log (o InnoDB inclui o seq no índice)
+CREATE INDEX idx_inventario_alteracao_tipo_data ON inventario_alteracao (tipo, alterado_em);
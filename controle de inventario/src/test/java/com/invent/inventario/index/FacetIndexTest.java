@@ -0,0 +1,51 @@
+package com.invent.inventario.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.invent.inventario.dto.SearchFacets;
+
+/**
+ * Confere as contagens das facetas sobre bitmaps montados no teste, sem o contexto da aplicação.
+ */
+class FacetIndexTest {
+
+    private static FacetIndex.Bitmaps bitmaps() {
+        FacetIndex.Bitmaps bitmaps = new FacetIndex.Bitmaps();
+        bitmaps.add(1, "TI", true);
+        bitmaps.add(2, "TI", false);
+        bitmaps.add(3, "RH", true);
+        bitmaps.add(4, "RH", false);
+        return bitmaps;
+    }
+
+    @Test
+    void candidatoForaDosBitmapsNaoEContado() {
+        // O id 9 veio do índice de trigramas, mas o item já foi removido
+        SearchFacets facetas = FacetIndex.facets(bitmaps(), new int[] {1, 2, 3, 9}, null, null, false);
+
+        assertThat(facetas.setor()).isEqualTo(Map.of("RH", 1L, "TI", 2L));
+        assertThat(facetas.ativo()).containsEntry("true", 2L).containsEntry("false", 1L);
+    }
+
+    @Test
+    void filtroDeInativosIgnoraCandidatoForaDosBitmaps() {
+        SearchFacets facetas = FacetIndex.facets(bitmaps(), new int[] {1, 2, 4, 9}, null, false, false);
+
+        // Por setor: aplica ativo=false
+        assertThat(facetas.setor()).isEqualTo(Map.of("RH", 1L, "TI", 1L));
+        // Por status: não aplica ativo=false, e o id 9 não conta como inativo
+        assertThat(facetas.ativo()).containsEntry("true", 1L).containsEntry("false", 2L);
+    }
+
+    @Test
+    void semTermoContaTodosOsItens() {
+        SearchFacets facetas = FacetIndex.facets(bitmaps(), null, null, false, true);
+
+        assertThat(facetas.setor()).isEqualTo(Map.of("RH", 1L, "TI", 1L));
+        assertThat(facetas.ativo()).containsEntry("true", 2L).containsEntry("false", 2L);
+    }
+}
@@ -0,0 +1,121 @@
+package com.invent.inventario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.invent.inventario.dto.EstadoGravacao;
+import com.invent.inventario.dto.EstadoGravacao.Estado;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.event.InventarioAlteradoEvent;
+
+/**
+ * Confere, contra um H2 em memória, que duas transações nunca gravam o mesmo item ao mesmo tempo: uma gravação
+ * aceita de novo enquanto o drain grava a anterior fica na fila até o drain terminar, e o item termina com os
+ * dados mais recentes.
+ *
+ * A gravação do drain é retida dentro da transação (depois do UPDATE, no evento de alteração) até o teste liberá-la.
+ * Com lotes de 2 itens e atraso máximo longo, a thread de gravação só pega um lote quando o segundo item chega.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "inventario.export.fetch-size=1000",
+        "inventario.write-behind.enabled=true",
+        "inventario.write-behind.batch-size=2",
+        "inventario.write-behind.max-delay-ms=60000",
+        "logging.level.com.invent.inventario=INFO",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate=WARN"
+})
+class InventarioWriteBehindTest {
+
+    private static final String RETIDO = "Notebook retido";
+
+    @Autowired
+    private InventarioWriteBehind inventarioWriteBehind;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Retencao retencao;
+
+    /**
+     * Retém a transação que grava o nome RETIDO até o teste liberá-la.
+     */
+    @TestConfiguration
+    static class Retencao {
+
+        final CountDownLatch gravando = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+
+        @EventListener
+        void onInventarioAlterado(InventarioAlteradoEvent event) throws InterruptedException {
+            if (event.depois() != null && RETIDO.equals(event.depois().getNome())) {
+                gravando.countDown();
+                liberar.await(60, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    void gravacaoAceitaDuranteODrainEsperaODrainTerminar() throws Exception {
+        Long id = inventarioService.save(item("Notebook")).getId();
+        Long outroId = inventarioService.save(item("Monitor")).getId();
+
+        inventarioWriteBehind.enqueue(id, item(RETIDO));
+        Thread drain = Thread.ofPlatform().name("drain").start(() -> inventarioWriteBehind.drain(id));
+        try {
+            assertThat(retencao.gravando.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Aceita de novo enquanto o drain grava; o outro item completa o lote e acorda a thread de gravação
+            EstadoGravacao maisRecente = inventarioWriteBehind.enqueue(id, item("Notebook novo"));
+            inventarioWriteBehind.enqueue(outroId, item("Monitor novo"));
+
+            // A thread de gravação grava o outro item; uma segunda transação no item ficaria bloqueada na linha.
+            // O prazo só é atingido em uma máquina sobrecarregada: o bloqueio encerra a espera assim que aparece.
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!"Monitor novo".equals(nome(outroId)) && sessoesBloqueadas() == 0 && System.nanoTime() < limite) {
+                Thread.sleep(10);
+            }
+            assertThat(sessoesBloqueadas()).isZero();
+            assertThat(nome(outroId)).isEqualTo("Monitor novo");
+            assertThat(inventarioWriteBehind.estado(maisRecente.sequencia()).estado()).isEqualTo(Estado.PENDENTE);
+        } finally {
+            retencao.liberar.countDown();
+            drain.join(TimeUnit.SECONDS.toMillis(60));
+        }
+
+        inventarioWriteBehind.flushAll();
+        assertThat(nome(id)).isEqualTo("Notebook novo");
+        assertThat(inventarioWriteBehind.statistics().failed()).isZero();
+    }
+
+    private static Inventario item(String nome) {
+        return new Inventario(null, nome, null, null, "Ana Silva", null, true, "TI");
+    }
+
+    private String nome(Long id) {
+        return jdbcTemplate.queryForObject("SELECT nome FROM inventario WHERE id = ?", String.class, id);
+    }
+
+    private int sessoesBloqueadas() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.sessions WHERE blocker_id IS NOT NULL",
+                Integer.class);
+    }
+}
@@ -0,0 +1,250 @@
+package com.invent.inventario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.invent.inventario.dto.CursorPage;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.index.TrigramIndex;
+
+/**
+ * Confere, no MySQL, os planos das consultas que a busca paginada realmente envia ao banco.
+ *
+ * Para cada combinação de termo, etiqueta, ativo e setor, a primeira e a segunda página são buscadas pelo
+ * InventarioService. O SQL gerado pelo Hibernate é lido do log geral do MySQL (com os valores já no texto) e
+ * cada comando passa pelo EXPLAIN e é executado de novo, contando as linhas lidas pelo InnoDB (Handler_read_*).
+ * Um comando falha se varrer a tabela ou um índice inteiro (tipo ALL ou index) ou se ler mais de um quarto da
+ * tabela: o termo raro fica nos últimos ids, então um LIKE '%termo%' sem os candidatos do índice de trigramas
+ * leria a tabela inteira para completar a página. Termos com menos de 3 caracteres não formam trigramas e usam
+ * apenas o LIKE, então ficam fora da combinação.
+ *
+ * Confere também a collation binária de setor_normalizado, que faz o banco separar os setores como a aplicação.
+ *
+ * Usa um MySQL 8 do Testcontainers, como usuário root (o log geral e os contadores exigem privilégios); sem
+ * Docker, o teste é ignorado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.invent.inventario=INFO",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate=WARN"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchPlanTest {
+
+    private static final int ITENS = 20_000;
+    private static final int ETIQUETA_INICIAL = 100_000;
+    private static final int PAGE_SIZE = 50;
+    private static final long MAX_LINHAS_LIDAS = ITENS / 4;
+
+    private static final String[] NOMES = {
+            "Notebook Dell Latitude", "Monitor LG 24", "Impressora Epson", "Switch 24 portas",
+            "Mouse Logitech", "Teclado ABNT2", "Nobreak SMS", "Desktop Lenovo"
+    };
+    private static final String[] SETORES = {
+            "TI", "Financeiro", "RH", "Vendas", "Compras", "Jurídico", "Logística", "Diretoria"
+    };
+    private static final String[] USUARIOS = {
+            "Ana Silva", "Bruno Rocha", "Carla Souza", "Diego Lima", "Elisa Costa", "Fábio Alves", "Marina Dias"
+    };
+
+    // Termos: comum, raro (apenas nos 10 últimos itens), com curinga do LIKE e numérico
+    private static final String[] TERMOS = {
+            null, "notebook", "zeferino", "100%", String.valueOf(ETIQUETA_INICIAL + ITENS / 2)
+    };
+    private static final Integer[] ETIQUETAS = {null, ETIQUETA_INICIAL + ITENS - 3};
+    private static final Boolean[] ATIVOS = {null, true, false};
+    private static final String[] SETORES_FILTRO = {null, "TI", "jurídico"};
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0").withUsername("root");
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioImporter inventarioImporter;
+
+    @Autowired
+    private TrigramIndex trigramIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long leiturasDoShowStatus;
+
+    @BeforeAll
+    void carregarItens() throws Exception {
+        StringBuilder csv = new StringBuilder("nome,etiqueta,numeroSerie,usuario,observacoes,ativo,setor\n");
+        for (int i = 0; i < ITENS; i++) {
+            String nome = i == ITENS - 5 ? "Cabo 100% cobre" : NOMES[i % NOMES.length] + " " + i;
+            String usuario = i >= ITENS - 10 ? "Zeferino Andrade" : USUARIOS[i % USUARIOS.length];
+            csv.append(nome).append(',').append(ETIQUETA_INICIAL + i).append(",SN-").append(i * 7919L % 1_000_003)
+                    .append(',').append(usuario).append(",,").append(i % 10 != 0).append(',')
+                    .append(SETORES[i / 3 % SETORES.length]).append('\n');
+        }
+        inventarioImporter.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        while (!trigramIndex.isReady()) {
+            Thread.sleep(50);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE inventario");
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 'ON'");
+        leiturasDoShowStatus = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                return -linhasLidas(statement) + linhasLidas(statement);
+            }
+        });
+    }
+
+    @Test
+    void buscaPaginadaNaoVarreATabela() {
+        List<String> falhas = new ArrayList<>();
+        for (String termo : TERMOS) {
+            for (Integer etiqueta : ETIQUETAS) {
+                for (Boolean ativo : ATIVOS) {
+                    for (String setor : SETORES_FILTRO) {
+                        String combinacao = "termo=" + termo + ", etiqueta=" + etiqueta + ", ativo=" + ativo
+                                + ", setor=" + setor;
+                        String cursor = null;
+                        for (int pagina = 1; pagina <= 2; pagina++) {
+                            String cursorPagina = cursor;
+                            AtomicReference<CursorPage<Inventario>> resultado = new AtomicReference<>();
+                            List<String> comandos = capturar(() -> resultado.set(inventarioService.searchPage(
+                                    termo, etiqueta, ativo, setor, cursorPagina, PAGE_SIZE)));
+                            if (comandos.isEmpty()) {
+                                falhas.add(combinacao + ", página " + pagina + ": nenhum comando no log geral");
+                            }
+                            for (String sql : comandos) {
+                                conferir(combinacao + ", página " + pagina, sql, falhas);
+                            }
+                            cursor = resultado.get().nextCursor();
+                            if (cursor == null) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(falhas).isEmpty();
+    }
+
+    @Test
+    void buscaEncontraOsItensPelosCandidatos() {
+        assertThat(inventarioService.searchPage("zeferino", null, null, null, null, PAGE_SIZE).items())
+                .hasSize(10)
+                .allSatisfy(item -> assertThat(item.getUsuario()).isEqualTo("Zeferino Andrade"));
+        assertThat(inventarioService.searchPage("100%", null, null, null, null, PAGE_SIZE).items())
+                .extracting(Inventario::getNome)
+                .containsExactly("Cabo 100% cobre");
+        assertThat(inventarioService.searchPage(String.valueOf(ETIQUETA_INICIAL + ITENS / 2), null, null, null, null,
+                PAGE_SIZE).items())
+                .extracting(Inventario::getEtiqueta)
+                .contains(ETIQUETA_INICIAL + ITENS / 2);
+    }
+
+    @Test
+    void termoCurtoUsaOLikeLimitadoAPagina() {
+        List<String> comandos = capturar(() -> assertThat(inventarioService.searchPage("ab", null, null, null, null,
+                PAGE_SIZE).items())
+                .hasSize(PAGE_SIZE)
+                // A collation do MySQL ignora acentos: "Fábio" também contém "ab"
+                .allSatisfy(item -> assertThat(semAcentos(item.getNome() + " " + item.getUsuario()))
+                        .containsIgnoringCase("ab")));
+        assertThat(comandos).hasSize(1).allSatisfy(sql -> assertThat(sql).doesNotContain(" in ("));
+    }
+
+    @Test
+    void setorNormalizadoDiferenciaAcentos() {
+        // Collation binária: o banco compara e agrupa o setor como Inventario.normalizarSetor ("juridico" não é "jurídico")
+        assertThat(jdbcTemplate.queryForObject("SELECT collation_name FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = 'inventario' AND column_name = 'setor_normalizado'",
+                String.class)).isEqualTo("utf8mb4_0900_bin");
+        assertThat(inventarioService.searchPage(null, null, null, "jurídico", null, PAGE_SIZE).items()).isNotEmpty();
+        assertThat(inventarioService.searchPage(null, null, null, "juridico", null, PAGE_SIZE).items()).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT setor_normalizado FROM inventario GROUP BY setor_normalizado",
+                String.class)).contains("jurídico").doesNotContain("juridico");
+    }
+
+    /**
+     * Executa a ação e devolve os SELECTs na tabela inventario registrados no log geral durante ela.
+     */
+    private List<String> capturar(Runnable acao) {
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+        acao.run();
+        return jdbcTemplate.queryForList("SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                + "WHERE command_type = 'Query' AND CONVERT(argument USING utf8mb4) LIKE 'select%from inventario %' "
+                + "AND CONVERT(argument USING utf8mb4) NOT LIKE '%general_log%' ORDER BY event_time", String.class);
+    }
+
+    private void conferir(String combinacao, String sql, List<String> falhas) {
+        for (Map<String, Object> linha : jdbcTemplate.queryForList("EXPLAIN " + sql)) {
+            String tipo = (String) linha.get("type");
+            if ("ALL".equalsIgnoreCase(tipo) || "index".equalsIgnoreCase(tipo)) {
+                falhas.add(combinacao + ": varredura completa (type=" + tipo + ", key=" + linha.get("key") + ") em "
+                        + resumir(sql));
+            }
+        }
+        long lidas = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                long antes = linhasLidas(statement);
+                try (ResultSet rs = statement.executeQuery(sql)) {
+                    while (rs.next()) {
+                        // Lê todas as linhas, como o Hibernate
+                    }
+                }
+                return linhasLidas(statement) - antes - leiturasDoShowStatus;
+            }
+        });
+        if (lidas > MAX_LINHAS_LIDAS) {
+            falhas.add(combinacao + ": " + lidas + " linhas lidas de " + ITENS + " em " + resumir(sql));
+        }
+    }
+
+    private static long linhasLidas(Statement statement) throws SQLException {
+        long total = 0;
+        try (ResultSet rs = statement.executeQuery("SHOW SESSION STATUS LIKE 'Handler_read%'")) {
+            while (rs.next()) {
+                total += rs.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    private static String semAcentos(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+    }
+
+    private static String resumir(String sql) {
+        int where = sql.indexOf(" where ");
+        String filtros = where >= 0 ? sql.substring(where) : sql;
+        return Arrays.stream(filtros.split("\\s+")).reduce((a, b) -> a + " " + b).orElse(filtros)
+                .replaceAll("\\((\\d+,){8,}\\d+\\)", "(...)");
+    }
+}
@@ -0,0 +1,151 @@
+package com.invent.inventario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.invent.inventario.InventarioApplication;
+import com.invent.inventario.dto.AlteracoesInventario;
+import com.invent.inventario.entity.Inventario;
+
+/**
+ * Confere, sem Docker, o schema criado pelas migrações do Flyway e o índice usado por cada filtro da busca.
+ *
+ * O contexto sobe contra um H2 em memória (modo MySQL) com as migrações de src/main/resource/db/migration e
+ * ddl-auto=validate: o contexto não inicia se a entidade Inventario não corresponder ao schema migrado (ex: sem a
+ * coluna setor_normalizado). As consultas que a busca paginada envia ao banco são lidas das estatísticas do H2 e
+ * passam pelo EXPLAIN, que mostra o índice escolhido. O SearchPlanTest faz a conferência completa no MySQL.
+ *
+ * Também confere a atualização de um banco criado pelo antigo ddl-auto=update: marcado na versão 1, ele recebe as
+ * migrações seguintes e a aplicação inicia sobre ele.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "inventario.export.fetch-size=1000",
+        "logging.level.com.invent.inventario=INFO",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate=WARN"
+})
+class SearchSchemaTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migracoesCriamOsIndicesDaBusca() {
+        Map<String, List<String>> indices = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT index_name, column_name FROM information_schema.index_columns "
+                + "WHERE table_name = 'inventario' ORDER BY index_name, ordinal_position",
+                rs -> {
+                    indices.computeIfAbsent(rs.getString(1), nome -> new ArrayList<>()).add(rs.getString(2));
+                });
+        assertThat(indices)
+                .containsEntry("uq_inventario_etiqueta", List.of("etiqueta"))
+                .containsEntry("idx_inventario_ativo", List.of("ativo"))
+                .containsEntry("idx_inventario_setor_ativo", List.of("setor_normalizado", "ativo"));
+        assertThat(jdbcTemplate.queryForObject("SELECT index_type_name FROM information_schema.indexes "
+                + "WHERE table_name = 'inventario' AND index_name = 'uq_inventario_etiqueta'", String.class))
+                .isEqualTo("UNIQUE INDEX");
+        assertThat(jdbcTemplate.queryForObject("SELECT is_nullable FROM information_schema.columns "
+                + "WHERE table_name = 'inventario' AND column_name = 'setor_normalizado'", String.class))
+                .isEqualTo("NO");
+    }
+
+    @Test
+    void filtrosDaBuscaUsamOsIndices() {
+        assertThat(planos(() -> inventarioService.searchPage(null, 100_000, null, null, null, PAGE_SIZE)))
+                .isNotEmpty().allSatisfy(plano -> assertThat(plano).contains("uq_inventario_etiqueta"));
+        assertThat(planos(() -> inventarioService.searchPage(null, null, null, "Jurídico", null, PAGE_SIZE)))
+                .isNotEmpty().allSatisfy(plano -> assertThat(plano).contains("idx_inventario_setor_ativo"));
+        assertThat(planos(() -> inventarioService.searchPage(null, null, false, "TI", null, PAGE_SIZE)))
+                .isNotEmpty().allSatisfy(plano -> assertThat(plano).contains("idx_inventario_setor_ativo"));
+        assertThat(planos(() -> inventarioService.searchPageFields(null, null, null, "ti", null, PAGE_SIZE,
+                List.of("id", "nome", "setor"))))
+                .isNotEmpty().allSatisfy(plano -> assertThat(plano).contains("idx_inventario_setor_ativo"));
+    }
+
+    @Test
+    void bancoCriadoPeloHibernateRecebeAsMigracoesSeguintes() throws Exception {
+        String url = "jdbc:h2:mem:legado;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection conexao = DriverManager.getConnection(url, "sa", "");
+                Statement comando = conexao.createStatement()) {
+            // Tabela como o Hibernate a criava com ddl-auto=update, antes do Flyway
+            comando.execute("CREATE TABLE inventario (ativo BIT NOT NULL, etiqueta INT, id BIGINT NOT NULL AUTO_INCREMENT, "
+                    + "nome VARCHAR(255) NOT NULL, numero_serie VARCHAR(255), observacoes VARCHAR(500), "
+                    + "setor VARCHAR(100) NOT NULL, usuario VARCHAR(255), PRIMARY KEY (id)) ENGINE=InnoDB");
+            comando.execute("INSERT INTO inventario (ativo, etiqueta, nome, setor) VALUES (TRUE, 500, 'Notebook legado', 'Jurídico')");
+        }
+
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(InventarioApplication.class)
+                .web(WebApplicationType.NONE)
+                .run( // Argumentos de linha de comando: têm precedência sobre o application.properties
+                        "--spring.datasource.url=" + url,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--inventario.export.fetch-size=1000",
+                        "--logging.level.org.springframework=WARN",
+                        "--logging.level.org.hibernate=WARN")) {
+            JdbcTemplate legado = contexto.getBean(JdbcTemplate.class);
+            assertThat(legado.queryForList("SELECT \"version\" FROM \"flyway_schema_history\" "
+                    + "WHERE \"version\" IS NOT NULL AND \"success\" ORDER BY \"installed_rank\"", String.class))
+                    .containsExactly("1", "2", "3", "4", "5");
+            assertThat(legado.queryForObject("SELECT \"type\" FROM \"flyway_schema_history\" WHERE \"version\" = '1'",
+                    String.class)).isEqualTo("BASELINE");
+
+            InventarioService service = contexto.getBean(InventarioService.class);
+            Inventario item = service.findByEtiqueta(500).orElseThrow();
+            assertThat(item.getVersao()).isZero();
+            assertThat(service.searchPage(null, null, null, "jurídico", null, PAGE_SIZE).items())
+                    .extracting(Inventario::getId).containsExactly(item.getId());
+
+            Inventario alterado = new Inventario(item);
+            alterado.setNome("Notebook migrado");
+            service.update(item.getId(), alterado);
+            AlteracoesInventario alteracoes = service.alteracoesDesde(0L, PAGE_SIZE);
+            assertThat(alteracoes.alterados()).extracting(Inventario::getNome).containsExactly("Notebook migrado");
+            assertThat(alteracoes.alterados().get(0).getVersao()).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Executa a ação e devolve o EXPLAIN de cada SELECT na tabela inventario que ela enviou ao banco.
+     */
+    private List<String> planos(Runnable acao) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE"); // Descarta as consultas anteriores
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        acao.run();
+        List<String> comandos = jdbcTemplate.queryForList("SELECT sql_statement FROM information_schema.query_statistics "
+                + "WHERE LOWER(sql_statement) LIKE 'select%from inventario %'", String.class);
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        return comandos.stream()
+                .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .toList();
+    }
+}
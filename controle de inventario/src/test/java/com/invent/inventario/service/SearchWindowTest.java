@@ -0,0 +1,129 @@
+package com.invent.inventario.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.invent.inventario.dto.CursorPage;
+import com.invent.inventario.entity.Inventario;
+import com.invent.inventario.index.TrigramIndex;
+
+/**
+ * Confere, contra um H2 em memória, os limites da busca paginada: a janela de candidatos do índice de trigramas
+ * não passa de 'inventario.search.trigram.max-candidates' (aqui, 8) e, acima disso ou sem candidatos (termo com
+ * menos de 3 caracteres), a página vem do LIKE. Em todos os casos o resultado é o mesmo da busca completa.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:janela;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "inventario.export.fetch-size=1000",
+        "inventario.search.trigram.max-candidates=" + SearchWindowTest.MAX_CANDIDATOS,
+        "logging.level.com.invent.inventario=INFO",
+        "logging.level.org.springframework=WARN",
+        "logging.level.org.hibernate=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchWindowTest {
+
+    static final int MAX_CANDIDATOS = 8;
+
+    private static final int ITENS = 200;
+    private static final Pattern LISTA_IN = Pattern.compile("\\bin\\s*\\(([?,\\s]+)\\)", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioImporter inventarioImporter;
+
+    @Autowired
+    private TrigramIndex trigramIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void carregarItens() throws Exception {
+        // Todos os itens contêm "notebook"; apenas 1 em 50 é do setor Jurídico
+        StringBuilder csv = new StringBuilder("nome,etiqueta,numeroSerie,usuario,observacoes,ativo,setor\n");
+        for (int i = 0; i < ITENS; i++) {
+            csv.append("Notebook ").append(i).append(',').append(1000 + i).append(",SN-").append(i)
+                    .append(",Ana Silva,,true,").append(i % 50 == 49 ? "Jurídico" : "TI").append('\n');
+        }
+        inventarioImporter.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        while (!trigramIndex.isReady()) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void filtroSeletivoSobreTermoComumNaoPassaDoLimiteDeCandidatos() {
+        List<Long> esperados = ids(inventarioService.search("notebook", null, null, "jurídico"));
+        assertThat(esperados).hasSize(ITENS / 50);
+
+        List<Long> encontrados = new ArrayList<>();
+        List<String> comandos = capturar(() -> paginar("notebook", "jurídico", 2, encontrados));
+        assertThat(encontrados).isEqualTo(esperados);
+        assertThat(comandos)
+                .allSatisfy(sql -> assertThat(tamanhoDaListaIn(sql)).isLessThanOrEqualTo(MAX_CANDIDATOS))
+                .anySatisfy(sql -> assertThat(tamanhoDaListaIn(sql)).isPositive())
+                .anySatisfy(sql -> assertThat(tamanhoDaListaIn(sql)).isZero()); // O restante veio do LIKE
+    }
+
+    @Test
+    void termoCurtoUsaOLike() {
+        List<Long> esperados = ids(inventarioService.search("19", null, null, null));
+        assertThat(esperados).hasSize(12); // 19, 119 e 190 a 199
+
+        List<Long> encontrados = new ArrayList<>();
+        List<String> comandos = capturar(() -> paginar("19", null, 5, encontrados));
+        assertThat(encontrados).isEqualTo(esperados);
+        assertThat(comandos).isNotEmpty().allSatisfy(sql -> assertThat(tamanhoDaListaIn(sql)).isZero());
+    }
+
+    private void paginar(String termo, String setor, int limit, List<Long> encontrados) {
+        String cursor = null;
+        do {
+            CursorPage<Inventario> pagina = inventarioService.searchPage(termo, null, null, setor, cursor, limit);
+            encontrados.addAll(ids(pagina.items()));
+            cursor = pagina.nextCursor();
+        } while (cursor != null);
+    }
+
+    private static List<Long> ids(List<Inventario> itens) {
+        return itens.stream().map(Inventario::getId).toList();
+    }
+
+    private static int tamanhoDaListaIn(String sql) {
+        Matcher matcher = LISTA_IN.matcher(sql);
+        return matcher.find() ? matcher.group(1).split(",").length : 0;
+    }
+
+    /**
+     * Executa a ação e devolve os SELECTs na tabela inventario que ela enviou ao banco.
+     */
+    private List<String> capturar(Runnable acao) {
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE"); // Descarta as consultas anteriores
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        acao.run();
+        List<String> comandos = jdbcTemplate.queryForList("SELECT sql_statement FROM information_schema.query_statistics "
+                + "WHERE LOWER(sql_statement) LIKE 'select%from inventario %'", String.class);
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        return comandos;
+    }
+}